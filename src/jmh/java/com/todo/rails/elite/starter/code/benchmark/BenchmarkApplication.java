@@ -0,0 +1,84 @@
+package com.todo.rails.elite.starter.code.benchmark;
+
+import com.todo.rails.elite.starter.code.Application;
+import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.User;
+import com.todo.rails.elite.starter.code.service.UserService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Boots the application for benchmarks against the embedded H2 database configured in
+ * {@code application-jmh.properties} and seeds it with tasks.
+ */
+final class BenchmarkApplication {
+
+	/**
+	 * Prefix of every row a benchmark creates while it runs, so iterations can remove them again.
+	 */
+	static final String BENCHMARK_PREFIX = "bench-";
+	static final String OWNER_USERNAME = "owner";
+	static final String OWNER_PASSWORD = "password";
+	private static final String PROFILE = "jmh";
+	private static final int SEED_BATCH_SIZE = 10_000;
+	private static final String INSERT_SQL =
+			"insert into tasks (title, description, completed, due_date, owner_id, last_modified, version) values (?, ?, ?, ?, ?, ?, 0)";
+
+	private BenchmarkApplication() {
+	}
+
+	static ConfigurableApplicationContext start() {
+		return start(WebApplicationType.NONE, new ApplicationContextInitializer[0]);
+	}
+
+	// Command-line style arguments (--name=value) take precedence over application-jmh.properties.
+	static ConfigurableApplicationContext start(
+			WebApplicationType webApplicationType,
+			ApplicationContextInitializer<?>[] initializers,
+			String... args
+	) {
+		return new SpringApplicationBuilder(Application.class)
+				.profiles(PROFILE)
+				.web(webApplicationType)
+				.initializers(initializers)
+				.logStartupInfo(false)
+				.run(args);
+	}
+
+	static User createOwner(ConfigurableApplicationContext context) {
+		return context.getBean(UserService.class)
+				.addUser(new User(OWNER_USERNAME, OWNER_PASSWORD, "owner@benchmark.local", Set.of("USER")));
+	}
+
+	// Seeds through JDBC batches so a million rows take seconds; a third are completed and due dates span 30 days.
+	static void seedTasks(ConfigurableApplicationContext context, Long ownerId, int count) {
+		JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+		LocalDate today = LocalDate.now();
+		Timestamp modified = Timestamp.from(Task.modificationTime());
+		for (int from = 0; from < count; from += SEED_BATCH_SIZE) {
+			int to = Math.min(from + SEED_BATCH_SIZE, count);
+			List<Object[]> rows = new ArrayList<>(to - from);
+			for (int i = from; i < to; i++) {
+				rows.add(new Object[]{
+						"task-" + i,
+						"Seeded task " + i,
+						i % 3 == 0,
+						Date.valueOf(today.plusDays(i % 30)),
+						ownerId,
+						modified
+				});
+			}
+			jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+		}
+	}
+}
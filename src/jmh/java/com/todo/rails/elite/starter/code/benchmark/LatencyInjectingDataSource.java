@@ -0,0 +1,74 @@
+package com.todo.rails.elite.starter.code.benchmark;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Wraps the application's data source so every statement execution first sleeps for a fixed time,
+ * standing in for the network and server latency of a remote MySQL instance.
+ */
+final class LatencyInjectingDataSource extends DelegatingDataSource {
+
+	private final Duration latency;
+
+	private LatencyInjectingDataSource(DataSource target, Duration latency) {
+		super(target);
+		this.latency = latency;
+	}
+
+	static ApplicationContextInitializer<ConfigurableApplicationContext> initializer(Duration latency) {
+		return context -> context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				return bean instanceof DataSource dataSource && !(bean instanceof LatencyInjectingDataSource)
+						? new LatencyInjectingDataSource(dataSource, latency)
+						: bean;
+			}
+		});
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return (Connection) proxy(Connection.class, super.getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return (Connection) proxy(Connection.class, super.getConnection(username, password));
+	}
+
+	private Object proxy(Class<?> type, Object target) {
+		InvocationHandler handler = (proxy, method, args) -> {
+			if (target instanceof Statement && method.getName().startsWith("execute") && !latency.isZero()) {
+				Thread.sleep(latency);
+			}
+			Object result = invoke(target, method, args);
+			// Statements created by a connection are wrapped as well, using the declared return type.
+			if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+				return proxy(method.getReturnType(), result);
+			}
+			return result;
+		};
+		return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, handler);
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException exception) {
+			throw exception.getCause();
+		}
+	}
+}
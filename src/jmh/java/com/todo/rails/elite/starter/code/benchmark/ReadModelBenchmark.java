@@ -0,0 +1,129 @@
+package com.todo.rails.elite.starter.code.benchmark;
+
+import com.todo.rails.elite.starter.code.model.dto.TaskResponse;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import com.todo.rails.elite.starter.code.service.TaskReadModelService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares one page of each task listing read through JPA with the same page read from the
+ * {@link TaskReadModelService read model}, for an owner with {@code taskCount} tasks.
+ *
+ * <p>The read model's memory per task is printed once it is loaded. Add {@code -prof gc} to compare
+ * what each path allocates per page: {@code -Djmh.args="ReadModelBenchmark -p taskCount=100000 -prof gc"}.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ReadModelBenchmark {
+
+	private static final int PAGE_SIZE = 50;
+
+	@State(Scope.Benchmark)
+	public static class Data {
+
+		@Param({"1000", "100000", "1000000"})
+		public int taskCount;
+
+		ConfigurableApplicationContext context;
+		TaskRepository taskRepository;
+		TaskReadModelService readModel;
+		Long ownerId;
+		// Starts the pages halfway through the owner's tasks rather than at the cheap beginning.
+		long middleId;
+		// The seeded tasks due today are all completed, so the day page reads tomorrow's pending tasks instead.
+		LocalDate dueDate;
+
+		@Setup(Level.Trial)
+		public void start() throws InterruptedException {
+			context = BenchmarkApplication.start(
+					WebApplicationType.NONE,
+					new ApplicationContextInitializer[0],
+					"--todo.read-model.enabled=true"
+			);
+			taskRepository = context.getBean(TaskRepository.class);
+			readModel = context.getBean(TaskReadModelService.class);
+			ownerId = BenchmarkApplication.createOwner(context).getId();
+			while (!readModel.isReady(ownerId)) {
+				Thread.sleep(10);
+			}
+			BenchmarkApplication.seedTasks(context, ownerId, taskCount);
+			// Seeding bypasses the service, so the read model is loaded again from the seeded table.
+			readModel.rebuild();
+			MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+			while (meterRegistry.get("todo.read-model.tasks").gauge().value() < taskCount) {
+				Thread.sleep(10);
+			}
+			double offHeapBytes = meterRegistry.get("todo.read-model.memory").tag("area", "off-heap").gauge().value();
+			double heapBytes = meterRegistry.get("todo.read-model.memory").tag("area", "heap").gauge().value();
+			System.out.printf(
+					"%nRead model: %d tasks, %.0f bytes off the heap and %.0f on it, %.1f bytes per task%n",
+					taskCount,
+					offHeapBytes,
+					heapBytes,
+					(offHeapBytes + heapBytes) / taskCount
+			);
+			List<TaskResponse> first = taskRepository.findByOwnerIdAndIdGreaterThanOrderByIdAsc(ownerId, 0L, Limit.of(1));
+			middleId = first.getFirst().id() + taskCount / 2;
+			dueDate = LocalDate.now().plusDays(1);
+		}
+
+		@TearDown(Level.Trial)
+		public void stop() {
+			context.close();
+		}
+	}
+
+	@Benchmark
+	public List<TaskResponse> tasksPageJpa(Data data) {
+		return data.taskRepository.findByOwnerIdAndIdGreaterThanOrderByIdAsc(data.ownerId, data.middleId, Limit.of(PAGE_SIZE + 1));
+	}
+
+	@Benchmark
+	public List<TaskResponse> tasksPageReadModel(Data data) {
+		return data.readModel.getTasks(data.ownerId, data.middleId, PAGE_SIZE + 1);
+	}
+
+	@Benchmark
+	public List<TaskResponse> pendingPageJpa(Data data) {
+		return data.taskRepository.findByOwnerIdAndCompletedAfterDueDateAndId(
+				data.ownerId,
+				false,
+				data.dueDate.plusDays(14),
+				data.middleId,
+				Limit.of(PAGE_SIZE + 1)
+		);
+	}
+
+	@Benchmark
+	public List<TaskResponse> pendingPageReadModel(Data data) {
+		return data.readModel.getPendingTasks(data.ownerId, data.dueDate.plusDays(14), data.middleId, PAGE_SIZE + 1);
+	}
+
+	@Benchmark
+	public List<TaskResponse> dayPageJpa(Data data) {
+		return data.taskRepository.findByOwnerIdAndCompletedAndDueDateAndIdGreaterThanOrderByIdAsc(
+				data.ownerId,
+				false,
+				data.dueDate,
+				data.middleId,
+				Limit.of(PAGE_SIZE + 1)
+		);
+	}
+
+	@Benchmark
+	public List<TaskResponse> dayPageReadModel(Data data) {
+		return data.readModel.getPendingTasksDueOn(data.ownerId, data.dueDate, data.middleId, PAGE_SIZE + 1);
+	}
+}
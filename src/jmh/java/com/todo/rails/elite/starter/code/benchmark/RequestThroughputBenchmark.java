@@ -0,0 +1,126 @@
+package com.todo.rails.elite.starter.code.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the existing endpoints over HTTP with the servlet container on platform threads and on
+ * virtual threads.
+ *
+ * <p>Many concurrent clients call a running server whose JDBC statements are each delayed by
+ * {@code dbLatencyMillis}, which stands in for a slow MySQL. With platform threads, throughput stops
+ * growing once every Tomcat worker is blocked. With virtual threads, the connection pool is the limit.
+ * Compare both modes at one latency, for example
+ * {@code -Djmh.args="RequestThroughputBenchmark -p dbLatencyMillis=20"}.</p>
+ *
+ * <p>The client count ({@code @Threads}, override with {@code -t}) is set above Tomcat's default of 200
+ * workers. On hosts with only a few cores, lower it, or CPU contention will dominate both modes.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(256)
+public class RequestThroughputBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class Server {
+
+		@Param({"false", "true"})
+		public boolean virtualThreads;
+
+		@Param({"0", "20"})
+		public int dbLatencyMillis;
+
+		@Param({"1000"})
+		public int taskCount;
+
+		ConfigurableApplicationContext context;
+		HttpClient client;
+		URI baseUri;
+
+		@Setup(Level.Trial)
+		public void start() throws IOException, InterruptedException {
+			context = BenchmarkApplication.start(
+					WebApplicationType.SERVLET,
+					new ApplicationContextInitializer<?>[]{
+							LatencyInjectingDataSource.initializer(Duration.ofMillis(dbLatencyMillis))
+					},
+					"--server.port=0",
+					"--spring.threads.virtual.enabled=" + virtualThreads
+			);
+			Long ownerId = BenchmarkApplication.createOwner(context).getId();
+			BenchmarkApplication.seedTasks(context, ownerId, taskCount);
+			baseUri = URI.create("http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort());
+			client = HttpClient.newBuilder()
+					.version(HttpClient.Version.HTTP_1_1)
+					.cookieHandler(new CookieManager())
+					.followRedirects(HttpClient.Redirect.NEVER)
+					.build();
+			logIn();
+		}
+
+		@TearDown(Level.Trial)
+		public void stop() {
+			client.close();
+			context.close();
+		}
+
+		// Form login; the session cookie is kept by the client and shared by every benchmark thread.
+		private void logIn() throws IOException, InterruptedException {
+			HttpResponse<Void> response = client.send(
+					HttpRequest.newBuilder(baseUri.resolve("/login"))
+							.header("Content-Type", "application/x-www-form-urlencoded")
+							.POST(HttpRequest.BodyPublishers.ofString(
+									"username=" + BenchmarkApplication.OWNER_USERNAME
+											+ "&password=" + BenchmarkApplication.OWNER_PASSWORD
+							))
+							.build(),
+					HttpResponse.BodyHandlers.discarding()
+			);
+			String location = response.headers().firstValue("Location").orElse("");
+			if (response.statusCode() != 302 || location.contains("error")) {
+				throw new IllegalStateException("Login failed: " + response.statusCode() + " " + location);
+			}
+		}
+
+		int get(String path) throws IOException, InterruptedException {
+			HttpResponse<byte[]> response = client.send(
+					HttpRequest.newBuilder(baseUri.resolve(path)).GET().build(),
+					HttpResponse.BodyHandlers.ofByteArray()
+			);
+			if (response.statusCode() != 200) {
+				throw new IllegalStateException("GET " + path + " returned " + response.statusCode());
+			}
+			return response.body().length;
+		}
+	}
+
+	@Benchmark
+	public int getTaskById(Server server) throws IOException, InterruptedException {
+		return server.get("/api/tasks/1");
+	}
+
+	@Benchmark
+	public int getPendingTasks(Server server) throws IOException, InterruptedException {
+		return server.get("/api/tasks/pending?size=50");
+	}
+
+	@Benchmark
+	public int getHomePage(Server server) throws IOException, InterruptedException {
+		return server.get("/");
+	}
+}
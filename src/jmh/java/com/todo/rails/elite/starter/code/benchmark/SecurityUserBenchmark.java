@@ -0,0 +1,74 @@
+package com.todo.rails.elite.starter.code.benchmark;
+
+import com.todo.rails.elite.starter.code.model.User;
+import com.todo.rails.elite.starter.code.model.security.SecurityUser;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link SecurityUser#getAuthorities()}, which runs on every authorization check.
+ *
+ * <p>The {@code splitRoles} benchmarks reproduce the previous implementation, which split a
+ * comma-separated roles column into new authorities on every call, as a baseline. The
+ * {@code hasAuthority} benchmarks look an authority up the way Spring Security's
+ * {@code AuthorityAuthorizationManager} does for each request.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SecurityUserBenchmark {
+
+	private static final String REQUIRED_AUTHORITY = "ADMIN";
+
+	@Param({"USER", "USER,ADMIN", "USER,ADMIN,MANAGER,AUDITOR"})
+	public String roles;
+
+	private SecurityUser securityUser;
+
+	@Setup
+	public void setUp() {
+		Set<String> roleSet = new LinkedHashSet<>(Arrays.asList(roles.split(",")));
+		securityUser = new SecurityUser(new User("user", "password", "user@benchmark.local", roleSet));
+	}
+
+	@Benchmark
+	public Collection<? extends GrantedAuthority> getAuthorities() {
+		return securityUser.getAuthorities();
+	}
+
+	@Benchmark
+	public boolean hasAuthority() {
+		return hasAuthority(securityUser.getAuthorities());
+	}
+
+	@Benchmark
+	public Collection<? extends GrantedAuthority> splitRoles() {
+		return Arrays.stream(roles.split(","))
+				.map(SimpleGrantedAuthority::new)
+				.toList();
+	}
+
+	@Benchmark
+	public boolean hasAuthoritySplittingRoles() {
+		return hasAuthority(splitRoles());
+	}
+
+	private static boolean hasAuthority(Collection<? extends GrantedAuthority> authorities) {
+		for (GrantedAuthority authority : authorities) {
+			if (REQUIRED_AUTHORITY.equals(authority.getAuthority())) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,79 @@
+package com.todo.rails.elite.starter.code.benchmark;
+
+import com.todo.rails.elite.starter.code.service.search.TaskSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link TaskSearchIndex} queries over synthetic tasks, without a database.
+ *
+ * <p>Words are drawn from a Zipf-like vocabulary so that a few terms are very common, as in real
+ * task lists. With {@code owners=1} every query scans the whole index; with more owners each query
+ * only reads its owner's share.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TaskSearchBenchmark {
+
+	private static final int VOCABULARY_SIZE = 20_000;
+
+	@Param({"1000000"})
+	public int taskCount;
+
+	@Param({"1", "1000"})
+	public int owners;
+
+	private TaskSearchIndex index;
+	private long ownerId;
+
+	@Setup
+	public void setUp() {
+		SplittableRandom random = new SplittableRandom(42);
+		index = new TaskSearchIndex();
+		for (int taskId = 1; taskId <= taskCount; taskId++) {
+			index.put(taskId % owners, taskId, sentence(random, 4), sentence(random, 20));
+		}
+		ownerId = owners / 2;
+	}
+
+	@Benchmark
+	public List<Long> commonTerm() {
+		return index.search(ownerId, word(0), 20);
+	}
+
+	@Benchmark
+	public List<Long> rareTerm() {
+		return index.search(ownerId, word(VOCABULARY_SIZE / 2), 20);
+	}
+
+	@Benchmark
+	public List<Long> prefix() {
+		return index.search(ownerId, "w12", 20);
+	}
+
+	@Benchmark
+	public List<Long> multiTerm() {
+		return index.search(ownerId, word(3) + " " + word(40) + " " + word(700), 20);
+	}
+
+	private static String sentence(SplittableRandom random, int words) {
+		StringBuilder sentence = new StringBuilder();
+		for (int i = 0; i < words; i++) {
+			// Squaring a uniform draw skews it towards low ranks, which become the frequent words.
+			double draw = random.nextDouble();
+			sentence.append(word((int) (draw * draw * VOCABULARY_SIZE))).append(' ');
+		}
+		return sentence.toString();
+	}
+
+	private static String word(int rank) {
+		return "w" + rank;
+	}
+}
@@ -0,0 +1,87 @@
+package com.todo.rails.elite.starter.code.benchmark;
+
+import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the {@link TaskService} hot paths against an H2 database seeded with {@code taskCount} tasks.
+ *
+ * <p>Run a single size with {@code -Djmh.args="TaskServiceBenchmark -p taskCount=1000"}.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaskServiceBenchmark {
+
+	private static final String UPDATED_TITLE = "task-1";
+
+	@State(Scope.Benchmark)
+	public static class Data {
+
+		@Param({"1000", "100000", "1000000"})
+		public int taskCount;
+
+		ConfigurableApplicationContext context;
+		TaskService taskService;
+		JdbcTemplate jdbcTemplate;
+		Long ownerId;
+		final AtomicLong sequence = new AtomicLong();
+
+		@Setup(Level.Trial)
+		public void start() {
+			context = BenchmarkApplication.start();
+			taskService = context.getBean(TaskService.class);
+			jdbcTemplate = context.getBean(JdbcTemplate.class);
+			ownerId = BenchmarkApplication.createOwner(context).getId();
+			BenchmarkApplication.seedTasks(context, ownerId, taskCount);
+		}
+
+		// Keeps the table at its seeded size across iterations of addTask.
+		@TearDown(Level.Iteration)
+		public void removeAddedTasks() {
+			jdbcTemplate.update("delete from tasks where title like ?", BenchmarkApplication.BENCHMARK_PREFIX + "%");
+		}
+
+		@TearDown(Level.Trial)
+		public void stop() {
+			context.close();
+		}
+	}
+
+	@Benchmark
+	public List<Task> getAllTasks(Data data) {
+		return data.taskService.getAllTasks(data.ownerId);
+	}
+
+	@Benchmark
+	public List<Task> getPendingTasks(Data data) {
+		return data.taskService.getPendingTasks(data.ownerId);
+	}
+
+	@Benchmark
+	public List<Task> getTodayTasks(Data data) {
+		return data.taskService.getTodayTasks(data.ownerId);
+	}
+
+	@Benchmark
+	public Task addTask(Data data) {
+		String title = BenchmarkApplication.BENCHMARK_PREFIX + data.sequence.incrementAndGet();
+		return data.taskService.addTask(data.ownerId, new Task(title, "Benchmark task", false, LocalDate.now()));
+	}
+
+	@Benchmark
+	public Task updateTask(Data data) {
+		String description = "Updated " + data.sequence.incrementAndGet();
+		return data.taskService.updateTask(data.ownerId, new Task(UPDATED_TITLE, description, false, LocalDate.now()));
+	}
+}
@@ -0,0 +1,63 @@
+package com.todo.rails.elite.starter.code.benchmark;
+
+import com.todo.rails.elite.starter.code.model.User;
+import com.todo.rails.elite.starter.code.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures user registration, including the BCrypt hash, and the hash on its own for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+	private static final String PASSWORD = "correct horse battery staple";
+
+	@State(Scope.Benchmark)
+	public static class Data {
+
+		ConfigurableApplicationContext context;
+		UserService userService;
+		PasswordEncoder passwordEncoder;
+		JdbcTemplate jdbcTemplate;
+		final AtomicLong sequence = new AtomicLong();
+
+		@Setup(Level.Trial)
+		public void start() {
+			context = BenchmarkApplication.start();
+			userService = context.getBean(UserService.class);
+			passwordEncoder = context.getBean(PasswordEncoder.class);
+			jdbcTemplate = context.getBean(JdbcTemplate.class);
+		}
+
+		@TearDown(Level.Iteration)
+		public void removeAddedUsers() {
+			jdbcTemplate.update("delete from users where username like ?", BenchmarkApplication.BENCHMARK_PREFIX + "%");
+		}
+
+		@TearDown(Level.Trial)
+		public void stop() {
+			context.close();
+		}
+	}
+
+	@Benchmark
+	public User addUser(Data data) {
+		String username = BenchmarkApplication.BENCHMARK_PREFIX + data.sequence.incrementAndGet();
+		return data.userService.addUser(new User(username, PASSWORD, username + "@benchmark.local", null));
+	}
+
+	@Benchmark
+	public String encodePassword(Data data) {
+		return data.passwordEncoder.encode(PASSWORD);
+	}
+}
@@ -0,0 +1,25 @@
+package com.todo.rails.elite.starter.code.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Configuration class for asynchronous execution.
+ *
+ * <p>{@code @Async} methods and Spring MVC async work (such as the streaming task export) run on
+ * Spring Boot's <code>applicationTaskExecutor</code>. The threading model follows
+ * <code>spring.threads.virtual.enabled</code>:</p>
+ * <ul>
+ *   <li><strong>false (default):</strong> Tomcat serves requests from its bounded platform-thread pool
+ *       and async work uses a bounded thread-pool executor.</li>
+ *   <li><strong>true:</strong> Tomcat, {@code @Async} and MVC async work each get a virtual thread per task,
+ *       so a request blocked on JDBC no longer holds an OS thread. The Hikari pool
+ *       (<code>spring.datasource.hikari.maximum-pool-size</code>) then becomes the limit on concurrent
+ *       database work, and {@link VirtualThreadPinningMonitor} reports virtual threads that stay pinned
+ *       to their carrier.</li>
+ * </ul>
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -0,0 +1,93 @@
+package com.todo.rails.elite.starter.code.config;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs a password encoder's hashing on a small, dedicated thread pool.
+ *
+ * <p>Hashing is deliberately CPU-expensive. Confining it to a few threads with a bounded queue keeps
+ * a burst of logins or registrations from taking every core away from other requests; once the queue
+ * is full, further attempts fail fast with an {@link AuthenticationServiceException} instead of
+ * piling up. The calling thread waits for the result, which costs no carrier thread when it is
+ * virtual.</p>
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+	private final PasswordEncoder delegate;
+	private final ThreadPoolExecutor executor;
+	private final Duration timeout;
+
+	public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration timeout) {
+		this.delegate = delegate;
+		this.timeout = timeout;
+		this.executor = new ThreadPoolExecutor(
+				threads,
+				threads,
+				0,
+				TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(queueCapacity),
+				Thread.ofPlatform().name("password-hashing-", 1).daemon().factory(),
+				new ThreadPoolExecutor.AbortPolicy()
+		);
+	}
+
+	ThreadPoolExecutor getExecutor() {
+		return executor;
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return hash(() -> delegate.encode(rawPassword));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return hash(() -> delegate.matches(rawPassword, encodedPassword));
+	}
+
+	// Only inspects the stored hash's prefix, so it runs on the calling thread.
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		return delegate.upgradeEncoding(encodedPassword);
+	}
+
+	@Override
+	public void close() {
+		executor.shutdownNow();
+	}
+
+	private <T> T hash(Callable<T> work) {
+		Future<T> result;
+		try {
+			result = executor.submit(work);
+		} catch (RejectedExecutionException exception) {
+			throw new AuthenticationServiceException("Too many password checks in progress, try again later", exception);
+		}
+		try {
+			return result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+		} catch (InterruptedException exception) {
+			result.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new AuthenticationServiceException("Interrupted while checking the password", exception);
+		} catch (TimeoutException exception) {
+			result.cancel(true);
+			throw new AuthenticationServiceException("Timed out waiting to check the password", exception);
+		} catch (ExecutionException exception) {
+			if (exception.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new IllegalStateException(exception.getCause());
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package com.todo.rails.elite.starter.code.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for the application-level caches.
+ *
+ * <p>Caching is backed by Caffeine. The cache names below are created eagerly from
+ * <code>spring.cache.cache-names</code>, and their size and TTL bounds come from
+ * <code>spring.cache.caffeine.spec</code>. Entity rows are additionally cached by the Hibernate
+ * second-level cache (see <code>hibernate-cache.conf</code>).</p>
+ *
+ * <p>Both are held per node, and a write evicts entries only on the node that made it. With several
+ * nodes, the short TTLs bound how long another node serves an entry the write made stale.</p>
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+	/**
+	 * Tasks looked up by id, see {@code TaskService#getTaskById}.
+	 */
+	public static final String TASKS_BY_ID = "tasksById";
+
+	/**
+	 * Tasks looked up by title, see {@code TaskService#getTaskByTitle}.
+	 */
+	public static final String TASKS_BY_TITLE = "tasksByTitle";
+
+	/**
+	 * Users looked up by username, see {@code UserService#getUserByUsername}.
+	 */
+	public static final String USERS_BY_USERNAME = "usersByUsername";
+
+	/**
+	 * Login details looked up by username, see {@code JpaUserDetailsService#loadUserByUsername}.
+	 */
+	public static final String USER_DETAILS = "userDetails";
+}
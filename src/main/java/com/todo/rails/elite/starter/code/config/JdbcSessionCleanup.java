@@ -0,0 +1,132 @@
+package com.todo.rails.elite.starter.code.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes expired sessions from the JDBC session store in small batches.
+ *
+ * <p>Replaces Spring Session's own cleanup (disabled with
+ * <code>spring.session.jdbc.cleanup-cron=-</code>), which removes every expired session in one
+ * <code>DELETE</code> and can hold locks on a large part of the session table after a quiet
+ * period. Each batch looks up at most <code>todo.session.cleanup-batch-size</code> expired sessions
+ * through the expiry-time index and deletes them by primary key in its own statement; their
+ * attributes go with them through the cascading foreign key. Every node runs the job, at a random
+ * offset within the interval so that nodes started together do not run in step; a session deleted
+ * by another node is simply skipped.</p>
+ *
+ * <p>Does nothing when Spring Session is not backed by JDBC.</p>
+ */
+@Component
+public class JdbcSessionCleanup {
+
+	private static final Logger logger = LoggerFactory.getLogger(JdbcSessionCleanup.class);
+
+	private final boolean enabled;
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+	// Reads at most one batch of rows per query.
+	private final NamedParameterJdbcTemplate batchJdbcTemplate;
+	private final Duration interval;
+	private final int batchSize;
+	private final String selectExpiredQuery;
+	private final String deleteExpiredQuery;
+	private final Counter deletedSessions;
+	private ScheduledExecutorService scheduler;
+
+	public JdbcSessionCleanup(
+			ObjectProvider<JdbcIndexedSessionRepository> sessionRepository,
+			JdbcTemplate jdbcTemplate,
+			MeterRegistry meterRegistry,
+			@Value("${spring.session.jdbc.table-name:" + JdbcIndexedSessionRepository.DEFAULT_TABLE_NAME + "}") String tableName,
+			@Value("${todo.session.cleanup-interval:1m}") Duration interval,
+			@Value("${todo.session.cleanup-batch-size:500}") int batchSize
+	) {
+		this.enabled = sessionRepository.getIfAvailable() != null;
+		this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+		JdbcTemplate batchTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+		batchTemplate.setMaxRows(batchSize);
+		this.batchJdbcTemplate = new NamedParameterJdbcTemplate(batchTemplate);
+		this.interval = interval;
+		this.batchSize = batchSize;
+		this.selectExpiredQuery = "select PRIMARY_ID from " + tableName + " where EXPIRY_TIME < :now";
+		// The expiry is checked again: another node may have extended the session since it was selected.
+		this.deleteExpiredQuery = "delete from " + tableName + " where PRIMARY_ID in (:ids) and EXPIRY_TIME < :now";
+		this.deletedSessions = Counter.builder("todo.sessions.expired.deleted")
+				.description("Expired HTTP sessions deleted from the session table")
+				.register(meterRegistry);
+	}
+
+	@PostConstruct
+	void start() {
+		if (!enabled) {
+			return;
+		}
+		scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("session-cleanup").daemon().factory());
+		long intervalMillis = interval.toMillis();
+		scheduler.scheduleWithFixedDelay(this::deleteExpiredSessionsQuietly,
+				ThreadLocalRandom.current().nextLong(intervalMillis), intervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	void stop() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+	}
+
+	/**
+	 * Deletes every session that has expired, one batch at a time.
+	 *
+	 * @return the number of sessions deleted.
+	 */
+	public int deleteExpiredSessions() {
+		if (!enabled) {
+			return 0;
+		}
+		int total = 0;
+		MapSqlParameterSource parameters = new MapSqlParameterSource("now", System.currentTimeMillis());
+		while (true) {
+			List<String> ids = batchJdbcTemplate.queryForList(selectExpiredQuery, parameters, String.class);
+			if (ids.isEmpty()) {
+				break;
+			}
+			int deleted = jdbcTemplate.update(deleteExpiredQuery, new MapSqlParameterSource(parameters.getValues()).addValue("ids", ids));
+			total += deleted;
+			deletedSessions.increment(deleted);
+			if (ids.size() < batchSize) {
+				break;
+			}
+		}
+		return total;
+	}
+
+	private void deleteExpiredSessionsQuietly() {
+		try {
+			int deleted = deleteExpiredSessions();
+			if (deleted > 0) {
+				logger.debug("Deleted {} expired sessions", deleted);
+			}
+		} catch (DataAccessException exception) {
+			logger.error("Error deleting expired sessions", exception);
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package com.todo.rails.elite.starter.code.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for application metrics.
+ *
+ * <p>Most meters come from Spring Boot Actuator: HTTP request histograms, Spring Data repository
+ * timings, Hikari pool gauges, cache statistics and Hibernate statistics. Service methods are timed
+ * through {@code @Timed} under the {@value #SERVICE_TIMER} name. This class adds the one meter
+ * Actuator does not provide: the number of SQL statements each HTTP request issues.</p>
+ */
+@Configuration
+public class MetricsConfig {
+
+	/**
+	 * Timer name shared by every {@code @Timed} service class; meters are told apart by the class and method tags.
+	 */
+	public static final String SERVICE_TIMER = "todo.service";
+
+	@Bean
+	QueryCountInspector queryCountInspector() {
+		return new QueryCountInspector();
+	}
+
+	@Bean
+	HibernatePropertiesCustomizer queryCountInspectorCustomizer(QueryCountInspector queryCountInspector) {
+		return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, queryCountInspector);
+	}
+
+	@Bean
+	QueryCountFilter queryCountFilter(MeterRegistry meterRegistry) {
+		return new QueryCountFilter(meterRegistry);
+	}
+}
@@ -0,0 +1,58 @@
+package com.todo.rails.elite.starter.code.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each HTTP request issued, tagged like {@code http.server.requests}.
+ */
+public class QueryCountFilter extends OncePerRequestFilter {
+
+	/**
+	 * Name of the per-request query count distribution.
+	 */
+	public static final String METRIC_NAME = "todo.http.server.queries";
+	private static final String UNKNOWN_URI = "UNKNOWN";
+
+	private final MeterRegistry meterRegistry;
+
+	public QueryCountFilter(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	protected void doFilterInternal(
+			HttpServletRequest request,
+			HttpServletResponse response,
+			FilterChain filterChain
+	) throws ServletException, IOException {
+		QueryCountInspector.start();
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			long queries = QueryCountInspector.stop();
+			DistributionSummary.builder(METRIC_NAME)
+					.description("SQL statements issued while handling a request")
+					.baseUnit("queries")
+					.tag("method", request.getMethod())
+					.tag("uri", uriTemplate(request))
+					.publishPercentileHistogram()
+					.register(meterRegistry)
+					.record(queries);
+		}
+	}
+
+	// Uses the matched route template rather than the raw path to keep the number of series bounded.
+	private static String uriTemplate(HttpServletRequest request) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		return pattern == null ? UNKNOWN_URI : pattern.toString();
+	}
+}
@@ -0,0 +1,33 @@
+package com.todo.rails.elite.starter.code.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a count is open.
+ *
+ * <p>Statements answered from the second-level or query cache never reach the inspector, and
+ * neither do statements issued directly through JDBC, such as the batched task import.</p>
+ */
+public class QueryCountInspector implements StatementInspector {
+
+	private static final ThreadLocal<long[]> COUNT = new ThreadLocal<>();
+
+	static void start() {
+		COUNT.set(new long[1]);
+	}
+
+	static long stop() {
+		long[] count = COUNT.get();
+		COUNT.remove();
+		return count == null ? 0 : count[0];
+	}
+
+	@Override
+	public String inspect(String sql) {
+		long[] count = COUNT.get();
+		if (count != null) {
+			count[0]++;
+		}
+		return sql;
+	}
+}
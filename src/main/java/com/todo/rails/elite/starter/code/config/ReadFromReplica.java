@@ -0,0 +1,21 @@
+package com.todo.rails.elite.starter.code.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lets the read-only transactions started inside the annotated method read from a replica.
+ *
+ * <p>Only takes effect when replicas are configured (<code>todo.datasource.replica-urls</code>), see
+ * {@link ReplicaDataSourceConfig}. Reserved for reads that may lag the primary by the replication
+ * delay and whose results are not put into a cache, such as listings built from projections;
+ * anything a cache or a follow-up write relies on stays on the primary.</p>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadFromReplica {
+}
@@ -0,0 +1,172 @@
+package com.todo.rails.elite.starter.code.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out read-only connections from a set of replicas, falling back to the primary.
+ *
+ * <p>Used as the read-only target of the routing data source, so it is only asked for connections of
+ * read-only transactions. {@link ReplicaRouting} decides whether a connection may come from a replica
+ * at all; if so, replicas take turns, a request keeps reading from the one it started on, and a
+ * replica whose connection fails is skipped until the periodic health check can open and validate
+ * one again. When no replica is available the connection comes from the primary, counted by
+ * <code>todo.datasource.replica.fallbacks</code>.</p>
+ */
+public class ReplicaDataSource extends AbstractDataSource {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReplicaDataSource.class);
+	private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+	private final DataSource primary;
+	private final List<Replica> replicas;
+	private final ReplicaRouting routing;
+	private final Duration healthCheckInterval;
+	private final AtomicInteger next = new AtomicInteger();
+	private final Counter fallbacks;
+	private ScheduledExecutorService healthChecks;
+
+	public ReplicaDataSource(
+			DataSource primary,
+			List<? extends DataSource> replicas,
+			ReplicaRouting routing,
+			Duration healthCheckInterval,
+			MeterRegistry meterRegistry
+	) {
+		if (replicas.isEmpty()) {
+			throw new IllegalArgumentException("At least one replica is required");
+		}
+		this.primary = primary;
+		this.replicas = replicas.stream().map(Replica::new).toList();
+		this.routing = routing;
+		this.healthCheckInterval = healthCheckInterval;
+		this.fallbacks = Counter.builder("todo.datasource.replica.fallbacks")
+				.description("Read-only connections taken from the primary because no replica was available")
+				.register(meterRegistry);
+		Gauge.builder("todo.datasource.replicas.healthy", this, ReplicaDataSource::healthyReplicas)
+				.description("Replicas currently serving read-only connections")
+				.register(meterRegistry);
+	}
+
+	@PostConstruct
+	void start() {
+		healthChecks = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("replica-health").daemon().factory());
+		long intervalMillis = healthCheckInterval.toMillis();
+		healthChecks.scheduleWithFixedDelay(this::checkHealth, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	void stop() throws Exception {
+		if (healthChecks != null) {
+			healthChecks.shutdownNow();
+		}
+		for (Replica replica : replicas) {
+			if (replica.dataSource instanceof AutoCloseable closeable) {
+				closeable.close();
+			}
+		}
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		if (!routing.isReplicaAllowed()) {
+			return primaryConnection();
+		}
+		Integer sticky = routing.stickyReplica();
+		int first = sticky != null ? sticky : Math.floorMod(next.getAndIncrement(), replicas.size());
+		for (int i = 0; i < replicas.size(); i++) {
+			int index = (first + i) % replicas.size();
+			Replica replica = replicas.get(index);
+			if (!replica.healthy) {
+				continue;
+			}
+			try {
+				Connection connection = replica.dataSource.getConnection();
+				routing.stickTo(index);
+				return connection;
+			} catch (SQLException exception) {
+				markDown(index, exception);
+			}
+		}
+		fallbacks.increment();
+		return primaryConnection();
+	}
+
+	/**
+	 * Not supported: replica and primary connections always use the configured credentials.
+	 */
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		throw new SQLFeatureNotSupportedException("Replica connections use the configured credentials");
+	}
+
+	/**
+	 * Tries every replica and brings back those that answer again, or takes down those that stopped.
+	 */
+	void checkHealth() {
+		for (int index = 0; index < replicas.size(); index++) {
+			Replica replica = replicas.get(index);
+			try (Connection connection = replica.dataSource.getConnection()) {
+				if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+					throw new SQLException("Connection did not validate");
+				}
+				if (!replica.healthy) {
+					replica.healthy = true;
+					logger.info("Replica {} is available again", index);
+				}
+			} catch (SQLException exception) {
+				markDown(index, exception);
+			}
+		}
+	}
+
+	// Only read-only transactions ask for connections here, so the primary's connection is read-only as well.
+	private Connection primaryConnection() throws SQLException {
+		Connection connection = primary.getConnection();
+		try {
+			connection.setReadOnly(true);
+		} catch (SQLException exception) {
+			connection.close();
+			throw exception;
+		}
+		return connection;
+	}
+
+	int healthyReplicas() {
+		return (int) replicas.stream().filter(replica -> replica.healthy).count();
+	}
+
+	private void markDown(int index, SQLException exception) {
+		Replica replica = replicas.get(index);
+		if (replica.healthy) {
+			replica.healthy = false;
+			logger.warn("Replica {} is unavailable, reading from the other replicas or the primary until it recovers", index, exception);
+		}
+	}
+
+	private static final class Replica {
+		private final DataSource dataSource;
+		private volatile boolean healthy = true;
+
+		private Replica(DataSource dataSource) {
+			this.dataSource = dataSource;
+		}
+	}
+}
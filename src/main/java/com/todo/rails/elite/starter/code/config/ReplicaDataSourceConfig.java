@@ -0,0 +1,94 @@
+package com.todo.rails.elite.starter.code.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration class for reading from database replicas.
+ *
+ * <p>Active when <code>todo.datasource.replica-urls</code> lists at least one replica. The primary
+ * pool is then built here from the usual <code>spring.datasource.*</code> properties, and the
+ * application's {@link DataSource} becomes a {@link LazyConnectionDataSourceProxy} in front of it.
+ * The proxy opens the physical connection only at the first statement, by which time the transaction
+ * has marked it read-only or not: read-write connections come from the primary, read-only ones from
+ * {@link ReplicaDataSource}, which uses a replica only as {@link ReplicaRouting} allows and otherwise
+ * the primary too.</p>
+ *
+ * <p>Every replica gets its own Hikari pool with the primary's driver, sized by
+ * <code>todo.datasource.replica-pool-size</code> and with a short
+ * <code>todo.datasource.replica-connection-timeout</code> so that a replica that is down costs little
+ * before the primary takes over. Replicas must already hold the schema; the application only creates
+ * tables on the primary.</p>
+ */
+@Configuration
+@ConditionalOnExpression("!'${todo.datasource.replica-urls:}'.isBlank()")
+public class ReplicaDataSourceConfig {
+
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+	}
+
+	@Bean
+	public ReplicaRouting replicaRouting(@Value("${todo.datasource.replica-read-your-writes:5s}") Duration readYourWritesWindow) {
+		return new ReplicaRouting(readYourWritesWindow);
+	}
+
+	@Bean
+	public ReplicaDataSource replicaDataSource(
+			HikariDataSource primaryDataSource,
+			ReplicaRouting replicaRouting,
+			DataSourceProperties properties,
+			MeterRegistry meterRegistry,
+			@Value("${todo.datasource.replica-urls}") List<String> urls,
+			@Value("${todo.datasource.replica-username:${spring.datasource.username:}}") String username,
+			@Value("${todo.datasource.replica-password:${spring.datasource.password:}}") String password,
+			@Value("${todo.datasource.replica-pool-size:10}") int poolSize,
+			@Value("${todo.datasource.replica-connection-timeout:1s}") Duration connectionTimeout,
+			@Value("${todo.datasource.replica-health-check-interval:5s}") Duration healthCheckInterval
+	) {
+		List<HikariDataSource> replicas = new ArrayList<>();
+		for (String url : urls) {
+			HikariDataSource replica = DataSourceBuilder.create()
+					.type(HikariDataSource.class)
+					.driverClassName(properties.determineDriverClassName())
+					.url(url.strip())
+					.username(username)
+					.password(password)
+					.build();
+			replica.setPoolName("replica-" + replicas.size());
+			replica.setMaximumPoolSize(poolSize);
+			replica.setConnectionTimeout(connectionTimeout.toMillis());
+			replica.setReadOnly(true);
+			// Start even when a replica is down; the health check brings it in once it answers.
+			replica.setInitializationFailTimeout(-1);
+			replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+			replicas.add(replica);
+		}
+		return new ReplicaDataSource(primaryDataSource, replicas, replicaRouting, healthCheckInterval, meterRegistry);
+	}
+
+	@Bean
+	@Primary
+	public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+		LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+		dataSource.setReadOnlyDataSource(replicaDataSource);
+		return dataSource;
+	}
+}
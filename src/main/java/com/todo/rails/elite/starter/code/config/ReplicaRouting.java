@@ -0,0 +1,117 @@
+package com.todo.rails.elite.starter.code.config;
+
+import jakarta.servlet.http.HttpSession;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+/**
+ * Decides whether a read-only connection may come from a replica, see {@link ReplicaDataSource}.
+ *
+ * <p>A replica may serve the connection only inside a {@link ReadFromReplica} method, and only while
+ * the current request has not begun a read-write transaction: once it has, the rest of the request
+ * reads from the primary and sees its own writes. A committed write is also recorded in the HTTP
+ * session, if there is one, and later requests of that session read from the primary for the
+ * read-your-writes window, so a page redirected to after a form post shows what was just saved. The
+ * window should cover the replicas' usual lag plus the clock skew between nodes. All replica reads of
+ * one request go to the same replica, so a listing and the version that tags it come from the same
+ * point in the replication stream. Work outside a request, such as startup loads and event listeners, never leaves the
+ * primary unless it runs a {@link ReadFromReplica} method.</p>
+ */
+@Aspect
+public class ReplicaRouting implements TransactionExecutionListener {
+
+	private static final String WROTE_ATTRIBUTE = ReplicaRouting.class.getName() + ".WROTE";
+	private static final String REPLICA_ATTRIBUTE = ReplicaRouting.class.getName() + ".REPLICA";
+	private static final String LAST_WRITE_ATTRIBUTE = ReplicaRouting.class.getName() + ".LAST_WRITE";
+
+	private final ThreadLocal<Boolean> replicaScope = new ThreadLocal<>();
+	private final long readYourWritesMillis;
+
+	public ReplicaRouting(Duration readYourWritesWindow) {
+		this.readYourWritesMillis = readYourWritesWindow.toMillis();
+	}
+
+	@Around("@annotation(com.todo.rails.elite.starter.code.config.ReadFromReplica)")
+	public Object readFromReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+		if (replicaScope.get() != null) {
+			return joinPoint.proceed();
+		}
+		replicaScope.set(Boolean.TRUE);
+		try {
+			return joinPoint.proceed();
+		} finally {
+			replicaScope.remove();
+		}
+	}
+
+	@Override
+	public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+		if (beginFailure != null || transaction.isReadOnly()) {
+			return;
+		}
+		RequestAttributes request = RequestContextHolder.getRequestAttributes();
+		if (request != null) {
+			request.setAttribute(WROTE_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+		}
+	}
+
+	@Override
+	public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+		if (commitFailure != null || transaction.isReadOnly() || readYourWritesMillis <= 0) {
+			return;
+		}
+		HttpSession session = currentSession();
+		if (session != null) {
+			session.setAttribute(LAST_WRITE_ATTRIBUTE, System.currentTimeMillis());
+		}
+	}
+
+	/**
+	 * Tells whether the connection being opened may come from a replica.
+	 */
+	boolean isReplicaAllowed() {
+		if (replicaScope.get() == null) {
+			return false;
+		}
+		RequestAttributes request = RequestContextHolder.getRequestAttributes();
+		if (request == null) {
+			return true;
+		}
+		if (request.getAttribute(WROTE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+			return false;
+		}
+		HttpSession session = currentSession();
+		Long lastWrite = session == null ? null : (Long) session.getAttribute(LAST_WRITE_ATTRIBUTE);
+		return lastWrite == null || System.currentTimeMillis() - lastWrite >= readYourWritesMillis;
+	}
+
+	/**
+	 * Returns the replica this request already reads from, or {@code null} if it has not read from one.
+	 */
+	Integer stickyReplica() {
+		RequestAttributes request = RequestContextHolder.getRequestAttributes();
+		return request == null ? null : (Integer) request.getAttribute(REPLICA_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+	}
+
+	// The current request's session, without creating one for requests that have none, such as token-authenticated ones.
+	private static HttpSession currentSession() {
+		return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+				? attributes.getRequest().getSession(false)
+				: null;
+	}
+
+	void stickTo(int replica) {
+		RequestAttributes request = RequestContextHolder.getRequestAttributes();
+		if (request != null) {
+			request.setAttribute(REPLICA_ATTRIBUTE, replica, RequestAttributes.SCOPE_REQUEST);
+		}
+	}
+}
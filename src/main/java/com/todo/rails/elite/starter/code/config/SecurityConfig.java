@@ -1,16 +1,32 @@
 package com.todo.rails.elite.starter.code.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.savedrequest.NullRequestCache;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
 import org.springframework.web.filter.HiddenHttpMethodFilter;
 
+import java.time.Duration;
+import java.util.Map;
+
 /**
  * Configuration class for security settings in the application.
  *
@@ -23,8 +39,10 @@ import org.springframework.web.filter.HiddenHttpMethodFilter;
  * <ul>
  *   <li><strong>SecurityFilterChain:</strong> Configures which resources are publicly accessible,
  *       sets up custom login and logout pages, and enforces authentication for restricted URLs.</li>
- *   <li><strong>Password Encoder:</strong> Provides a {@link BCryptPasswordEncoder}
- *       to securely hash user passwords with configurable strength.</li>
+ *   <li><strong>Actuator SecurityFilterChain:</strong> Keeps the actuator endpoints other than health
+ *       to users with the {@value #MONITORING_ROLE} role, signing in with HTTP Basic.</li>
+ *   <li><strong>Password Encoder:</strong> Provides a {@link DelegatingPasswordEncoder} over
+ *       {@link BCryptPasswordEncoder} with configurable strength, run on a bounded hashing pool.</li>
  *   <li><strong>Hidden HTTP Method Filter:</strong> Enables the use of advanced HTTP methods
  *       in HTML forms, like PUT and DELETE, by translating a hidden field's value into the desired HTTP method.</li>
  * </ul>
@@ -49,8 +67,8 @@ public class SecurityConfig {
 	 * <ul>
 	 *   <li><strong>Value:</strong> Set to <code>4</code>, representing a moderate
 	 *       level of computational effort.</li>
-	 *   <li><strong>Usage:</strong> Used to configure the {@link BCryptPasswordEncoder}
-	 *       or similar password encoding mechanisms.</li>
+	 *   <li><strong>Usage:</strong> Default strength of the {@link BCryptPasswordEncoder}, overridden by
+	 *       <code>todo.security.password.strength</code>.</li>
 	 *   <li><strong>Security:</strong> Higher values increase security but require
 	 *       more processing time, making brute-force attacks more difficult.</li>
 	 * </ul>
@@ -59,6 +77,14 @@ public class SecurityConfig {
 	 * security requirements and processing capabilities of your application.</p>
 	 */
 	public static final int PASSWORD_ENCODER_STRENGTH = 4;
+	/**
+	 * Id under which new password hashes are stored, as the <code>{bcrypt}</code> prefix.
+	 */
+	public static final String PASSWORD_ENCODER_ID = "bcrypt";
+	/**
+	 * Role needed for the actuator endpoints other than health, such as <code>/actuator/prometheus</code>.
+	 */
+	public static final String MONITORING_ROLE = "MONITORING";
 	private final UserDetailsService jpaUserDetailsService;
 
 	@Autowired
@@ -84,7 +110,14 @@ public class SecurityConfig {
 	 *                   <ul>
 	 *                     <li><strong>Public Resources:</strong> Grants public access to static resources
 	 *                         like CSS, JavaScript, images, and the registration page.</li>
-	 *                     <li><strong>Authentication:</strong> Requires authentication for all other requests.</li>
+	 *                     <li><strong>Monitoring:</strong> <code>/actuator/**</code> is served by
+	 *                         {@link #actuatorSecurityFilterChain(HttpSecurity)} instead.</li>
+	 *                     <li><strong>Authentication:</strong> Requires authentication for all other requests,
+	 *                         including <code>/api/tasks/**</code>, whose results are scoped to the signed-in user.</li>
+	 *                     <li><strong>API Entry Point:</strong> Unauthenticated <code>/api/**</code> calls receive
+	 *                         <code>401 Unauthorized</code> instead of a redirect to the login page. In the
+	 *                         stateless API mode, <code>/api/**</code> is served by the chain of
+	 *                         {@link TokenSecurityConfig} instead.</li>
 	 *                     <li><strong>Login:</strong> Configures a custom login page at <code>/login</code>
 	 *                         and redirects to the homepage upon successful login.</li>
 	 *                     <li><strong>Logout:</strong> Provides a logout URL (<code>/logout</code>)
@@ -112,9 +145,6 @@ public class SecurityConfig {
 								// Makes /login and /register publicly accessible
                                 .requestMatchers("/login", "/register").permitAll()
 
-								//  permit the /api/tasks/** to all users (NOT RECOMMENDED)
-								.requestMatchers("/api/tasks/**").permitAll()
-
 								//  authenticate all other requests
 								.anyRequest().authenticated()
 				)
@@ -137,38 +167,95 @@ public class SecurityConfig {
 								.deleteCookies("JSESSIONID")
 								.permitAll()
 				)
+				.exceptionHandling(
+						exceptions -> exceptions
+								.defaultAuthenticationEntryPointFor(
+										new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED),
+										PathPatternRequestMatcher.withDefaults().matcher("/api/**")
+								)
+				)
 				.userDetailsService(jpaUserDetailsService)
 				.csrf(AbstractHttpConfigurer::disable)
 				.httpBasic(AbstractHttpConfigurer::disable)
 				.build();
 	}
 
+	/**
+	 * Configures the filter chain for the actuator endpoints, ahead of the form-login chain.
+	 *
+	 * <p>Metrics describe every user's activity, so only a monitoring account may read them. Metric
+	 * scrapers cannot fill in the login form; they send the account's credentials with HTTP Basic on
+	 * every request, and no session is created for them.</p>
+	 *
+	 * @param http an instance of {@link HttpSecurity}.
+	 * @return the actuator {@link SecurityFilterChain}.
+	 * @throws Exception if an error occurs during the security configuration process.
+	 *
+	 *                   <h3>Key Details:</h3>
+	 *                   <ul>
+	 *                     <li><strong>Health:</strong> <code>/actuator/health</code> stays open for load
+	 *                         balancer and orchestrator checks.</li>
+	 *                     <li><strong>Other Endpoints:</strong> Require the {@value #MONITORING_ROLE} role,
+	 *                         granted through <code>user_roles</code>; other users get
+	 *                         <code>403 Forbidden</code>.</li>
+	 *                   </ul>
+	 */
+	@Bean
+	@Order(2)
+	SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity http) throws Exception {
+		return http
+				.securityMatcher("/actuator/**")
+				.authorizeHttpRequests(
+						auth -> auth
+								.requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+								.anyRequest().hasAuthority(MONITORING_ROLE)
+				)
+				.httpBasic(Customizer.withDefaults())
+				// Scrapers send their credentials every time, so a session would only pile up
+				.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+				.requestCache(cache -> cache.requestCache(new NullRequestCache()))
+				.userDetailsService(jpaUserDetailsService)
+				.csrf(AbstractHttpConfigurer::disable)
+				.formLogin(AbstractHttpConfigurer::disable)
+				.build();
+	}
+
 	/**
 	 * Creates and configures a password encoder.
 	 *
-	 * <p>This method provides a {@link BCryptPasswordEncoder} instance,
-	 * which is used to securely encode passwords. The encoder uses the
-	 * BCrypt hashing algorithm, ensuring that passwords are hashed in
-	 * a secure and reliable manner.</p>
+	 * <p>This method provides a {@link DelegatingPasswordEncoder} that stores new hashes as
+	 * <code>{bcrypt}</code>-prefixed BCrypt hashes and still verifies the unprefixed BCrypt hashes
+	 * stored before. Hashing runs on a {@link BoundedPasswordEncoder} pool.</p>
 	 *
-	 * @return a {@link BCryptPasswordEncoder} object configured with a
-	 * strength value of 13.
+	 * @return the application's {@link PasswordEncoder}.
 	 *
 	 * <h3>Key Details:</h3>
 	 * <ul>
-	 *   <li><strong>BCrypt Algorithm:</strong> A widely used and secure
-	 *       algorithm designed for password hashing, resistant to brute-force attacks.</li>
-	 *   <li><strong>Strength Parameter:</strong> Configured with a strength of 13,
-	 *       which determines the computational complexity of the hashing process.
-	 *       Higher values make it more secure but require more processing power.</li>
+	 *   <li><strong>Strength Parameter:</strong> <code>todo.security.password.strength</code>
+	 *       (default {@value #PASSWORD_ENCODER_STRENGTH}). Higher values make hashes more secure
+	 *       but require more processing power.</li>
+	 *   <li><strong>Rehash on Login:</strong> A stored hash with another encoding or a lower strength
+	 *       is replaced after the next successful login, through
+	 *       {@link org.springframework.security.core.userdetails.UserDetailsPasswordService}.</li>
+	 *   <li><strong>Hashing Pool:</strong> <code>todo.security.password.hashing-threads</code> threads
+	 *       and a queue of <code>todo.security.password.hashing-queue-capacity</code> checks; further
+	 *       logins fail fast until the pool catches up.</li>
 	 * </ul>
-	 *
-	 * <p><strong>Usage:</strong> This encoder is typically used when handling
-	 * user passwords in authentication and security configurations.</p>
 	 */
 	@Bean
-	BCryptPasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder(PASSWORD_ENCODER_STRENGTH);
+	PasswordEncoder passwordEncoder(
+			@Value("${todo.security.password.strength:" + PASSWORD_ENCODER_STRENGTH + "}") int strength,
+			@Value("${todo.security.password.hashing-threads:2}") int hashingThreads,
+			@Value("${todo.security.password.hashing-queue-capacity:200}") int hashingQueueCapacity,
+			@Value("${todo.security.password.hashing-timeout:10s}") Duration hashingTimeout,
+			MeterRegistry meterRegistry
+	) {
+		BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+		DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(PASSWORD_ENCODER_ID, Map.of(PASSWORD_ENCODER_ID, bcrypt));
+		encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+		BoundedPasswordEncoder boundedEncoder = new BoundedPasswordEncoder(encoder, hashingThreads, hashingQueueCapacity, hashingTimeout);
+		new ExecutorServiceMetrics(boundedEncoder.getExecutor(), "passwordHashing", Tags.empty()).bindTo(meterRegistry);
+		return boundedEncoder;
 	}
 
 	/**
@@ -0,0 +1,121 @@
+package com.todo.rails.elite.starter.code.config;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.todo.rails.elite.starter.code.service.security.TokenService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.savedrequest.NullRequestCache;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Base64;
+
+/**
+ * Stateless token authentication for the REST API, enabled with <code>todo.security.token.enabled</code>.
+ *
+ * <p>Adds a filter chain for <code>/api/**</code>, ahead of the form-login chain in
+ * {@link SecurityConfig}, that accepts HMAC-signed JWT bearer tokens issued by
+ * <code>POST /api/auth/token</code>. Tokens are verified with the local key alone, so any node
+ * sharing <code>todo.security.token.secret</code> accepts them without a session or a database
+ * lookup.</p>
+ *
+ * <h3>Key Details:</h3>
+ * <ul>
+ *   <li><strong>Sessions:</strong> The chain never creates an HTTP session. Requests from a browser
+ *       that is already signed in through the login form still authenticate with their session.</li>
+ *   <li><strong>Signing Key:</strong> <code>todo.security.token.secret</code>, Base64-encoded and at
+ *       least 256 bits long; startup fails without it.</li>
+ *   <li><strong>Revocation:</strong> <code>POST /api/auth/token/revoke</code> rejects a token until it
+ *       expires, on the node that received the call; keep <code>todo.security.token.ttl</code> short.</li>
+ * </ul>
+ */
+@Configuration
+@ConditionalOnProperty(name = "todo.security.token.enabled", havingValue = "true")
+public class TokenSecurityConfig {
+
+	private static final int MINIMUM_KEY_BYTES = 32;
+
+	private final SecretKey signingKey;
+
+	public TokenSecurityConfig(@Value("${todo.security.token.secret:}") String secret) {
+		byte[] key = secret.isBlank() ? new byte[0] : Base64.getDecoder().decode(secret.strip());
+		if (key.length < MINIMUM_KEY_BYTES) {
+			throw new IllegalStateException("todo.security.token.secret must be a Base64-encoded key of at least "
+					+ MINIMUM_KEY_BYTES + " bytes when todo.security.token.enabled is set");
+		}
+		this.signingKey = new SecretKeySpec(key, "HmacSHA256");
+	}
+
+	/**
+	 * Configures the stateless filter chain for <code>/api/**</code>.
+	 *
+	 * @param http         an instance of {@link HttpSecurity}.
+	 * @param jwtDecoder   verifies the bearer tokens.
+	 * @param tokenService turns verified tokens into authentications.
+	 * @return the API {@link SecurityFilterChain}.
+	 * @throws Exception if an error occurs during the security configuration process.
+	 */
+	@Bean
+	@Order(1)
+	SecurityFilterChain apiSecurityFilterChain(HttpSecurity http, JwtDecoder jwtDecoder, TokenService tokenService) throws Exception {
+		return http
+				.securityMatcher("/api/**")
+				.authorizeHttpRequests(
+						auth -> auth
+								// Exchanging credentials for a token needs no prior authentication
+								.requestMatchers(HttpMethod.POST, "/api/auth/token").permitAll()
+								.anyRequest().authenticated()
+				)
+				.oauth2ResourceServer(
+						resourceServer -> resourceServer
+								.jwt(jwt -> jwt.decoder(jwtDecoder).jwtAuthenticationConverter(tokenService::toAuthentication))
+				)
+				// Neither an authentication nor a rejected request may open a session
+				.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.NEVER))
+				.requestCache(cache -> cache.requestCache(new NullRequestCache()))
+				.csrf(AbstractHttpConfigurer::disable)
+				.httpBasic(AbstractHttpConfigurer::disable)
+				.formLogin(AbstractHttpConfigurer::disable)
+				.build();
+	}
+
+	/**
+	 * Signs issued tokens with the shared key.
+	 *
+	 * @return the {@link JwtEncoder} used by {@link TokenService}.
+	 */
+	@Bean
+	JwtEncoder jwtEncoder() {
+		return new NimbusJwtEncoder(new ImmutableSecret<>(signingKey));
+	}
+
+	/**
+	 * Verifies bearer tokens: signature, issuer, expiry, and the revocation list.
+	 *
+	 * @param tokenService holds the issuer and the revoked token ids.
+	 * @return the {@link JwtDecoder} of the API chain.
+	 */
+	@Bean
+	JwtDecoder jwtDecoder(TokenService tokenService) {
+		NimbusJwtDecoder decoder = NimbusJwtDecoder.withSecretKey(signingKey).macAlgorithm(TokenService.SIGNING_ALGORITHM).build();
+		decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+				JwtValidators.createDefaultWithIssuer(tokenService.getIssuer()),
+				tokenService::validate
+		));
+		return decoder;
+	}
+}
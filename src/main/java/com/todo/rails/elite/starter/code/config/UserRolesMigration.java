@@ -0,0 +1,81 @@
+package com.todo.rails.elite.starter.code.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves roles stored in the former comma-separated <code>users.roles</code> column into the
+ * <code>user_roles</code> table.
+ *
+ * <p>Hibernate's schema update creates <code>user_roles</code> but never drops the old column, which
+ * is <code>NOT NULL</code> and would reject every new user. On startup, once the schema is updated,
+ * this copies the roles of users that have none in <code>user_roles</code> yet and drops the column.
+ * It does nothing on databases created after the change.</p>
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class UserRolesMigration {
+
+	private static final Logger logger = LoggerFactory.getLogger(UserRolesMigration.class);
+	private static final String LEGACY_COLUMN = "roles";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+
+	public UserRolesMigration(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@PostConstruct
+	void migrate() {
+		if (!hasLegacyColumn()) {
+			return;
+		}
+		// Users already present in user_roles were migrated by an earlier, interrupted run.
+		List<Map<String, Object>> users = jdbcTemplate.queryForList(
+				"select u.id, u.roles from users u where not exists (select 1 from user_roles r where r.user_id = u.id)");
+		List<Object[]> rows = new ArrayList<>();
+		for (Map<String, Object> user : users) {
+			Object roles = user.get("roles");
+			for (String role : (roles != null ? roles.toString() : "").split(",")) {
+				if (!role.isBlank()) {
+					rows.add(new Object[]{user.get("id"), role.strip()});
+				}
+			}
+		}
+		transactionTemplate.executeWithoutResult(status ->
+				jdbcTemplate.batchUpdate("insert into user_roles (user_id, role) values (?, ?)", rows));
+		jdbcTemplate.execute("alter table users drop column " + LEGACY_COLUMN);
+		logger.info("Moved {} roles of {} users from users.{} to user_roles", rows.size(), users.size(), LEGACY_COLUMN);
+	}
+
+	private boolean hasLegacyColumn() {
+		return Boolean.TRUE.equals(jdbcTemplate.execute((Connection connection) -> {
+			DatabaseMetaData metaData = connection.getMetaData();
+			// Identifier case depends on the database, so the columns are matched ignoring it.
+			try (ResultSet columns = metaData.getColumns(connection.getCatalog(), connection.getSchema(), null, null)) {
+				while (columns.next()) {
+					if ("users".equalsIgnoreCase(columns.getString("TABLE_NAME"))
+							&& LEGACY_COLUMN.equalsIgnoreCase(columns.getString("COLUMN_NAME"))) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}));
+	}
+}
@@ -0,0 +1,103 @@
+package com.todo.rails.elite.starter.code.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread, typically by blocking inside a
+ * {@code synchronized} block or a native frame on a JDBC path.
+ *
+ * <p>Listens to the JFR <code>jdk.VirtualThreadPinned</code> event in-process. Each pinning longer than
+ * <code>todo.virtual-threads.pinning-monitor.threshold</code> is recorded in the
+ * {@value #METRIC_NAME} timer and logged with the top of its stack trace. Only active when virtual
+ * threads are enabled.</p>
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "todo.virtual-threads.pinning-monitor.enabled", havingValue = "true", matchIfMissing = true)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+	/**
+	 * Name of the timer recording how long virtual threads stayed pinned.
+	 */
+	public static final String METRIC_NAME = "todo.virtual.threads.pinned";
+	private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+	private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+	private static final int LOGGED_FRAMES = 10;
+
+	private final Duration threshold;
+	private final Timer pinnedTimer;
+	private RecordingStream recordingStream;
+
+	public VirtualThreadPinningMonitor(
+			MeterRegistry meterRegistry,
+			@Value("${todo.virtual-threads.pinning-monitor.threshold:20ms}") Duration threshold
+	) {
+		this.threshold = threshold;
+		this.pinnedTimer = Timer.builder(METRIC_NAME)
+				.description("Time virtual threads spent blocked while pinned to their carrier thread")
+				.register(meterRegistry);
+	}
+
+	@Override
+	public synchronized void start() {
+		recordingStream = new RecordingStream();
+		recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+		recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+		recordingStream.startAsync();
+		logger.info("Monitoring virtual thread pinning longer than {}", threshold);
+	}
+
+	@Override
+	public synchronized void stop() {
+		if (recordingStream != null) {
+			recordingStream.close();
+			recordingStream = null;
+		}
+	}
+
+	@Override
+	public synchronized boolean isRunning() {
+		return recordingStream != null;
+	}
+
+	private void onPinned(RecordedEvent event) {
+		pinnedTimer.record(event.getDuration());
+		logger.warn(
+				"Virtual thread {} pinned for {} ms at:{}",
+				event.getThread() == null ? "?" : event.getThread().getJavaName(),
+				event.getDuration().toMillis(),
+				topFrames(event.getStackTrace())
+		);
+	}
+
+	private static String topFrames(RecordedStackTrace stackTrace) {
+		if (stackTrace == null) {
+			return " <no stack trace>";
+		}
+		return stackTrace.getFrames().stream()
+				.limit(LOGGED_FRAMES)
+				.map(VirtualThreadPinningMonitor::describe)
+				.collect(Collectors.joining());
+	}
+
+	private static String describe(RecordedFrame frame) {
+		return "\n\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+				+ "(line " + frame.getLineNumber() + ")";
+	}
+}
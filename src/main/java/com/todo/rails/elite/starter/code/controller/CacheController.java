@@ -0,0 +1,43 @@
+package com.todo.rails.elite.starter.code.controller;
+
+import com.todo.rails.elite.starter.code.model.dto.CacheStatistics;
+import com.todo.rails.elite.starter.code.service.CacheStatisticsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller exposing cache hit/miss statistics.
+ */
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+
+	private static final Logger logger = LoggerFactory.getLogger(CacheController.class);
+	private final CacheStatisticsService cacheStatisticsService;
+
+	@Autowired
+	public CacheController(CacheStatisticsService cacheStatisticsService) {
+		this.cacheStatisticsService = cacheStatisticsService;
+	}
+
+	@GetMapping("/stats")
+	public ResponseEntity<Map<String, List<CacheStatistics>>> getCacheStatistics() {
+		try {
+			return ResponseEntity.ok(Map.of(
+					"application", cacheStatisticsService.getApplicationCacheStatistics(),
+					"secondLevel", cacheStatisticsService.getSecondLevelCacheStatistics()
+			));
+		} catch (Exception exception) {
+			logger.error("Error getting cache statistics", exception);
+			return ResponseEntity.internalServerError().build();
+		}
+	}
+}
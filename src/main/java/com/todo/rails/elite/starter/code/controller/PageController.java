@@ -1,12 +1,18 @@
 package com.todo.rails.elite.starter.code.controller;
 
 import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.dto.DashboardSummary;
+import com.todo.rails.elite.starter.code.model.dto.TaskPage;
+import com.todo.rails.elite.starter.code.service.DashboardService;
+import com.todo.rails.elite.starter.code.service.TaskSearchService;
 import com.todo.rails.elite.starter.code.service.TaskService;
+import com.todo.rails.elite.starter.code.service.security.CurrentUserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.security.Principal;
 import java.time.LocalDate;
@@ -18,10 +24,21 @@ import java.time.LocalDate;
 public class PageController {
 
 	private final TaskService taskService;
+	private final DashboardService dashboardService;
+	private final TaskSearchService taskSearchService;
+	private final CurrentUserService currentUserService;
 
 	@Autowired
-	public PageController(TaskService taskService) {
+	public PageController(
+			TaskService taskService,
+			DashboardService dashboardService,
+			TaskSearchService taskSearchService,
+			CurrentUserService currentUserService
+	) {
 		this.taskService = taskService;
+		this.dashboardService = dashboardService;
+		this.taskSearchService = taskSearchService;
+		this.currentUserService = currentUserService;
 	}
 
 	@GetMapping("/")
@@ -29,13 +46,13 @@ public class PageController {
 		if (principal == null) {
 			return "redirect:/login";
 		}
+		DashboardSummary summary = dashboardService.getSummary(currentUserService.getUserId(principal));
 		model.addAttribute("username", principal.getName());
-		model.addAttribute("totalPendingToday", taskService.getTodayTasks().size());
-		model.addAttribute("totalPending", taskService.getPendingTasks().size());
-		model.addAttribute("totalCompleted", taskService.getCompletedTasks().size());
-		model.addAttribute("totalTasks", taskService.getAllTasks());
-		model.addAttribute("todayTasks", taskService.getTodayTasks());
-		model.addAttribute("pendingTasks", taskService.getPendingTasks());
+		model.addAttribute("totalPendingToday", summary.counts().pendingToday());
+		model.addAttribute("totalPending", summary.counts().pending());
+		model.addAttribute("totalCompleted", summary.counts().completed());
+		model.addAttribute("totalTasks", summary.counts().total());
+		model.addAttribute("pendingTasks", summary.pendingTasks());
 		return "index";
 	}
 
@@ -45,16 +62,35 @@ public class PageController {
 	}
 
 	@GetMapping("/tasks")
-	public String getTasksPage(Model model, Principal principal) {
+	public String getTasksPage(
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "size", defaultValue = "${todo.pagination.default-size:50}") int size,
+			@RequestParam(name = "q", required = false) String query,
+			Model model,
+			Principal principal
+	) {
 		model.addAttribute("username", principal.getName());
-		model.addAttribute("tasks", taskService.getAllTasks());
+		if (query != null && !query.isBlank()) {
+			// Search results are ranked, not ordered by id, so they are shown as a single page.
+			model.addAttribute("query", query);
+			model.addAttribute(
+					"tasks",
+					taskSearchService.search(currentUserService.getUserId(principal), query, TaskSearchService.MAX_RESULTS)
+			);
+			return "tasks";
+		}
+		TaskPage page = taskService.getTasksPage(currentUserService.getUserId(principal), cursor, size);
+		model.addAttribute("tasks", page.tasks());
+		model.addAttribute("cursor", cursor);
+		model.addAttribute("nextCursor", page.nextCursor());
+		model.addAttribute("size", size);
 		return "tasks";
 	}
 
 	@GetMapping("/tasks/view/{id}")
 	public String viewTaskDetails(@PathVariable("id") Long id, Model model, Principal principal) {
 		model.addAttribute("username", principal.getName());
-		model.addAttribute("task", taskService.getTaskById(id));
+		model.addAttribute("task", taskService.getTaskById(currentUserService.getUserId(principal), id));
 		return "details";
 	}
 
@@ -69,7 +105,7 @@ public class PageController {
 	public String getProfilePage(Model model, Principal principal) {
 		if (principal != null) {
 			model.addAttribute("username", principal.getName());
-			model.addAttribute("totalTasks", taskService.getAllTasks().size());
+			model.addAttribute("totalTasks", dashboardService.getTaskCounts(currentUserService.getUserId(principal)).total());
 		}
 		return "profile";
 	}
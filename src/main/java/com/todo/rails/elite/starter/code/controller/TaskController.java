@@ -1,47 +1,194 @@
 package com.todo.rails.elite.starter.code.controller;
 
 import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.dto.BulkResult;
+import com.todo.rails.elite.starter.code.model.dto.BulkTaskRequest;
+import com.todo.rails.elite.starter.code.model.dto.ImportResult;
+import com.todo.rails.elite.starter.code.model.dto.TaskPage;
+import com.todo.rails.elite.starter.code.model.dto.TaskResponse;
+import com.todo.rails.elite.starter.code.model.dto.TaskVersion;
+import com.todo.rails.elite.starter.code.service.IdempotencyService;
+import com.todo.rails.elite.starter.code.service.TaskCompletionService;
+import com.todo.rails.elite.starter.code.service.TaskEventBroadcaster;
+import com.todo.rails.elite.starter.code.service.TaskExportService;
+import com.todo.rails.elite.starter.code.service.TaskImportService;
+import com.todo.rails.elite.starter.code.service.TaskSearchService;
 import com.todo.rails.elite.starter.code.service.TaskService;
+import com.todo.rails.elite.starter.code.service.security.CurrentUserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.InputStream;
+import java.security.Principal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * REST controller for managing tasks in the to-do application.
+ *
+ * <p>The task read endpoints answer conditional requests: responses carry a strong {@code ETag} and
+ * {@code Last-Modified} derived from the tasks' modification times, and a request whose
+ * {@code If-None-Match} (or, without it, {@code If-Modified-Since}) still matches gets
+ * {@code 304 Not Modified} without any task being loaded. A listing's ETag also covers its row count,
+ * so removed tasks change it; {@code Last-Modified} cannot reflect removals and only has
+ * one-second resolution, so clients should revalidate with the ETag.</p>
+ *
+ * <p>Updates are protected by optimistic locking: {@code PUT /{id}} honours {@code If-Match}, and an
+ * update based on an outdated version of a task is answered with {@code 409 Conflict}. The
+ * {@code /add}, {@code /complete/{id}} and {@code /uncomplete/{id}} endpoints accept an
+ * {@value IdempotencyService#HEADER} header; a retry with the same key is not applied again.</p>
+ *
+ * <p>Completion toggles go through {@link TaskCompletionService}, which may acknowledge them before
+ * they are written (see <code>todo.write-behind.enabled</code>).</p>
  */
 @RestController
 @RequestMapping("/api/tasks")
 public class TaskController {
 
+	/**
+	 * Response header carrying the cursor of the next page of a paginated listing.
+	 */
+	public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 	private static final Logger logger = LoggerFactory.getLogger(TaskController.class);
+	// Responses may be stored by the user's own client, which must revalidate them before each reuse.
+	private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
 	private final TaskService taskService;
+	private final TaskCompletionService taskCompletionService;
+	private final TaskExportService taskExportService;
+	private final TaskImportService taskImportService;
+	private final TaskSearchService taskSearchService;
+	private final TaskEventBroadcaster taskEventBroadcaster;
+	private final IdempotencyService idempotencyService;
+	private final CurrentUserService currentUserService;
 
 	@Autowired
-	public TaskController(TaskService taskService) {
+	public TaskController(
+			TaskService taskService,
+			TaskCompletionService taskCompletionService,
+			TaskExportService taskExportService,
+			TaskImportService taskImportService,
+			TaskSearchService taskSearchService,
+			TaskEventBroadcaster taskEventBroadcaster,
+			IdempotencyService idempotencyService,
+			CurrentUserService currentUserService
+	) {
 		this.taskService = taskService;
+		this.taskCompletionService = taskCompletionService;
+		this.taskExportService = taskExportService;
+		this.taskImportService = taskImportService;
+		this.taskSearchService = taskSearchService;
+		this.taskEventBroadcaster = taskEventBroadcaster;
+		this.idempotencyService = idempotencyService;
+		this.currentUserService = currentUserService;
 	}
 
 	@GetMapping("/all")
-	public ResponseEntity<List<Task>> getAllTasks() {
+	public ResponseEntity<List<TaskResponse>> getAllTasks(
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "size", defaultValue = "${todo.pagination.default-size:50}") int size,
+			WebRequest webRequest,
+			Principal principal
+	) {
 		try {
-			return ResponseEntity.ok(taskService.getAllTasks());
+			Long ownerId = currentUserService.getUserId(principal);
+			if (isNotModified(webRequest, taskService.getTasksVersion(ownerId), cursor, size)) {
+				return notModified();
+			}
+			return pageResponse(taskService.getTasksPage(ownerId, cursor, size), size);
+		} catch (IllegalArgumentException exception) {
+			logger.error("Invalid page request for all tasks", exception);
+			return ResponseEntity.badRequest().build();
 		} catch (Exception exception) {
 			logger.error("Error getting all tasks", exception);
 			return ResponseEntity.notFound().build();
 		}
 	}
 
+	@GetMapping("/export")
+	public ResponseEntity<StreamingResponseBody> exportTasks(
+			@RequestParam(name = "format", defaultValue = "ndjson") String format,
+			Principal principal
+	) {
+		TaskExportService.Format exportFormat;
+		try {
+			exportFormat = TaskExportService.Format.of(format);
+		} catch (IllegalArgumentException exception) {
+			logger.error("Invalid export format: {}", format, exception);
+			return ResponseEntity.badRequest().build();
+		}
+		// The owner is resolved on the request thread; the body is written later on an async thread.
+		Long ownerId = currentUserService.getUserId(principal);
+		// Rows are written to the response as they are read; the service opens its own read-only transaction.
+		StreamingResponseBody body = outputStream -> taskExportService.exportTasks(ownerId, exportFormat, outputStream);
+		return ResponseEntity.ok()
+				.contentType(exportFormat.getMediaType())
+				.header(
+						HttpHeaders.CONTENT_DISPOSITION,
+						ContentDisposition.attachment()
+								.filename("tasks." + exportFormat.getExtension())
+								.build()
+								.toString()
+				)
+				.body(body);
+	}
+
+	@GetMapping("/search")
+	public ResponseEntity<List<TaskResponse>> searchTasks(
+			@RequestParam(name = "q") String query,
+			@RequestParam(name = "limit", defaultValue = "20") int limit,
+			Principal principal
+	) {
+		try {
+			return ResponseEntity.ok(taskSearchService.search(currentUserService.getUserId(principal), query, limit));
+		} catch (IllegalArgumentException exception) {
+			logger.error("Invalid search request: {}", query, exception);
+			return ResponseEntity.badRequest().build();
+		} catch (Exception exception) {
+			logger.error("Error searching tasks: {}", query, exception);
+			return ResponseEntity.notFound().build();
+		}
+	}
+
+	/**
+	 * Streams the current user's task changes as Server-Sent Events.
+	 *
+	 * <p>The first event, {@code counts}, carries the dashboard counters. Each later {@code created},
+	 * {@code updated}, {@code completed}, {@code reopened} or {@code deleted} event carries the change to apply to them;
+	 * another {@code counts} event replaces them whenever a change cannot be expressed that way.</p>
+	 */
+	@GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamEvents(Principal principal) {
+		return taskEventBroadcaster.subscribe(currentUserService.getUserId(principal));
+	}
+
 	@GetMapping("/{id}")
-	public ResponseEntity<Task> getTaskById(@PathVariable(name = "id") Long id) {
+	public ResponseEntity<TaskResponse> getTaskById(@PathVariable(name = "id") Long id, WebRequest webRequest, Principal principal) {
 		try {
-			return ResponseEntity.ok(taskService.getTaskById(id));
+			Long ownerId = currentUserService.getUserId(principal);
+			Optional<TaskVersion> version = taskService.getTaskVersion(ownerId, id);
+			if (version.isEmpty()) {
+				return ResponseEntity.notFound().build();
+			}
+			if (isNotModified(webRequest, version.get())) {
+				return notModified();
+			}
+			return ResponseEntity.ok().cacheControl(REVALIDATE).body(TaskResponse.of(taskService.getTaskById(ownerId, id)));
 		} catch (Exception exception) {
 			logger.error("Error getting task by id: {}", id, exception);
 			return ResponseEntity.notFound().build();
@@ -49,9 +196,9 @@ public class TaskController {
 	}
 
 	@GetMapping("/title/{title}")
-	public ResponseEntity<Task> getTaskByTitle(@PathVariable(name = "title") String title) {
+	public ResponseEntity<TaskResponse> getTaskByTitle(@PathVariable(name = "title") String title, Principal principal) {
 		try {
-			return ResponseEntity.ok(taskService.getTaskByTitle(title));
+			return ResponseEntity.ok(TaskResponse.of(taskService.getTaskByTitle(currentUserService.getUserId(principal), title)));
 		} catch (Exception exception) {
 			logger.error("Error getting task by title: {}", title, exception);
 			return ResponseEntity.notFound().build();
@@ -59,9 +206,14 @@ public class TaskController {
 	}
 
 	@RequestMapping(value = "/add", method = RequestMethod.POST)
-	public ModelAndView addTask(@ModelAttribute Task task) {
+	public ModelAndView addTask(
+			@ModelAttribute Task task,
+			@RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+			Principal principal
+	) {
 		try {
-			Task addedTask = taskService.addTask(task);
+			Long ownerId = currentUserService.getUserId(principal);
+			idempotencyService.execute(ownerId, "add", idempotencyKey, () -> taskService.addTask(ownerId, task).getId());
 			return new ModelAndView("redirect:/tasks");
 		} catch (Exception exception) {
 			logger.error("Error adding task: {}", task.getTitle(), exception);
@@ -69,9 +221,19 @@ public class TaskController {
 		}
 	}
 
+	@PostMapping(value = "/import", consumes = {"application/json", "application/x-ndjson"})
+	public ResponseEntity<ImportResult> importTasks(InputStream body, Principal principal) {
+		try {
+			return ResponseEntity.ok(taskImportService.importTasks(currentUserService.getUserId(principal), body));
+		} catch (Exception exception) {
+			logger.error("Error importing tasks", exception);
+			return ResponseEntity.badRequest().build();
+		}
+	}
+
 	@RequestMapping(value = "/update/{id}", method = RequestMethod.GET)
-	public ModelAndView updateTask(@PathVariable(name = "id") Long id) {
-		Task taskById = taskService.getTaskById(id);
+	public ModelAndView updateTask(@PathVariable(name = "id") Long id, Principal principal) {
+		Task taskById = taskService.getTaskById(currentUserService.getUserId(principal), id);
 		if (taskById != null) {
 			taskById.setDueDate(
 					LocalDate.parse(
@@ -89,22 +251,65 @@ public class TaskController {
 	}
 
 	@PostMapping("/update")
-	public ModelAndView updateTask(@ModelAttribute Task task) {
+	public ModelAndView updateTask(@ModelAttribute Task task, Principal principal) {
 		try {
-			Task updatedTask = taskService.updateTask(task);
+			Task updatedTask = taskService.updateTask(currentUserService.getUserId(principal), task);
 			return new ModelAndView("redirect:/tasks", "task", updatedTask);
+		} catch (OptimisticLockingFailureException exception) {
+			logger.warn("Conflicting update of task: {}", task.getTitle());
+			throw exception;
 		} catch (Exception exception) {
 			logger.error("Error updating task: {}", task.getTitle(), exception);
 			throw new RuntimeException("Task not found");
 		}
 	}
 
+	/**
+	 * Replaces one of the current user's tasks. With {@code If-Match}, the update only applies while the
+	 * task still has that ETag, otherwise the response is {@code 412 Precondition Failed}. The response
+	 * carries the task's new ETag.
+	 */
+	@PutMapping("/{id}")
+	public ResponseEntity<TaskResponse> replaceTask(
+			@PathVariable(name = "id") Long id,
+			@RequestBody Task task,
+			WebRequest webRequest,
+			Principal principal
+	) {
+		try {
+			Long ownerId = currentUserService.getUserId(principal);
+			Optional<TaskVersion> version = taskService.getTaskVersion(ownerId, id);
+			if (version.isEmpty()) {
+				return ResponseEntity.notFound().build();
+			}
+			// For an update, a positive check means a failed If-Match or If-Unmodified-Since precondition.
+			if (isNotModified(webRequest, version.get())) {
+				return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+			}
+			Task replacedTask = taskService.replaceTask(ownerId, id, task, version.get().revision());
+			TaskVersion newVersion = new TaskVersion(replacedTask.getLastModified(), replacedTask.getVersion());
+			return ResponseEntity.ok().eTag(newVersion.etag()).cacheControl(REVALIDATE).body(TaskResponse.of(replacedTask));
+		} catch (OptimisticLockingFailureException exception) {
+			logger.warn("Conflicting update of task with id: {}", id);
+			throw exception;
+		} catch (Exception exception) {
+			logger.error("Error replacing task with id: {}", id, exception);
+			return ResponseEntity.badRequest().build();
+		}
+	}
+
 	@PostMapping("/complete/{id}")
-	public ModelAndView completeTask(@PathVariable Long id) {
+	public ModelAndView completeTask(
+			@PathVariable Long id,
+			@RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+			Principal principal
+	) {
 		try {
-			Task taskById = taskService.getTaskById(id);
-			taskById.setCompleted(true);
-			taskService.updateTask(taskById);
+			Long ownerId = currentUserService.getUserId(principal);
+			idempotencyService.execute(ownerId, "complete:" + id, idempotencyKey, () -> {
+				taskCompletionService.complete(ownerId, id);
+				return id;
+			});
 			return new ModelAndView("redirect:/");
 		} catch (Exception exception) {
 			logger.error("Error completing task with id: {}", id, exception);
@@ -112,11 +317,31 @@ public class TaskController {
 		}
 	}
 
+	@PostMapping("/uncomplete/{id}")
+	public ModelAndView uncompleteTask(
+			@PathVariable Long id,
+			@RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+			Principal principal
+	) {
+		try {
+			Long ownerId = currentUserService.getUserId(principal);
+			idempotencyService.execute(ownerId, "uncomplete:" + id, idempotencyKey, () -> {
+				taskCompletionService.uncomplete(ownerId, id);
+				return id;
+			});
+			return new ModelAndView("redirect:/");
+		} catch (Exception exception) {
+			logger.error("Error reopening task with id: {}", id, exception);
+			return new ModelAndView("redirect:/");
+		}
+	}
+
 	@RequestMapping(value = "/delete/{id}", method = RequestMethod.DELETE)
-	public ModelAndView deleteTask(@PathVariable Long id) {
+	public ModelAndView deleteTask(@PathVariable Long id, Principal principal) {
 		try {
-			Task taskById = taskService.getTaskById(id);
-			taskService.deleteTask(taskById);
+			Long ownerId = currentUserService.getUserId(principal);
+			Task taskById = taskService.getTaskById(ownerId, id);
+			taskService.deleteTask(ownerId, taskById);
 			return new ModelAndView("redirect:/");
 		} catch (Exception exception) {
 			logger.error("Error deleting task with id: {}", id, exception);
@@ -124,10 +349,42 @@ public class TaskController {
 		}
 	}
 
+	@PostMapping("/bulk/complete")
+	public ResponseEntity<BulkResult> completeTasks(@RequestBody BulkTaskRequest request, Principal principal) {
+		try {
+			return ResponseEntity.ok(new BulkResult(taskService.completeTasks(currentUserService.getUserId(principal), request)));
+		} catch (Exception exception) {
+			logger.error("Error completing tasks in bulk: {}", request, exception);
+			return ResponseEntity.badRequest().build();
+		}
+	}
+
+	@PostMapping("/bulk/delete")
+	public ResponseEntity<BulkResult> deleteTasks(@RequestBody BulkTaskRequest request, Principal principal) {
+		try {
+			return ResponseEntity.ok(new BulkResult(taskService.deleteTasks(currentUserService.getUserId(principal), request)));
+		} catch (Exception exception) {
+			logger.error("Error deleting tasks in bulk: {}", request, exception);
+			return ResponseEntity.badRequest().build();
+		}
+	}
+
 	@GetMapping("/pending")
-	public ResponseEntity<List<Task>> getPendingTasks() {
+	public ResponseEntity<List<TaskResponse>> getPendingTasks(
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "size", defaultValue = "${todo.pagination.default-size:50}") int size,
+			WebRequest webRequest,
+			Principal principal
+	) {
 		try {
-			return ResponseEntity.ok(taskService.getPendingTasks());
+			Long ownerId = currentUserService.getUserId(principal);
+			if (isNotModified(webRequest, taskService.getPendingTasksVersion(ownerId), cursor, size)) {
+				return notModified();
+			}
+			return pageResponse(taskService.getPendingTasksPage(ownerId, cursor, size), size);
+		} catch (IllegalArgumentException exception) {
+			logger.error("Invalid page request for pending tasks", exception);
+			return ResponseEntity.badRequest().build();
 		} catch (Exception exception) {
 			logger.error("Error getting pending tasks", exception);
 			return ResponseEntity.notFound().build();
@@ -135,9 +392,21 @@ public class TaskController {
 	}
 
 	@GetMapping("/completed")
-	public ResponseEntity<List<Task>> getCompletedTasks() {
+	public ResponseEntity<List<TaskResponse>> getCompletedTasks(
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "size", defaultValue = "${todo.pagination.default-size:50}") int size,
+			WebRequest webRequest,
+			Principal principal
+	) {
 		try {
-			return ResponseEntity.ok(taskService.getCompletedTasks());
+			Long ownerId = currentUserService.getUserId(principal);
+			if (isNotModified(webRequest, taskService.getCompletedTasksVersion(ownerId), cursor, size)) {
+				return notModified();
+			}
+			return pageResponse(taskService.getCompletedTasksPage(ownerId, cursor, size), size);
+		} catch (IllegalArgumentException exception) {
+			logger.error("Invalid page request for completed tasks", exception);
+			return ResponseEntity.badRequest().build();
 		} catch (Exception exception) {
 			logger.error("Error getting completed tasks", exception);
 			return ResponseEntity.notFound().build();
@@ -145,12 +414,93 @@ public class TaskController {
 	}
 
 	@GetMapping("/today")
-	public ResponseEntity<List<Task>> getTodayTasks() {
+	public ResponseEntity<List<TaskResponse>> getTodayTasks(
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "size", defaultValue = "${todo.pagination.default-size:50}") int size,
+			WebRequest webRequest,
+			Principal principal
+	) {
 		try {
-			return ResponseEntity.ok(taskService.getTodayTasks());
+			Long ownerId = currentUserService.getUserId(principal);
+			if (isNotModified(webRequest, taskService.getTodayTasksVersion(ownerId), cursor, size, LocalDate.now())) {
+				return notModified();
+			}
+			return pageResponse(taskService.getTodayTasksPage(ownerId, cursor, size), size);
+		} catch (IllegalArgumentException exception) {
+			logger.error("Invalid page request for today tasks", exception);
+			return ResponseEntity.badRequest().build();
 		} catch (Exception exception) {
 			logger.error("Error getting today tasks", exception);
 			return ResponseEntity.notFound().build();
 		}
 	}
+
+	@GetMapping("/overdue")
+	public ResponseEntity<List<TaskResponse>> getOverdueTasks(
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "size", defaultValue = "${todo.pagination.default-size:50}") int size,
+			WebRequest webRequest,
+			Principal principal
+	) {
+		try {
+			Long ownerId = currentUserService.getUserId(principal);
+			if (isNotModified(webRequest, taskService.getOverdueTasksVersion(ownerId), cursor, size, LocalDate.now())) {
+				return notModified();
+			}
+			return pageResponse(taskService.getOverdueTasksPage(ownerId, cursor, size), size);
+		} catch (IllegalArgumentException exception) {
+			logger.error("Invalid page request for overdue tasks", exception);
+			return ResponseEntity.badRequest().build();
+		} catch (Exception exception) {
+			logger.error("Error getting overdue tasks", exception);
+			return ResponseEntity.notFound().build();
+		}
+	}
+
+	@GetMapping("/upcoming")
+	public ResponseEntity<List<TaskResponse>> getUpcomingTasks(
+			@RequestParam(name = "days", defaultValue = "7") int days,
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "size", defaultValue = "${todo.pagination.default-size:50}") int size,
+			WebRequest webRequest,
+			Principal principal
+	) {
+		try {
+			Long ownerId = currentUserService.getUserId(principal);
+			if (isNotModified(webRequest, taskService.getUpcomingTasksVersion(ownerId, days), cursor, size, LocalDate.now(), days)) {
+				return notModified();
+			}
+			return pageResponse(taskService.getUpcomingTasksPage(ownerId, days, cursor, size), size);
+		} catch (IllegalArgumentException exception) {
+			logger.error("Invalid page request for upcoming tasks", exception);
+			return ResponseEntity.badRequest().build();
+		} catch (Exception exception) {
+			logger.error("Error getting upcoming tasks", exception);
+			return ResponseEntity.notFound().build();
+		}
+	}
+
+	// Compares the request's validators with the version, also setting ETag and Last-Modified on the response.
+	// The representation parts distinguish responses built from the same rows, such as different pages.
+	private static boolean isNotModified(WebRequest webRequest, TaskVersion version, Object... representation) {
+		return webRequest.checkNotModified(version.etag(representation), version.lastModifiedMillis());
+	}
+
+	private static <T> ResponseEntity<T> notModified() {
+		return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+	}
+
+	// Returns the page as a plain JSON array and advertises the next page through headers.
+	private static ResponseEntity<List<TaskResponse>> pageResponse(TaskPage page, int size) {
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(REVALIDATE);
+		if (page.hasNext()) {
+			String next = ServletUriComponentsBuilder.fromCurrentRequest()
+					.replaceQueryParam("cursor", page.nextCursor())
+					.replaceQueryParam("size", size)
+					.toUriString();
+			response.header(NEXT_CURSOR_HEADER, page.nextCursor())
+					.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+		}
+		return response.body(page.tasks());
+	}
 }
@@ -1,6 +1,7 @@
 package com.todo.rails.elite.starter.code.controller;
 
 import com.todo.rails.elite.starter.code.model.User;
+import com.todo.rails.elite.starter.code.model.dto.UserResponse;
 import com.todo.rails.elite.starter.code.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,8 +9,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * REST controller for managing users in the application.
+ *
+ * <p>Lookups return {@link UserResponse}s read as projections, so the password hash is neither
+ * loaded nor serialized.</p>
  */
 @RestController
 @RequestMapping("/api/users")
@@ -24,9 +30,9 @@ public class UserController {
 	}
 
 	@GetMapping("/all")
-	public ResponseEntity<Iterable<User>> getAllUsers() {
+	public ResponseEntity<List<UserResponse>> getAllUsers() {
 		try {
-			Iterable<User> allUsers = userService.getAllUsers();
+			List<UserResponse> allUsers = userService.getAllUsers();
 			return ResponseEntity.ok(allUsers);
 		} catch (Exception exception) {
 			logger.error("Error getting all users", exception);
@@ -35,9 +41,9 @@ public class UserController {
 	}
 
 	@GetMapping("/{id}")
-	public ResponseEntity<User> getUserById(@PathVariable(name = "id") Long id) {
+	public ResponseEntity<UserResponse> getUserById(@PathVariable(name = "id") Long id) {
 		try {
-			User userById = userService.getUserById(id);
+			UserResponse userById = userService.getUserById(id);
 			return ResponseEntity.ok(userById);
 		} catch (Exception exception) {
 			logger.error("Error getting user by id: {}", id, exception);
@@ -46,9 +52,9 @@ public class UserController {
 	}
 
 	@GetMapping("/username/{username}")
-	public ResponseEntity<User> getUseByUsername(@PathVariable(name = "username") String username) {
+	public ResponseEntity<UserResponse> getUseByUsername(@PathVariable(name = "username") String username) {
 		try {
-			User userByUsername = userService.getUserByUsername(username);
+			UserResponse userByUsername = userService.getUserResponseByUsername(username);
 			return ResponseEntity.ok(userByUsername);
 		} catch (Exception exception) {
 			logger.error("Error getting user by username: {}", username, exception);
@@ -58,9 +64,9 @@ public class UserController {
 
 
 	@GetMapping("/email/{email}")
-	public ResponseEntity<User> getUserByEmail(@PathVariable(name = "email") String email) {
+	public ResponseEntity<UserResponse> getUserByEmail(@PathVariable(name = "email") String email) {
 		try {
-			User userByEmail = userService.getUserByEmail(email);
+			UserResponse userByEmail = userService.getUserByEmail(email);
 			return ResponseEntity.ok(userByEmail);
 		} catch (Exception exception) {
 			logger.error("Error getting user by email: {}", email, exception);
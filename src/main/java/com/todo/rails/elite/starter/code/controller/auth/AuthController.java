@@ -13,6 +13,8 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.servlet.ModelAndView;
 
+import java.util.Set;
+
 /**
  * Handles registration of new users.
  */
@@ -36,7 +38,7 @@ public class AuthController {
 	 */
 	@GetMapping
 	public String showRegisterPage(Model model) {
-		model.addAttribute("user", new User("", "", "", "USER"));
+		model.addAttribute("user", new User("", "", "", Set.of("USER")));
 		return "register";
 	}
 
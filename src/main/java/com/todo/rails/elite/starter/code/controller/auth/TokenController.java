@@ -0,0 +1,73 @@
+package com.todo.rails.elite.starter.code.controller.auth;
+
+import com.todo.rails.elite.starter.code.model.dto.TokenRequest;
+import com.todo.rails.elite.starter.code.model.dto.TokenResponse;
+import com.todo.rails.elite.starter.code.service.security.TokenService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Issues and revokes the bearer tokens of the stateless API mode.
+ */
+@RestController
+@RequestMapping("/api/auth/token")
+@ConditionalOnProperty(name = "todo.security.token.enabled", havingValue = "true")
+public class TokenController {
+
+	private static final Logger logger = LoggerFactory.getLogger(TokenController.class);
+	private final TokenService tokenService;
+
+	@Autowired
+	public TokenController(TokenService tokenService) {
+		this.tokenService = tokenService;
+	}
+
+	/**
+	 * Exchanges a username and password for an access token.
+	 *
+	 * @param request the user's credentials.
+	 * @return the token, <code>401 Unauthorized</code> for wrong credentials, or
+	 * <code>503 Service Unavailable</code> while too many passwords are being checked.
+	 */
+	@PostMapping
+	public ResponseEntity<TokenResponse> issueToken(@RequestBody TokenRequest request) {
+		try {
+			TokenResponse token = tokenService.issueToken(request.username(), request.password());
+			return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(token);
+		} catch (AuthenticationServiceException exception) {
+			logger.error("Error issuing a token for user: {}", request.username(), exception);
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+		} catch (AuthenticationException exception) {
+			logger.warn("Rejected token request for user: {}", request.username());
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+		}
+	}
+
+	/**
+	 * Revokes the bearer token the request was made with.
+	 *
+	 * @param token the request's verified token; absent when it authenticated with a session.
+	 * @return <code>204 No Content</code>, or <code>400 Bad Request</code> without a bearer token.
+	 */
+	@PostMapping("/revoke")
+	public ResponseEntity<Void> revokeToken(@AuthenticationPrincipal Jwt token) {
+		if (token == null) {
+			return ResponseEntity.badRequest().build();
+		}
+		tokenService.revokeToken(token);
+		return ResponseEntity.noContent().build();
+	}
+}
@@ -1,15 +1,32 @@
 package com.todo.rails.elite.starter.code.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.FutureOrPresent;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 
 // Define the Task entity with appropriate JPA annotations and validation constraints
 @Entity
-@Table(name = "tasks")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tasks")
+@Table(
+		name = "tasks",
+		indexes = {
+				// last_modified makes the index covering for the listings' max(last_modified) version queries
+				@Index(name = "idx_tasks_owner_status_modified", columnList = "owner_id, completed, due_date, last_modified")
+		},
+		uniqueConstraints = {
+				@UniqueConstraint(name = "uk_tasks_owner_title", columnNames = {"owner_id", "title"})
+		}
+)
 public class Task {
 
 	// Add Validation Error Messages
@@ -18,7 +35,7 @@ public class Task {
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
 
-	@Column(name = "title", unique = true, nullable = false)
+	@Column(name = "title", nullable = false)
     @NotNull(message = "Title cannot be null")
     @NotBlank(message = "Title cannot be blank")
 	private String title;
@@ -35,6 +52,23 @@ public class Task {
     @FutureOrPresent(message = "Due date must be in the present or future")
 	private LocalDate dueDate;
 
+	// Every query is scoped to one owner; the owner itself is never serialized.
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "owner_id", foreignKey = @ForeignKey(name = "fk_tasks_owner"))
+	@JsonIgnore
+	private User owner;
+
+	// Set on every write; bulk statements set it explicitly. Null for rows written before the column existed.
+	@Column(name = "last_modified")
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
+	private Instant lastModified;
+
+	// Optimistic locking: every update checks and increments it, so concurrent edits cannot overwrite each other.
+	@Version
+	@Column(name = "version", nullable = false)
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
+	private Long version;
+
 	public Task() {
 	}
 
@@ -85,6 +119,44 @@ public class Task {
 		this.dueDate = dueDate;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
+	public Instant getLastModified() {
+		return lastModified;
+	}
+
+	public void setLastModified(Instant lastModified) {
+		this.lastModified = lastModified;
+	}
+
+	/**
+	 * Returns the current time at the microsecond precision the database keeps, so a timestamp read
+	 * back from a row equals the one that was written.
+	 */
+	public static Instant modificationTime() {
+		return Instant.now().truncatedTo(ChronoUnit.MICROS);
+	}
+
+	@PrePersist
+	@PreUpdate
+	void touch() {
+		lastModified = modificationTime();
+	}
+
+	public User getOwner() {
+		return owner;
+	}
+
+	public void setOwner(User owner) {
+		this.owner = owner;
+	}
+
 	@Override
 	public String toString() {
 		return "Task{" +
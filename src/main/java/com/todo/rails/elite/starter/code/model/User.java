@@ -1,9 +1,16 @@
 package com.todo.rails.elite.starter.code.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 // Define the User entity with appropriate JPA annotations
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Table(name = "users")
 public class User {
 	@Id
@@ -19,17 +26,25 @@ public class User {
 	@Column(name = "email", unique = true, nullable = false)
 	private String email;
 
-	@Column(name = "roles", nullable = false)
-	private String roles;
+	// One row per role, loaded with the user; the index serves lookups of the users holding a role.
+	@ElementCollection(fetch = FetchType.EAGER)
+	@CollectionTable(
+			name = "user_roles",
+			joinColumns = @JoinColumn(name = "user_id"),
+			indexes = @Index(name = "idx_user_roles_role", columnList = "role")
+	)
+	@Column(name = "role", nullable = false, length = 50)
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+	private Set<String> roles = new LinkedHashSet<>();
 
 	public User() {
 	}
 
-	public User(String username, String password, String email, String roles) {
+	public User(String username, String password, String email, Set<String> roles) {
 		this.username = username;
 		this.password = password;
 		this.email = email;
-		this.roles = roles;
+		setRoles(roles);
 	}
 
 	public Long getId() {
@@ -64,12 +79,12 @@ public class User {
 		this.email = email;
 	}
 
-	public String getRoles() {
+	public Set<String> getRoles() {
 		return roles;
 	}
 
-	public void setRoles(String roles) {
-		this.roles = roles;
+	public void setRoles(Set<String> roles) {
+		this.roles = roles != null ? new LinkedHashSet<>(roles) : new LinkedHashSet<>();
 	}
 
 	@Override
@@ -79,7 +94,7 @@ public class User {
 				", username='" + username + '\'' +
 				", password='" + password + '\'' +
 				", email='" + email + '\'' +
-				", roles='" + roles + '\'' +
+				", roles=" + roles +
 				'}';
 	}
 }
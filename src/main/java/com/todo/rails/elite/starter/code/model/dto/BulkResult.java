@@ -0,0 +1,9 @@
+package com.todo.rails.elite.starter.code.model.dto;
+
+/**
+ * Outcome of a bulk operation.
+ *
+ * @param affected number of tasks changed by the operation.
+ */
+public record BulkResult(long affected) {
+}
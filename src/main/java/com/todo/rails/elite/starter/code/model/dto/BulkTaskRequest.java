@@ -0,0 +1,22 @@
+package com.todo.rails.elite.starter.code.model.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Selects the tasks a bulk operation applies to: either an explicit list of ids or every matching
+ * task due before a date.
+ *
+ * @param ids       ids of the tasks to change.
+ * @param dueBefore exclusive due-date bound used when no ids are given.
+ */
+public record BulkTaskRequest(List<Long> ids, LocalDate dueBefore) {
+
+	public boolean hasIds() {
+		return ids != null && !ids.isEmpty();
+	}
+
+	public boolean hasDueBefore() {
+		return dueBefore != null;
+	}
+}
@@ -0,0 +1,19 @@
+package com.todo.rails.elite.starter.code.model.dto;
+
+/**
+ * Hit/miss counters of a single cache or cache region.
+ *
+ * @param name      cache or region name.
+ * @param hits      number of lookups served from the cache.
+ * @param misses    number of lookups that fell through to the database.
+ * @param hitRate   hits divided by lookups, or <code>0</code> before the first lookup.
+ * @param evictions number of entries evicted because of size or TTL bounds, when known.
+ * @param size      approximate number of entries currently held.
+ */
+public record CacheStatistics(String name, long hits, long misses, double hitRate, long evictions, long size) {
+
+	public static CacheStatistics of(String name, long hits, long misses, long evictions, long size) {
+		long lookups = hits + misses;
+		return new CacheStatistics(name, hits, misses, lookups == 0 ? 0 : (double) hits / lookups, evictions, size);
+	}
+}
@@ -0,0 +1,12 @@
+package com.todo.rails.elite.starter.code.model.dto;
+
+import java.util.List;
+
+/**
+ * Everything the home page needs to render the dashboard.
+ *
+ * @param counts       aggregated task counts for the metric cards.
+ * @param pendingTasks bounded list of pending tasks, ordered by due date.
+ */
+public record DashboardSummary(TaskCounts counts, List<TaskResponse> pendingTasks) {
+}
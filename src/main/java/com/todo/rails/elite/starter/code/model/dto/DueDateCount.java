@@ -0,0 +1,12 @@
+package com.todo.rails.elite.starter.code.model.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Number of tasks due on one day.
+ *
+ * @param dueDate the day.
+ * @param count   number of tasks due that day.
+ */
+public record DueDateCount(LocalDate dueDate, long count) {
+}
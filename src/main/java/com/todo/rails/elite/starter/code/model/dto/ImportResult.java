@@ -0,0 +1,24 @@
+package com.todo.rails.elite.starter.code.model.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk task import.
+ *
+ * @param received number of rows read from the upload.
+ * @param imported number of rows inserted.
+ * @param failed   number of rows rejected.
+ * @param failures details of rejected rows, truncated to the first few hundred entries.
+ */
+public record ImportResult(long received, long imported, long failed, List<Failure> failures) {
+
+	/**
+	 * A rejected row.
+	 *
+	 * @param row    1-based position of the row in the upload.
+	 * @param title  title of the rejected task, if it could be read.
+	 * @param reason why the row was rejected.
+	 */
+	public record Failure(long row, String title, String reason) {
+	}
+}
@@ -0,0 +1,20 @@
+package com.todo.rails.elite.starter.code.model.dto;
+
+import java.time.Instant;
+
+/**
+ * Version of one owner's listing of all tasks, read for every owner at once.
+ *
+ * @param ownerId      the owner.
+ * @param lastModified newest modification time of the owner's tasks, or {@code null} if unknown.
+ * @param revision     number of the owner's tasks.
+ */
+public record OwnerTaskVersion(Long ownerId, Instant lastModified, long revision) {
+
+	/**
+	 * Returns the version as {@link TaskVersion}, comparable with the listing's other versions.
+	 */
+	public TaskVersion version() {
+		return new TaskVersion(lastModified, revision);
+	}
+}
@@ -0,0 +1,12 @@
+package com.todo.rails.elite.starter.code.model.dto;
+
+/**
+ * Aggregated task counts used by the dashboard and profile pages.
+ *
+ * @param total        number of tasks.
+ * @param pending      number of tasks that are not completed.
+ * @param completed    number of completed tasks.
+ * @param pendingToday number of tasks that are not completed and due today.
+ */
+public record TaskCounts(long total, long pending, long completed, long pendingToday) {
+}
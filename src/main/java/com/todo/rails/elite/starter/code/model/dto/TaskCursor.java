@@ -0,0 +1,60 @@
+package com.todo.rails.elite.starter.code.model.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position used to continue a task listing after the last row a client has seen.
+ *
+ * <p>The cursor always carries the task id; listings ordered by due date also carry the due date,
+ * so the next page can seek directly to <code>(dueDate, id)</code> instead of skipping rows
+ * with an offset.</p>
+ *
+ * @param dueDate due date of the last task returned, or <code>null</code> for id-ordered listings.
+ * @param id      id of the last task returned.
+ */
+public record TaskCursor(LocalDate dueDate, long id) {
+
+	private static final String SEPARATOR = ",";
+
+	public static TaskCursor afterId(TaskResponse task) {
+		return new TaskCursor(null, task.id());
+	}
+
+	public static TaskCursor afterDueDate(TaskResponse task) {
+		return new TaskCursor(task.dueDate(), task.id());
+	}
+
+	public String encode() {
+		String value = dueDate == null ? String.valueOf(id) : dueDate + SEPARATOR + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Parses a cursor previously produced by {@link #encode()}.
+	 *
+	 * @param cursor encoded cursor, may be <code>null</code> or blank for the first page.
+	 * @return the decoded cursor, or <code>null</code> when no cursor was given.
+	 * @throws IllegalArgumentException if the cursor is malformed.
+	 */
+	public static TaskCursor decode(String cursor) {
+		if (cursor == null || cursor.isBlank()) {
+			return null;
+		}
+		try {
+			String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			int separator = value.indexOf(SEPARATOR);
+			if (separator < 0) {
+				return new TaskCursor(null, Long.parseLong(value));
+			}
+			return new TaskCursor(
+					LocalDate.parse(value.substring(0, separator)),
+					Long.parseLong(value.substring(separator + 1))
+			);
+		} catch (IllegalArgumentException | DateTimeParseException exception) {
+			throw new IllegalArgumentException("Invalid cursor: " + cursor, exception);
+		}
+	}
+}
@@ -0,0 +1,16 @@
+package com.todo.rails.elite.starter.code.model.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated task listing.
+ *
+ * @param tasks      tasks on this page, in listing order.
+ * @param nextCursor encoded cursor for the following page, or <code>null</code> on the last page.
+ */
+public record TaskPage(List<TaskResponse> tasks, String nextCursor) {
+
+	public boolean hasNext() {
+		return nextCursor != null;
+	}
+}
@@ -0,0 +1,34 @@
+package com.todo.rails.elite.starter.code.model.dto;
+
+import com.todo.rails.elite.starter.code.model.Task;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * A task as returned by the read endpoints, with the same JSON shape as {@link Task}.
+ *
+ * <p>Listing queries select it directly, so the rows never become managed entities.</p>
+ */
+public record TaskResponse(
+		Long id,
+		String title,
+		String description,
+		boolean completed,
+		LocalDate dueDate,
+		Instant lastModified,
+		Long version
+) {
+
+	public static TaskResponse of(Task task) {
+		return new TaskResponse(
+				task.getId(),
+				task.getTitle(),
+				task.getDescription(),
+				task.isCompleted(),
+				task.getDueDate(),
+				task.getLastModified(),
+				task.getVersion()
+		);
+	}
+}
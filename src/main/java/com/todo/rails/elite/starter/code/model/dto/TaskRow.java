@@ -0,0 +1,19 @@
+package com.todo.rails.elite.starter.code.model.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Every listed column of a task, read without loading the entity.
+ */
+public record TaskRow(
+		Long id,
+		Long ownerId,
+		String title,
+		String description,
+		boolean completed,
+		LocalDate dueDate,
+		Instant lastModified,
+		Long version
+) {
+}
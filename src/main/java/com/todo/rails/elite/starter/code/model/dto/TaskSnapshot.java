@@ -0,0 +1,15 @@
+package com.todo.rails.elite.starter.code.model.dto;
+
+import com.todo.rails.elite.starter.code.model.Task;
+
+import java.time.LocalDate;
+
+/**
+ * Immutable copy of a task's state at one point in time.
+ */
+public record TaskSnapshot(Long id, String title, String description, boolean completed, LocalDate dueDate) {
+
+	public static TaskSnapshot of(Task task) {
+		return new TaskSnapshot(task.getId(), task.getTitle(), task.getDescription(), task.isCompleted(), task.getDueDate());
+	}
+}
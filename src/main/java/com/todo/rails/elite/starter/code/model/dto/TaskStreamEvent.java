@@ -0,0 +1,19 @@
+package com.todo.rails.elite.starter.code.model.dto;
+
+/**
+ * Payload of a task change pushed to open dashboards.
+ *
+ * @param taskId id of the changed task.
+ * @param task   state after the change, or {@code null} if the task was deleted or only marked completed.
+ * @param change amount by which each dashboard counter changed.
+ * @param counts owner's counters read when the event was sent; they already include this change.
+ */
+public record TaskStreamEvent(Long taskId, TaskSnapshot task, TaskCounts change, TaskCounts counts) {
+
+	/**
+	 * Returns this event carrying the given counters.
+	 */
+	public TaskStreamEvent withCounts(TaskCounts counts) {
+		return new TaskStreamEvent(taskId, task, change, counts);
+	}
+}
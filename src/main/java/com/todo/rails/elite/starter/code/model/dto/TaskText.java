@@ -0,0 +1,7 @@
+package com.todo.rails.elite.starter.code.model.dto;
+
+/**
+ * The searchable text of a task, read without loading the entity.
+ */
+public record TaskText(Long id, Long ownerId, String title, String description) {
+}
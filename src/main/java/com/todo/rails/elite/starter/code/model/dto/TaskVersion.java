@@ -0,0 +1,36 @@
+package com.todo.rails.elite.starter.code.model.dto;
+
+import java.time.Instant;
+import java.util.StringJoiner;
+
+/**
+ * Version of a task or of a task listing, used to answer conditional requests.
+ *
+ * @param lastModified newest modification time, or {@code null} if unknown (no rows, or rows written
+ *                     before modification times were recorded).
+ * @param revision     for a single task, its optimistic-locking version; for a listing, its row
+ *                     count, which changes when a task leaves the listing.
+ */
+public record TaskVersion(Instant lastModified, long revision) {
+
+	/**
+	 * Returns a strong entity tag for this version of a representation. The representation parts
+	 * (cursor, page size, ...) distinguish responses built from the same rows.
+	 */
+	public String etag(Object... representation) {
+		StringJoiner tag = new StringJoiner("-", "\"", "\"");
+		tag.add(lastModified != null ? Long.toString(lastModified.getEpochSecond(), 36) + "." + Integer.toString(lastModified.getNano(), 36) : "0");
+		tag.add(Long.toString(revision, 36));
+		for (Object part : representation) {
+			tag.add(part != null ? part.toString() : "");
+		}
+		return tag.toString();
+	}
+
+	/**
+	 * Returns the modification time in epoch milliseconds, or -1 if unknown.
+	 */
+	public long lastModifiedMillis() {
+		return lastModified != null ? lastModified.toEpochMilli() : -1;
+	}
+}
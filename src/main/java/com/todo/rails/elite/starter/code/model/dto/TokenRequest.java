@@ -0,0 +1,15 @@
+package com.todo.rails.elite.starter.code.model.dto;
+
+/**
+ * Credentials exchanged for an API access token.
+ *
+ * @param username the user's username.
+ * @param password the user's password.
+ */
+public record TokenRequest(String username, String password) {
+
+	@Override
+	public String toString() {
+		return "TokenRequest[username=" + username + "]";
+	}
+}
@@ -0,0 +1,17 @@
+package com.todo.rails.elite.starter.code.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * An issued API access token, in the shape of an OAuth 2.0 token response.
+ *
+ * @param accessToken signed JWT to send as <code>Authorization: Bearer &lt;token&gt;</code>.
+ * @param tokenType   always <code>Bearer</code>.
+ * @param expiresIn   seconds until the token expires.
+ */
+public record TokenResponse(
+		@JsonProperty("access_token") String accessToken,
+		@JsonProperty("token_type") String tokenType,
+		@JsonProperty("expires_in") long expiresIn
+) {
+}
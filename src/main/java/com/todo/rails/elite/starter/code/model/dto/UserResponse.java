@@ -0,0 +1,14 @@
+package com.todo.rails.elite.starter.code.model.dto;
+
+import java.util.Set;
+
+/**
+ * A user as returned by the user endpoints; never carries the password hash.
+ *
+ * @param id       user id.
+ * @param username login name.
+ * @param email    email address.
+ * @param roles    granted roles, without the <code>ROLE_</code> prefix.
+ */
+public record UserResponse(Long id, String username, String email, Set<String> roles) {
+}
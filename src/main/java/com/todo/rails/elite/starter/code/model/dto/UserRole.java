@@ -0,0 +1,7 @@
+package com.todo.rails.elite.starter.code.model.dto;
+
+/**
+ * One role held by a user, read from <code>user_roles</code>.
+ */
+public record UserRole(Long userId, String role) {
+}
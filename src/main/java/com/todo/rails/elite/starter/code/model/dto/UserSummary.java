@@ -0,0 +1,7 @@
+package com.todo.rails.elite.starter.code.model.dto;
+
+/**
+ * The public columns of a user, read without loading the entity or its password hash.
+ */
+public record UserSummary(Long id, String username, String email) {
+}
@@ -0,0 +1,64 @@
+package com.todo.rails.elite.starter.code.model.event;
+
+import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.dto.TaskSnapshot;
+
+import java.util.List;
+
+/**
+ * Published after one of an owner's tasks, or a set of them, changed.
+ *
+ * <p>Single-task events carry the state before and/or after the change when the service had it at hand.
+ * Bulk events carry the ids they selected, or {@code null} when the statement selected rows by another
+ * criterion and the affected ids are unknown.</p>
+ *
+ * @param type     kind of change.
+ * @param ownerId  owner of the changed tasks.
+ * @param taskIds  ids of the changed tasks, or {@code null} if unknown.
+ * @param previous state before the change, if known.
+ * @param current  state after the change, if known.
+ */
+public record TaskChangedEvent(
+		Type type,
+		Long ownerId,
+		List<Long> taskIds,
+		TaskSnapshot previous,
+		TaskSnapshot current
+) {
+
+	public enum Type {
+		CREATED,
+		UPDATED,
+		COMPLETED,
+		REOPENED,
+		DELETED,
+		BULK_COMPLETED,
+		BULK_REOPENED,
+		BULK_DELETED,
+		IMPORTED
+	}
+
+	public static TaskChangedEvent created(Long ownerId, Task task) {
+		return new TaskChangedEvent(Type.CREATED, ownerId, List.of(task.getId()), null, TaskSnapshot.of(task));
+	}
+
+	public static TaskChangedEvent updated(Long ownerId, TaskSnapshot previous, Task task) {
+		return new TaskChangedEvent(Type.UPDATED, ownerId, List.of(task.getId()), previous, TaskSnapshot.of(task));
+	}
+
+	public static TaskChangedEvent completed(Long ownerId, Long taskId) {
+		return new TaskChangedEvent(Type.COMPLETED, ownerId, List.of(taskId), null, null);
+	}
+
+	public static TaskChangedEvent reopened(Long ownerId, Long taskId) {
+		return new TaskChangedEvent(Type.REOPENED, ownerId, List.of(taskId), null, null);
+	}
+
+	public static TaskChangedEvent deleted(Long ownerId, Task task) {
+		return new TaskChangedEvent(Type.DELETED, ownerId, List.of(task.getId()), TaskSnapshot.of(task), null);
+	}
+
+	public static TaskChangedEvent bulk(Type type, Long ownerId, List<Long> taskIds) {
+		return new TaskChangedEvent(type, ownerId, taskIds == null ? null : List.copyOf(taskIds), null, null);
+	}
+}
@@ -5,34 +5,74 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
-import java.util.Arrays;
+import java.io.Serial;
 import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 // Implement UserDetails to integrate with Spring Security
 public class SecurityUser implements UserDetails {
+	@Serial
+	private static final long serialVersionUID = 1L;
 
-	private final User user;
+	// Authorities are interned per role set: there are only a handful of role combinations, so every user and session
+	// with the same roles shares one immutable set instead of allocating authorities on each authorization check.
+	private static final Map<Set<String>, Set<GrantedAuthority>> AUTHORITIES = new ConcurrentHashMap<>();
+
+	private final Long id;
+	private final String username;
+	private final Set<String> roles;
+	// Only needed to check the password at login; sessions serialized to the session table never carry the hash.
+	private final transient String password;
+	private final transient Set<GrantedAuthority> authorities;
 
 	public SecurityUser(User user) {
-		this.user = user;
+		this(user.getId(), user.getUsername(), user.getPassword(), user.getRoles());
+	}
+
+	private SecurityUser(Long id, String username, String password, Set<String> roles) {
+		this.id = id;
+		this.username = username;
+		this.password = password;
+		this.roles = roles == null ? Set.of() : Set.copyOf(roles);
+		this.authorities = authoritiesOf(this.roles);
 	}
 
 	@Override
 	public Collection<? extends GrantedAuthority> getAuthorities() {
-        //  fetch the user authority (role) from the user and map it to a new SimpleGrantedAuthority object.
-		return Arrays.stream(user.getRoles().split(","))
-                .map(SimpleGrantedAuthority::new)
-                .toList();
+		return authorities;
+	}
+
+	public Long getId() {
+		return id;
 	}
 
+	// Null once the user has been read back from a session.
 	@Override
 	public String getPassword() {
-		return user.getPassword();
+		return password;
 	}
 
 	@Override
 	public String getUsername() {
-		return user.getUsername();
+		return username;
+	}
+
+	// Sessions are serialized to the session table; a deserialized user shares the interned authorities again.
+	@Serial
+	private Object readResolve() {
+		return new SecurityUser(id, username, null, roles);
 	}
 
+	//  map the user's roles to the shared set of SimpleGrantedAuthority objects, computed on first use.
+	public static Set<GrantedAuthority> authoritiesOf(Set<String> roles) {
+		if (roles == null || roles.isEmpty()) {
+			return Set.of();
+		}
+		return AUTHORITIES.computeIfAbsent(Set.copyOf(roles), key -> key.stream()
+				.map(SimpleGrantedAuthority::new)
+				.collect(Collectors.toUnmodifiableSet()));
+	}
 }
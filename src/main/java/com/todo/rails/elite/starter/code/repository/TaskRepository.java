@@ -1,13 +1,372 @@
 package com.todo.rails.elite.starter.code.repository;
 
 import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.dto.DueDateCount;
+import com.todo.rails.elite.starter.code.model.dto.OwnerTaskVersion;
+import com.todo.rails.elite.starter.code.model.dto.TaskCounts;
+import com.todo.rails.elite.starter.code.model.dto.TaskResponse;
+import com.todo.rails.elite.starter.code.model.dto.TaskRow;
+import com.todo.rails.elite.starter.code.model.dto.TaskVersion;
+import com.todo.rails.elite.starter.code.model.dto.TaskText;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
-// Task Repository
+// Task Repository. Queries run in a read-only transaction unless they join the caller's; bulk statements need a writable one.
 @Repository
+@Transactional(readOnly = true)
 public interface TaskRepository extends JpaRepository<Task, Long> {
-	Optional<Task> findByTitle(String title);
+	/**
+	 * Number of rows the JDBC driver fetches per round-trip when streaming tasks.
+	 */
+	String STREAM_FETCH_SIZE = "500";
+
+	Optional<Task> findByOwnerIdAndTitle(Long ownerId, String title);
+
+	Optional<Task> findByIdAndOwnerId(Long id, Long ownerId);
+
+	boolean existsByIdAndOwnerId(Long id, Long ownerId);
+
+	@Query("select t.dueDate from Task t where t.id = :id and t.owner.id = :ownerId")
+	Optional<LocalDate> findDueDateByIdAndOwnerId(@Param("id") Long id, @Param("ownerId") Long ownerId);
+
+	@Query("""
+			select new com.todo.rails.elite.starter.code.model.dto.TaskResponse(
+				t.id, t.title, t.description, t.completed, t.dueDate, t.lastModified, t.version)
+			from Task t
+			where t.owner.id = :ownerId and t.id in :ids
+			""")
+	List<TaskResponse> findByOwnerIdAndIdIn(@Param("ownerId") Long ownerId, @Param("ids") Collection<Long> ids);
+
+	// Set-based duplicate check used by bulk imports instead of one lookup per row.
+	@Query("select t.title from Task t where t.owner.id = :ownerId and t.title in :titles")
+	Set<String> findExistingTitles(@Param("ownerId") Long ownerId, @Param("titles") Collection<String> titles);
+
+	List<Task> findByOwnerId(Long ownerId);
+
+	List<Task> findByOwnerIdAndCompleted(Long ownerId, boolean completed);
+
+	List<Task> findByOwnerIdAndCompletedAndDueDate(Long ownerId, boolean completed, LocalDate dueDate);
+
+	// Every owner-scoped query below is served by the (owner_id, completed, due_date) index. Listings select
+	// TaskResponse directly, so only its columns are read and no row becomes a managed entity. They are written
+	// out because a derived projection joins users to resolve owner.id instead of using the foreign key.
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+	@Query("""
+			select new com.todo.rails.elite.starter.code.model.dto.TaskResponse(
+				t.id, t.title, t.description, t.completed, t.dueDate, t.lastModified, t.version)
+			from Task t
+			where t.owner.id = :ownerId and t.completed = :completed
+			order by t.dueDate asc, t.id asc
+			""")
+	List<TaskResponse> findByOwnerIdAndCompletedOrderByDueDateAscIdAsc(
+			@Param("ownerId") Long ownerId,
+			@Param("completed") boolean completed,
+			Limit limit
+	);
+
+	// Keyset pagination: each page seeks past the last row of the previous one instead of using OFFSET.
+	@Query("""
+			select new com.todo.rails.elite.starter.code.model.dto.TaskResponse(
+				t.id, t.title, t.description, t.completed, t.dueDate, t.lastModified, t.version)
+			from Task t
+			where t.owner.id = :ownerId and t.id > :id
+			order by t.id asc
+			""")
+	List<TaskResponse> findByOwnerIdAndIdGreaterThanOrderByIdAsc(@Param("ownerId") Long ownerId, @Param("id") Long id, Limit limit);
+
+	@Query("""
+			select new com.todo.rails.elite.starter.code.model.dto.TaskResponse(
+				t.id, t.title, t.description, t.completed, t.dueDate, t.lastModified, t.version)
+			from Task t
+			where t.owner.id = :ownerId and t.completed = :completed and t.id > :id
+			order by t.id asc
+			""")
+	List<TaskResponse> findByOwnerIdAndCompletedAndIdGreaterThanOrderByIdAsc(
+			@Param("ownerId") Long ownerId,
+			@Param("completed") boolean completed,
+			@Param("id") Long id,
+			Limit limit
+	);
+
+	@Query("""
+			select new com.todo.rails.elite.starter.code.model.dto.TaskResponse(
+				t.id, t.title, t.description, t.completed, t.dueDate, t.lastModified, t.version)
+			from Task t
+			where t.owner.id = :ownerId and t.completed = :completed and t.dueDate = :dueDate and t.id > :id
+			order by t.id asc
+			""")
+	List<TaskResponse> findByOwnerIdAndCompletedAndDueDateAndIdGreaterThanOrderByIdAsc(
+			@Param("ownerId") Long ownerId,
+			@Param("completed") boolean completed,
+			@Param("dueDate") LocalDate dueDate,
+			@Param("id") Long id,
+			Limit limit
+	);
+
+	@Query("""
+			select new com.todo.rails.elite.starter.code.model.dto.TaskResponse(
+				t.id, t.title, t.description, t.completed, t.dueDate, t.lastModified, t.version)
+			from Task t
+			where t.owner.id = :ownerId
+				and t.completed = :completed
+				and (t.dueDate > :dueDate or (t.dueDate = :dueDate and t.id > :id))
+			order by t.dueDate asc, t.id asc
+			""")
+	List<TaskResponse> findByOwnerIdAndCompletedAfterDueDateAndId(
+			@Param("ownerId") Long ownerId,
+			@Param("completed") boolean completed,
+			@Param("dueDate") LocalDate dueDate,
+			@Param("id") Long id,
+			Limit limit
+	);
+
+	// Due-date windows (overdue, upcoming) read a slice of the same index range; "before" is exclusive.
+	@Query("""
+			select new com.todo.rails.elite.starter.code.model.dto.TaskResponse(
+				t.id, t.title, t.description, t.completed, t.dueDate, t.lastModified, t.version)
+			from Task t
+			where t.owner.id = :ownerId and t.completed = :completed and t.dueDate < :before
+			order by t.dueDate asc, t.id asc
+			""")
+	List<TaskResponse> findByOwnerIdAndCompletedAndDueDateBeforeOrderByDueDateAscIdAsc(
+			@Param("ownerId") Long ownerId,
+			@Param("completed") boolean completed,
+			@Param("before") LocalDate before,
+			Limit limit
+	);
+
+	@Query("""
+			select new com.todo.rails.elite.starter.code.model.dto.TaskResponse(
+				t.id, t.title, t.description, t.completed, t.dueDate, t.lastModified, t.version)
+			from Task t
+			where t.owner.id = :ownerId
+				and t.completed = :completed
+				and t.dueDate < :before
+				and (t.dueDate > :dueDate or (t.dueDate = :dueDate and t.id > :id))
+			order by t.dueDate asc, t.id asc
+			""")
+	List<TaskResponse> findByOwnerIdAndCompletedAndDueDateBeforeAfterDueDateAndId(
+			@Param("ownerId") Long ownerId,
+			@Param("completed") boolean completed,
+			@Param("before") LocalDate before,
+			@Param("dueDate") LocalDate dueDate,
+			@Param("id") Long id,
+			Limit limit
+	);
+
+	// Computes every dashboard counter in one pass over the owner's index range.
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+	@Query("""
+			select new com.todo.rails.elite.starter.code.model.dto.TaskCounts(
+				count(t),
+				coalesce(sum(case when t.completed = false then 1L else 0L end), 0L),
+				coalesce(sum(case when t.completed = true then 1L else 0L end), 0L),
+				coalesce(sum(case when t.completed = false and t.dueDate = :today then 1L else 0L end), 0L)
+			)
+			from Task t
+			where t.owner.id = :ownerId
+			""")
+	TaskCounts countByStatus(@Param("ownerId") Long ownerId, @Param("today") LocalDate today);
+
+	// Pending tasks per due date from a given day on, read from the owner's index range.
+	@Query("""
+			select new com.todo.rails.elite.starter.code.model.dto.DueDateCount(t.dueDate, count(t))
+			from Task t
+			where t.owner.id = :ownerId and t.completed = false and t.dueDate >= :from
+			group by t.dueDate
+			""")
+	List<DueDateCount> countPendingByDueDateFrom(@Param("ownerId") Long ownerId, @Param("from") LocalDate from);
+
+	// Version queries: the newest modification time and the row count of a listing, read from the index
+	// alone. The count changes when a task leaves the listing, which no remaining timestamp reflects.
+	// A single task's version carries its optimistic-locking version instead.
+	@Query("""
+			select new com.todo.rails.elite.starter.code.model.dto.TaskVersion(max(t.lastModified), count(t))
+			from Task t
+			where t.owner.id = :ownerId
+			""")
+	TaskVersion findVersionByOwnerId(@Param("ownerId") Long ownerId);
+
+	@Query("""
+			select new com.todo.rails.elite.starter.code.model.dto.TaskVersion(max(t.lastModified), count(t))
+			from Task t
+			where t.owner.id = :ownerId and t.completed = :completed
+			""")
+	TaskVersion findVersionByOwnerIdAndCompleted(@Param("ownerId") Long ownerId, @Param("completed") boolean completed);
+
+	@Query("""
+			select new com.todo.rails.elite.starter.code.model.dto.TaskVersion(max(t.lastModified), count(t))
+			from Task t
+			where t.owner.id = :ownerId and t.completed = :completed and t.dueDate = :dueDate
+			""")
+	TaskVersion findVersionByOwnerIdAndCompletedAndDueDate(
+			@Param("ownerId") Long ownerId,
+			@Param("completed") boolean completed,
+			@Param("dueDate") LocalDate dueDate
+	);
+
+	@Query("""
+			select new com.todo.rails.elite.starter.code.model.dto.TaskVersion(max(t.lastModified), count(t))
+			from Task t
+			where t.owner.id = :ownerId and t.completed = :completed and t.dueDate < :before
+			""")
+	TaskVersion findVersionByOwnerIdAndCompletedAndDueDateBefore(
+			@Param("ownerId") Long ownerId,
+			@Param("completed") boolean completed,
+			@Param("before") LocalDate before
+	);
+
+	@Query("""
+			select new com.todo.rails.elite.starter.code.model.dto.TaskVersion(max(t.lastModified), count(t))
+			from Task t
+			where t.owner.id = :ownerId and t.completed = :completed and t.dueDate > :after and t.dueDate < :before
+			""")
+	TaskVersion findVersionByOwnerIdAndCompletedAndDueDateAfterAndDueDateBefore(
+			@Param("ownerId") Long ownerId,
+			@Param("completed") boolean completed,
+			@Param("after") LocalDate after,
+			@Param("before") LocalDate before
+	);
+
+	// The version of every owner's listing of all tasks in one pass, to find the owners the read model has drifted on.
+	@Query("""
+			select new com.todo.rails.elite.starter.code.model.dto.OwnerTaskVersion(t.owner.id, max(t.lastModified), count(t))
+			from Task t
+			where t.owner is not null
+			group by t.owner.id
+			""")
+	List<OwnerTaskVersion> findVersionsGroupedByOwnerId();
+
+	@Query("""
+			select new com.todo.rails.elite.starter.code.model.dto.TaskVersion(t.lastModified, t.version)
+			from Task t
+			where t.id = :id and t.owner.id = :ownerId
+			""")
+	Optional<TaskVersion> findVersionByIdAndOwnerId(@Param("id") Long id, @Param("ownerId") Long ownerId);
+
+	// Streams the owner's tasks through a database cursor; must be consumed inside a transaction and closed.
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+	})
+	@Query("select t from Task t where t.owner.id = :ownerId order by t.id asc")
+	Stream<Task> streamByOwnerIdOrderByIdAsc(@Param("ownerId") Long ownerId);
+
+	// Streams only the searchable columns of every task, without hydrating entities, to build the search index.
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+	})
+	@Query("""
+			select new com.todo.rails.elite.starter.code.model.dto.TaskText(t.id, t.owner.id, t.title, t.description)
+			from Task t
+			where t.owner is not null
+			""")
+	Stream<TaskText> streamAllText();
+
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+	})
+	@Query("""
+			select new com.todo.rails.elite.starter.code.model.dto.TaskText(t.id, t.owner.id, t.title, t.description)
+			from Task t
+			where t.owner.id = :ownerId
+			""")
+	Stream<TaskText> streamTextByOwnerId(@Param("ownerId") Long ownerId);
+
+	// Streams the listed columns of every task in id order, without hydrating entities, to build the read model.
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+	})
+	@Query("""
+			select new com.todo.rails.elite.starter.code.model.dto.TaskRow(
+				t.id, t.owner.id, t.title, t.description, t.completed, t.dueDate, t.lastModified, t.version)
+			from Task t
+			where t.owner is not null
+			order by t.id asc
+			""")
+	Stream<TaskRow> streamAllRows();
+
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+	})
+	@Query("""
+			select new com.todo.rails.elite.starter.code.model.dto.TaskRow(
+				t.id, t.owner.id, t.title, t.description, t.completed, t.dueDate, t.lastModified, t.version)
+			from Task t
+			where t.owner.id = :ownerId
+			order by t.id asc
+			""")
+	Stream<TaskRow> streamRowsByOwnerId(@Param("ownerId") Long ownerId);
+
+	@Query("""
+			select new com.todo.rails.elite.starter.code.model.dto.TaskRow(
+				t.id, t.owner.id, t.title, t.description, t.completed, t.dueDate, t.lastModified, t.version)
+			from Task t
+			where t.owner.id = :ownerId and t.id in :ids
+			""")
+	List<TaskRow> findRowsByOwnerIdAndIdIn(@Param("ownerId") Long ownerId, @Param("ids") Collection<Long> ids);
+
+	// Bulk statements: each call is a single UPDATE or DELETE and returns the number of affected rows.
+	@Transactional
+	@Modifying(clearAutomatically = true)
+	@Query("""
+			update Task t set t.completed = true, t.lastModified = :now, t.version = t.version + 1
+			where t.owner.id = :ownerId and t.id in :ids and t.completed = false
+			""")
+	int completeByIdIn(@Param("ownerId") Long ownerId, @Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+	@Transactional
+	@Modifying(clearAutomatically = true)
+	@Query("""
+			update Task t set t.completed = false, t.lastModified = :now, t.version = t.version + 1
+			where t.owner.id = :ownerId and t.id in :ids and t.completed = true
+			""")
+	int uncompleteByIdIn(@Param("ownerId") Long ownerId, @Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+	@Transactional
+	@Modifying(clearAutomatically = true)
+	@Query("""
+			update Task t set t.completed = true, t.lastModified = :now, t.version = t.version + 1
+			where t.owner.id = :ownerId and t.completed = false and t.dueDate < :dueBefore
+			""")
+	int completeDueBefore(@Param("ownerId") Long ownerId, @Param("dueBefore") LocalDate dueBefore, @Param("now") Instant now);
+
+	@Transactional
+	@Modifying(clearAutomatically = true)
+	@Query("delete from Task t where t.owner.id = :ownerId and t.id in :ids")
+	int deleteByIdIn(@Param("ownerId") Long ownerId, @Param("ids") Collection<Long> ids);
+
+	@Transactional
+	@Modifying(clearAutomatically = true)
+	@Query("""
+			delete from Task t
+			where t.owner.id = :ownerId and t.completed = true and t.dueDate < :dueBefore
+			""")
+	int deleteCompletedDueBefore(@Param("ownerId") Long ownerId, @Param("dueBefore") LocalDate dueBefore);
+
+	// Removes every task of a user before the user itself is deleted.
+	@Transactional
+	@Modifying(clearAutomatically = true)
+	@Query("delete from Task t where t.owner.id = :ownerId")
+	int deleteByOwnerId(@Param("ownerId") Long ownerId);
 }
@@ -1,15 +1,38 @@
 package com.todo.rails.elite.starter.code.repository;
 
 import com.todo.rails.elite.starter.code.model.User;
+import com.todo.rails.elite.starter.code.model.dto.UserRole;
+import com.todo.rails.elite.starter.code.model.dto.UserSummary;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-// User Repository
+// User Repository. Queries run in a read-only transaction unless they join the caller's.
 @Repository
+@Transactional(readOnly = true)
 public interface UserRepository extends JpaRepository<User, Long> {
 	Optional<User> findByUsername(String username);
 
 	Optional<User> findByEmail(String email);
+
+	// Summaries select the public columns only, leaving the password hash and the roles collection unread.
+	Optional<UserSummary> findSummaryById(Long id);
+
+	Optional<UserSummary> findSummaryByUsername(String username);
+
+	Optional<UserSummary> findSummaryByEmail(String email);
+
+	List<UserSummary> findAllSummariesByOrderByIdAsc();
+
+	@Query("select new com.todo.rails.elite.starter.code.model.dto.UserRole(u.id, r) from User u join u.roles r where u.id in :ids")
+	List<UserRole> findRolesByUserIdIn(@Param("ids") Collection<Long> ids);
+
+	@Query("select new com.todo.rails.elite.starter.code.model.dto.UserRole(u.id, r) from User u join u.roles r")
+	List<UserRole> findAllRoles();
 }
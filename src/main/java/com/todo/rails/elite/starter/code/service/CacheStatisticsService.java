@@ -0,0 +1,76 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.todo.rails.elite.starter.code.model.dto.CacheStatistics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.cache.spi.QueryResultsRegion;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Service Layer: CacheStatisticsService. Reports hit/miss counters of the Spring caches and the Hibernate second-level cache.
+@Service
+public class CacheStatisticsService {
+	private final CacheManager cacheManager;
+	private final EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	public CacheStatisticsService(CacheManager cacheManager, EntityManagerFactory entityManagerFactory) {
+		this.cacheManager = cacheManager;
+		this.entityManagerFactory = entityManagerFactory;
+	}
+
+	// This method returns the statistics of every Spring-managed cache.
+	public List<CacheStatistics> getApplicationCacheStatistics() {
+		List<CacheStatistics> statistics = new ArrayList<>();
+		for (String name : cacheManager.getCacheNames()) {
+			Cache cache = cacheManager.getCache(name);
+			if (cache instanceof CaffeineCache caffeineCache) {
+				CacheStats stats = caffeineCache.getNativeCache().stats();
+				statistics.add(CacheStatistics.of(
+						name,
+						stats.hitCount(),
+						stats.missCount(),
+						stats.evictionCount(),
+						caffeineCache.getNativeCache().estimatedSize()
+				));
+			}
+		}
+		return statistics;
+	}
+
+	// This method returns the statistics of the Hibernate regions, including the query results region.
+	public List<CacheStatistics> getSecondLevelCacheStatistics() {
+		SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+		Statistics hibernateStatistics = sessionFactory.getStatistics();
+		CacheImplementor cache = sessionFactory.getCache().unwrap(CacheImplementor.class);
+		List<CacheStatistics> statistics = new ArrayList<>();
+		for (String region : hibernateStatistics.getSecondLevelCacheRegionNames()) {
+			// The query results region is not a domain data region, which Hibernate may refuse to report on.
+			CacheRegionStatistics regionStatistics = cache.getRegion(region) instanceof QueryResultsRegion
+					? hibernateStatistics.getQueryRegionStatistics(region)
+					: hibernateStatistics.getDomainDataRegionStatistics(region);
+			if (regionStatistics == null) {
+				continue;
+			}
+			statistics.add(CacheStatistics.of(
+					region,
+					regionStatistics.getHitCount(),
+					regionStatistics.getMissCount(),
+					0,
+					// Regions that cannot report their size return Long.MIN_VALUE.
+					Math.max(regionStatistics.getElementCountInMemory(), -1)
+			));
+		}
+		return statistics;
+	}
+}
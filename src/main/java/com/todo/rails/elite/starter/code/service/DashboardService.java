@@ -0,0 +1,42 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.model.dto.DashboardSummary;
+import com.todo.rails.elite.starter.code.model.dto.TaskCounts;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+// Service Layer: DashboardService. Builds the dashboard and profile summaries with a fixed number of queries; the
+// counters come from memory.
+@Service
+public class DashboardService {
+	private final TaskRepository taskRepository;
+	private final TaskCounterService taskCounterService;
+	private final int listSize;
+
+	@Autowired
+	public DashboardService(
+			TaskRepository taskRepository,
+			TaskCounterService taskCounterService,
+			@Value("${todo.dashboard.list-size:50}") int listSize
+	) {
+		this.taskRepository = taskRepository;
+		this.taskCounterService = taskCounterService;
+		this.listSize = listSize;
+	}
+
+	// This method returns all of the owner's dashboard counters, maintained in memory by TaskCounterService.
+	public TaskCounts getTaskCounts(Long ownerId) {
+		return taskCounterService.getTaskCounts(ownerId);
+	}
+
+	// This method returns the owner's dashboard counters plus a bounded list of their pending tasks.
+	public DashboardSummary getSummary(Long ownerId) {
+		return new DashboardSummary(
+				getTaskCounts(ownerId),
+				taskRepository.findByOwnerIdAndCompletedOrderByDueDateAscIdAsc(ownerId, false, Limit.of(listSize))
+		);
+	}
+}
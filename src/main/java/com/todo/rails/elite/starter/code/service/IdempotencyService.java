@@ -0,0 +1,84 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+// Service Layer: IdempotencyService. Remembers the outcome of requests sent with an idempotency key, so a client can retry them safely.
+@Service
+public class IdempotencyService {
+	/**
+	 * Request header carrying the client-chosen idempotency key.
+	 */
+	public static final String HEADER = "Idempotency-Key";
+	/**
+	 * Longest idempotency key accepted.
+	 */
+	public static final int MAX_KEY_LENGTH = 255;
+
+	// Keyed by owner, operation and idempotency key; the future holds the first attempt's result once it finishes.
+	private final Cache<String, CompletableFuture<Object>> outcomes;
+
+	@Autowired
+	public IdempotencyService(
+			@Value("${todo.idempotency.maximum-size:100000}") long maximumSize,
+			@Value("${todo.idempotency.ttl:24h}") Duration ttl,
+			MeterRegistry meterRegistry
+	) {
+		this.outcomes = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(ttl)
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, outcomes, "idempotencyKeys");
+	}
+
+	// This method runs the action once per owner, operation and key: repeats get the first attempt's result, waiting
+	// for it if that attempt is still running. A failed attempt is forgotten so it can be retried. Without a key the
+	// action simply runs.
+	@SuppressWarnings("unchecked")
+	public <T> T execute(Long ownerId, String operation, String key, Supplier<T> action) {
+		if (key == null || key.isBlank()) {
+			return action.get();
+		}
+		if (key.length() > MAX_KEY_LENGTH) {
+			throw new IllegalArgumentException("Idempotency key is longer than " + MAX_KEY_LENGTH + " characters");
+		}
+		String outcomeKey = ownerId + ":" + operation + ":" + key;
+		CompletableFuture<Object> outcome = new CompletableFuture<>();
+		CompletableFuture<Object> firstOutcome = outcomes.asMap().putIfAbsent(outcomeKey, outcome);
+		if (firstOutcome != null) {
+			return (T) await(firstOutcome);
+		}
+		try {
+			T result = action.get();
+			outcome.complete(result);
+			return result;
+		} catch (RuntimeException exception) {
+			outcomes.asMap().remove(outcomeKey, outcome);
+			outcome.completeExceptionally(exception);
+			throw exception;
+		}
+	}
+
+	private static Object await(CompletableFuture<Object> outcome) {
+		try {
+			return outcome.join();
+		} catch (CompletionException exception) {
+			// Concurrent repeats of a failed attempt fail the same way.
+			if (exception.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw exception;
+		}
+	}
+}
@@ -0,0 +1,320 @@
+package com.todo.rails.elite.starter.code.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Service Layer: TaskCompletionService. Marks tasks completed or not, either directly or through a write-behind queue.
+//
+// In write-behind mode (todo.write-behind.enabled) a request is acknowledged once it is queued. Requests for the same
+// task are coalesced, the last one winning, and the queue is written with bulk UPDATEs every flush interval, whenever
+// it reaches the batch size and on shutdown. Until then, reads still return the previous state, and ids the owner does
+// not have are silently skipped. With a journal path, each request is also appended to that file before it is
+// acknowledged, and requests that were never written are replayed from it on startup.
+@Service
+public class TaskCompletionService {
+	private static final Logger logger = LoggerFactory.getLogger(TaskCompletionService.class);
+
+	private final TaskService taskService;
+	private final boolean writeBehind;
+	private final Duration flushInterval;
+	private final int batchSize;
+	private final Path journalPath;
+	private final Path flushingJournalPath;
+	private final boolean journalSync;
+	private final Counter flushedChanges;
+	// Guards the pending changes and the journal; flushLock keeps flushes from overlapping.
+	private final ReentrantLock lock = new ReentrantLock();
+	private final ReentrantLock flushLock = new ReentrantLock();
+	private final AtomicBoolean flushRequested = new AtomicBoolean();
+	private Map<Change, Boolean> pending = new LinkedHashMap<>();
+	private FileChannel journal;
+	private ScheduledExecutorService flusher;
+
+	@Autowired
+	public TaskCompletionService(
+			TaskService taskService,
+			MeterRegistry meterRegistry,
+			@Value("${todo.write-behind.enabled:false}") boolean writeBehind,
+			@Value("${todo.write-behind.flush-interval:500ms}") Duration flushInterval,
+			@Value("${todo.write-behind.batch-size:1000}") int batchSize,
+			@Value("${todo.write-behind.journal-path:}") String journalPath,
+			@Value("${todo.write-behind.journal-sync:false}") boolean journalSync
+	) {
+		this.taskService = taskService;
+		this.writeBehind = writeBehind;
+		this.flushInterval = flushInterval;
+		this.batchSize = batchSize;
+		this.journalPath = journalPath.isBlank() ? null : Path.of(journalPath);
+		this.flushingJournalPath = this.journalPath == null ? null : this.journalPath.resolveSibling(this.journalPath.getFileName() + ".flushing");
+		this.journalSync = journalSync;
+		this.flushedChanges = Counter.builder("todo.write-behind.flushed")
+				.description("Task completion changes written to the database by the write-behind queue")
+				.register(meterRegistry);
+		Gauge.builder("todo.write-behind.pending", this, TaskCompletionService::pendingCount)
+				.description("Task completion changes waiting in the write-behind queue")
+				.register(meterRegistry);
+	}
+
+	@PostConstruct
+	void start() throws IOException {
+		if (!writeBehind) {
+			return;
+		}
+		if (journalPath != null) {
+			replayJournal();
+			journal = openJournal();
+		}
+		flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("task-write-behind").daemon().factory());
+		flusher.scheduleWithFixedDelay(this::flushQuietly, flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	void stop() throws InterruptedException, IOException {
+		if (!writeBehind) {
+			return;
+		}
+		flusher.shutdown();
+		flusher.awaitTermination(30, TimeUnit.SECONDS);
+		// Changes that cannot be written now stay in the journal for the next start.
+		flushQuietly();
+		if (journal != null) {
+			journal.close();
+		}
+	}
+
+	// This method marks one of the owner's tasks as completed.
+	public void complete(Long ownerId, Long id) {
+		submit(ownerId, id, true);
+	}
+
+	// This method marks one of the owner's tasks as not completed.
+	public void uncomplete(Long ownerId, Long id) {
+		submit(ownerId, id, false);
+	}
+
+	// This method writes every queued change to the database.
+	public void flush() {
+		if (!writeBehind) {
+			return;
+		}
+		flushLock.lock();
+		try {
+			flushRequested.set(false);
+			Map<Change, Boolean> batch;
+			lock.lock();
+			try {
+				if (pending.isEmpty()) {
+					return;
+				}
+				rotateJournal();
+				batch = pending;
+				pending = new LinkedHashMap<>();
+			} finally {
+				lock.unlock();
+			}
+			try {
+				write(batch);
+			} catch (RuntimeException exception) {
+				requeue(batch);
+				throw exception;
+			}
+			deleteFlushingJournal();
+			flushedChanges.increment(batch.size());
+		} finally {
+			flushLock.unlock();
+		}
+	}
+
+	// Number of changes waiting to be written.
+	public int pendingCount() {
+		lock.lock();
+		try {
+			return pending.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void submit(Long ownerId, Long id, boolean completed) {
+		if (!writeBehind) {
+			if (completed) {
+				taskService.completeTask(ownerId, id);
+			} else {
+				taskService.uncompleteTask(ownerId, id);
+			}
+			return;
+		}
+		boolean full;
+		lock.lock();
+		try {
+			Change change = new Change(ownerId, id);
+			appendToJournal(change, completed);
+			pending.put(change, completed);
+			full = pending.size() >= batchSize;
+		} finally {
+			lock.unlock();
+		}
+		if (full && flushRequested.compareAndSet(false, true)) {
+			flusher.execute(this::flushQuietly);
+		}
+	}
+
+	private void flushQuietly() {
+		try {
+			flush();
+		} catch (RuntimeException exception) {
+			logger.error("Error flushing {} queued task completion changes", pendingCount(), exception);
+		}
+	}
+
+	// One bulk statement per owner and target state. Repeating a write is harmless: each UPDATE only matches rows
+	// that do not have the target state yet.
+	private void write(Map<Change, Boolean> batch) {
+		Map<Long, Map<Boolean, List<Long>>> idsByOwner = new HashMap<>();
+		batch.forEach((change, completed) -> idsByOwner
+				.computeIfAbsent(change.ownerId(), ignored -> new HashMap<>())
+				.computeIfAbsent(completed, ignored -> new ArrayList<>())
+				.add(change.taskId()));
+		idsByOwner.forEach((ownerId, idsByState) ->
+				idsByState.forEach((completed, ids) -> taskService.setCompleted(ownerId, ids, completed)));
+	}
+
+	// Puts a batch that could not be written back in the queue, unless a newer change for the same task arrived
+	// meanwhile. Requeued changes are appended to the journal again so that its previous file can go.
+	private void requeue(Map<Change, Boolean> batch) {
+		lock.lock();
+		try {
+			batch.forEach((change, completed) -> {
+				if (pending.putIfAbsent(change, completed) == null) {
+					appendToJournal(change, completed);
+				}
+			});
+		} finally {
+			lock.unlock();
+		}
+		deleteFlushingJournal();
+	}
+
+	// Journal: one "ownerId taskId completed" line per request, appended in order, so the last line for a task wins.
+
+	private void appendToJournal(Change change, boolean completed) {
+		if (journal == null) {
+			return;
+		}
+		byte[] line = (change.ownerId() + " " + change.taskId() + " " + (completed ? 1 : 0) + "\n").getBytes(StandardCharsets.US_ASCII);
+		try {
+			journal.write(ByteBuffer.wrap(line));
+			if (journalSync) {
+				journal.force(false);
+			}
+		} catch (IOException exception) {
+			throw new UncheckedIOException("Could not append to the task completion journal", exception);
+		}
+	}
+
+	// The journal being flushed is kept aside until its changes are in the database; new requests go to a fresh file.
+	private void rotateJournal() {
+		if (journal == null) {
+			return;
+		}
+		try {
+			journal.close();
+			try {
+				Files.move(journalPath, flushingJournalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} finally {
+				journal = openJournal();
+			}
+		} catch (IOException exception) {
+			throw new UncheckedIOException("Could not rotate the task completion journal", exception);
+		}
+	}
+
+	private void deleteFlushingJournal() {
+		if (journal == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(flushingJournalPath);
+		} catch (IOException exception) {
+			logger.warn("Could not delete {}; its changes may be written again on the next start", flushingJournalPath, exception);
+		}
+	}
+
+	private void replayJournal() throws IOException {
+		// An interrupted flush left older changes aside, so they are read before the current journal.
+		readJournal(flushingJournalPath);
+		readJournal(journalPath);
+		if (pending.isEmpty()) {
+			Files.deleteIfExists(journalPath);
+		} else {
+			logger.info("Replaying {} task completion changes from {}", pending.size(), journalPath);
+			// The coalesced changes become the new journal, replacing both files.
+			Path compacted = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+			StringBuilder lines = new StringBuilder();
+			pending.forEach((change, completed) ->
+					lines.append(change.ownerId()).append(' ').append(change.taskId()).append(' ').append(completed ? 1 : 0).append('\n'));
+			Files.writeString(compacted, lines, StandardCharsets.US_ASCII);
+			Files.move(compacted, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		Files.deleteIfExists(flushingJournalPath);
+	}
+
+	private void readJournal(Path path) throws IOException {
+		if (!Files.exists(path)) {
+			return;
+		}
+		try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.US_ASCII)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] fields = line.split(" ");
+				// A crash can leave the last line incomplete; it was never acknowledged.
+				if (fields.length != 3 || !(fields[2].equals("0") || fields[2].equals("1"))) {
+					logger.warn("Skipping malformed task completion journal line: {}", line);
+					continue;
+				}
+				try {
+					pending.put(new Change(Long.valueOf(fields[0]), Long.valueOf(fields[1])), fields[2].equals("1"));
+				} catch (NumberFormatException exception) {
+					logger.warn("Skipping malformed task completion journal line: {}", line);
+				}
+			}
+		}
+	}
+
+	private FileChannel openJournal() throws IOException {
+		return FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+	}
+
+	private record Change(Long ownerId, Long taskId) {
+	}
+}
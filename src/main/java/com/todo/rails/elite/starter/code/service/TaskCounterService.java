@@ -0,0 +1,277 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.todo.rails.elite.starter.code.model.dto.DueDateCount;
+import com.todo.rails.elite.starter.code.model.dto.TaskCounts;
+import com.todo.rails.elite.starter.code.model.dto.TaskSnapshot;
+import com.todo.rails.elite.starter.code.model.event.TaskChangedEvent;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Service Layer: TaskCounterService. Keeps each active owner's dashboard counters in memory and updates them as tasks change.
+//
+// An owner's counters are loaded from the database on first read and then maintained from committed TaskChangedEvents:
+// single-task changes adjust them in place, bulk changes (which do not say which tasks changed) drop them so the next
+// read loads them again. Pending tasks are also counted per due date from today on, so "due today" is a lookup of
+// today's bucket; past buckets are discarded after midnight. Reads never touch the database once loaded. Counters are
+// reconciled with the database periodically, which corrects any drift, e.g. from a change that committed while the
+// owner's counters were being loaded.
+@Service
+public class TaskCounterService {
+	private static final Logger logger = LoggerFactory.getLogger(TaskCounterService.class);
+	// Orders event handling against loads; reads and increments take no lock.
+	private static final int LOCK_STRIPES = 64;
+
+	private final TaskRepository taskRepository;
+	private final Duration reconcileInterval;
+	private final Cache<Long, OwnerCounters> owners;
+	private final Map<Long, Load> loads = new ConcurrentHashMap<>();
+	private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+	private final Counter driftCorrections;
+	private ScheduledExecutorService scheduler;
+
+	@Autowired
+	public TaskCounterService(
+			TaskRepository taskRepository,
+			MeterRegistry meterRegistry,
+			@Value("${todo.counters.maximum-owners:10000}") long maximumOwners,
+			@Value("${todo.counters.expire-after-access:1h}") Duration expireAfterAccess,
+			@Value("${todo.counters.reconcile-interval:5m}") Duration reconcileInterval
+	) {
+		this.taskRepository = taskRepository;
+		this.reconcileInterval = reconcileInterval;
+		this.owners = Caffeine.newBuilder()
+				.maximumSize(maximumOwners)
+				.expireAfterAccess(expireAfterAccess)
+				.build();
+		for (int i = 0; i < LOCK_STRIPES; i++) {
+			locks[i] = new ReentrantLock();
+		}
+		this.driftCorrections = Counter.builder("todo.counters.drift")
+				.description("Owners whose in-memory task counters differed from the database when reconciled")
+				.register(meterRegistry);
+		Gauge.builder("todo.counters.owners", owners, Cache::estimatedSize)
+				.description("Owners whose task counters are held in memory")
+				.register(meterRegistry);
+	}
+
+	@PostConstruct
+	void start() {
+		scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("task-counters").daemon().factory());
+		scheduler.scheduleWithFixedDelay(this::reconcileQuietly, reconcileInterval.toMillis(), reconcileInterval.toMillis(), TimeUnit.MILLISECONDS);
+		scheduleRollOver();
+	}
+
+	@PreDestroy
+	void stop() {
+		scheduler.shutdownNow();
+	}
+
+	// This method returns the owner's dashboard counters, loading them from the database if they are not held yet.
+	public TaskCounts getTaskCounts(Long ownerId) {
+		LocalDate today = LocalDate.now();
+		OwnerCounters counters = owners.getIfPresent(ownerId);
+		if (counters == null) {
+			counters = load(ownerId, today, false);
+		}
+		return counters.toTaskCounts(today);
+	}
+
+	// This method applies a committed task change to the owner's counters, ahead of the listeners that read them.
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onTaskChanged(TaskChangedEvent event) {
+		Long ownerId = event.ownerId();
+		LocalDate today = LocalDate.now();
+		// Completion toggles only change the flag; the due date decides whether "due today" changes too.
+		LocalDate toggledDueDate = null;
+		if ((event.type() == TaskChangedEvent.Type.COMPLETED || event.type() == TaskChangedEvent.Type.REOPENED)
+				&& owners.getIfPresent(ownerId) != null) {
+			toggledDueDate = taskRepository.findDueDateByIdAndOwnerId(event.taskIds().getFirst(), ownerId).orElse(null);
+		}
+		ReentrantLock lock = lockFor(ownerId);
+		lock.lock();
+		try {
+			Load load = loads.get(ownerId);
+			if (load != null) {
+				// A load in progress may have read the database before this change committed.
+				load.stale = true;
+			}
+			OwnerCounters counters = owners.getIfPresent(ownerId);
+			if (counters == null) {
+				return;
+			}
+			switch (event.type()) {
+				case CREATED, UPDATED, DELETED -> {
+					counters.add(event.previous(), -1, today);
+					counters.add(event.current(), 1, today);
+				}
+				case COMPLETED, REOPENED -> {
+					if (toggledDueDate == null) {
+						owners.invalidate(ownerId);
+					} else {
+						boolean completed = event.type() == TaskChangedEvent.Type.COMPLETED;
+						Long taskId = event.taskIds().getFirst();
+						counters.add(new TaskSnapshot(taskId, null, null, !completed, toggledDueDate), -1, today);
+						counters.add(new TaskSnapshot(taskId, null, null, completed, toggledDueDate), 1, today);
+					}
+				}
+				case BULK_COMPLETED, BULK_REOPENED, BULK_DELETED, IMPORTED -> owners.invalidate(ownerId);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// This method reloads every held owner's counters from the database and returns how many had drifted.
+	public int reconcile() {
+		LocalDate today = LocalDate.now();
+		int drifted = 0;
+		for (Map.Entry<Long, OwnerCounters> entry : owners.asMap().entrySet()) {
+			TaskCounts held = entry.getValue().toTaskCounts(today);
+			TaskCounts loaded = load(entry.getKey(), today, true).toTaskCounts(today);
+			if (!held.equals(loaded)) {
+				drifted++;
+				logger.debug("Corrected task counters of owner {} from {} to {}", entry.getKey(), held, loaded);
+			}
+		}
+		driftCorrections.increment(drifted);
+		return drifted;
+	}
+
+	// This method discards the due-date buckets of days before today, which are never read again.
+	void rollOver(LocalDate today) {
+		owners.asMap().values().forEach(counters -> counters.pendingByDueDate.keySet().removeIf(today::isAfter));
+	}
+
+	// Reads the owner's counters from the database. They are kept only when no change for the owner committed during
+	// the read and, unless replacing, no other load got there first; otherwise the next read loads them again.
+	private OwnerCounters load(Long ownerId, LocalDate today, boolean replace) {
+		Load load = new Load();
+		ReentrantLock lock = lockFor(ownerId);
+		lock.lock();
+		try {
+			OwnerCounters existing = owners.getIfPresent(ownerId);
+			if (existing != null && !replace) {
+				return existing;
+			}
+			loads.put(ownerId, load);
+		} finally {
+			lock.unlock();
+		}
+		OwnerCounters counters;
+		try {
+			counters = new OwnerCounters(
+					taskRepository.countByStatus(ownerId, today),
+					taskRepository.countPendingByDueDateFrom(ownerId, today)
+			);
+		} catch (RuntimeException exception) {
+			loads.remove(ownerId, load);
+			throw exception;
+		}
+		lock.lock();
+		try {
+			if (loads.remove(ownerId, load) && !load.stale) {
+				owners.put(ownerId, counters);
+			} else if (replace) {
+				owners.invalidate(ownerId);
+			}
+		} finally {
+			lock.unlock();
+		}
+		return counters;
+	}
+
+	private ReentrantLock lockFor(Long ownerId) {
+		return locks[Math.floorMod(ownerId.hashCode(), LOCK_STRIPES)];
+	}
+
+	private void reconcileQuietly() {
+		try {
+			reconcile();
+		} catch (RuntimeException exception) {
+			logger.error("Error reconciling task counters", exception);
+		}
+	}
+
+	// Runs once just after each midnight, rescheduling itself so that clock changes do not shift it.
+	private void scheduleRollOver() {
+		LocalDateTime now = LocalDateTime.now();
+		long delay = Duration.between(now, LocalDate.now().plusDays(1).atTime(LocalTime.MIDNIGHT)).toMillis() + 1;
+		scheduler.schedule(() -> {
+			try {
+				rollOver(LocalDate.now());
+			} catch (RuntimeException exception) {
+				logger.error("Error rolling task counters over to a new day", exception);
+			} finally {
+				scheduleRollOver();
+			}
+		}, delay, TimeUnit.MILLISECONDS);
+	}
+
+	// Marks a load in progress; a change committed meanwhile makes its result stale.
+	private static final class Load {
+		private volatile boolean stale;
+	}
+
+	// One owner's counters. Completed tasks are counted once; pending ones also in the bucket of their due date.
+	private static final class OwnerCounters {
+		private final LongAdder pending = new LongAdder();
+		private final LongAdder completed = new LongAdder();
+		private final Map<LocalDate, LongAdder> pendingByDueDate = new ConcurrentHashMap<>();
+
+		private OwnerCounters(TaskCounts counts, Iterable<DueDateCount> pendingByDueDate) {
+			pending.add(counts.pending());
+			completed.add(counts.completed());
+			for (DueDateCount dueDateCount : pendingByDueDate) {
+				this.pendingByDueDate.computeIfAbsent(dueDateCount.dueDate(), ignored -> new LongAdder()).add(dueDateCount.count());
+			}
+		}
+
+		private void add(TaskSnapshot task, int delta, LocalDate today) {
+			if (task == null) {
+				return;
+			}
+			if (task.completed()) {
+				completed.add(delta);
+				return;
+			}
+			pending.add(delta);
+			if (task.dueDate() != null && !task.dueDate().isBefore(today)) {
+				pendingByDueDate.computeIfAbsent(task.dueDate(), ignored -> new LongAdder()).add(delta);
+			}
+		}
+
+		private TaskCounts toTaskCounts(LocalDate today) {
+			long pendingCount = pending.sum();
+			long completedCount = completed.sum();
+			LongAdder pendingToday = pendingByDueDate.get(today);
+			return new TaskCounts(pendingCount + completedCount, pendingCount, completedCount, pendingToday != null ? pendingToday.sum() : 0);
+		}
+	}
+}
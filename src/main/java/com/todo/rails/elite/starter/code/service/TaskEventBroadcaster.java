@@ -0,0 +1,290 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.model.dto.TaskCounts;
+import com.todo.rails.elite.starter.code.model.dto.TaskSnapshot;
+import com.todo.rails.elite.starter.code.model.dto.TaskStreamEvent;
+import com.todo.rails.elite.starter.code.model.event.TaskChangedEvent;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Service Layer: TaskEventBroadcaster. Pushes committed task changes to the owner's open dashboards as Server-Sent Events.
+@Service
+public class TaskEventBroadcaster {
+	/**
+	 * Event carrying the owner's absolute dashboard counters.
+	 */
+	public static final String COUNTS_EVENT = "counts";
+	private static final Logger logger = LoggerFactory.getLogger(TaskEventBroadcaster.class);
+
+	private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+	private final TaskRepository taskRepository;
+	private final DashboardService dashboardService;
+	private final Executor executor;
+	private final int bufferSize;
+	private final Counter droppedEvents;
+
+	/**
+	 * Creates the broadcaster with its own sender threads, kept apart from the application task executor so
+	 * that slow clients cannot hold up {@code @Async} work.
+	 *
+	 * <p>A sender thread stays busy while it writes to a subscriber, which takes as long as that client
+	 * takes to read. With virtual threads every drain gets its own virtual thread; at most one drain runs
+	 * per subscriber, so their number is bounded by the open streams. Otherwise a fixed pool of
+	 * <code>todo.events.sender-threads</code> platform threads serves all subscribers; size it to the
+	 * number of clients that may be slow at the same time. Its queue holds at most one waiting drain per
+	 * subscriber.</p>
+	 */
+	@Autowired
+	public TaskEventBroadcaster(
+			TaskRepository taskRepository,
+			DashboardService dashboardService,
+			MeterRegistry meterRegistry,
+			@Value("${todo.events.buffer-size:256}") int bufferSize,
+			@Value("${todo.events.sender-threads:8}") int senderThreads,
+			@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+	) {
+		this(taskRepository, dashboardService, senderExecutor(senderThreads, virtualThreads, meterRegistry), meterRegistry, bufferSize);
+	}
+
+	TaskEventBroadcaster(
+			TaskRepository taskRepository,
+			DashboardService dashboardService,
+			Executor executor,
+			MeterRegistry meterRegistry,
+			int bufferSize
+	) {
+		this.taskRepository = taskRepository;
+		this.dashboardService = dashboardService;
+		this.executor = executor;
+		this.bufferSize = bufferSize;
+		this.droppedEvents = Counter.builder("todo.events.dropped")
+				.description("Task events discarded because a subscriber fell behind")
+				.register(meterRegistry);
+		Gauge.builder("todo.events.subscribers", subscribers, map -> map.values().stream().mapToInt(Set::size).sum())
+				.description("Open task event streams")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Opens a stream of the owner's task changes. The first event carries the current counters.
+	 */
+	public SseEmitter subscribe(Long ownerId) {
+		return subscribe(ownerId, new SseEmitter());
+	}
+
+	SseEmitter subscribe(Long ownerId, SseEmitter emitter) {
+		Subscriber subscriber = new Subscriber(ownerId, emitter);
+		subscribers.computeIfAbsent(ownerId, ignored -> ConcurrentHashMap.newKeySet()).add(subscriber);
+		emitter.onCompletion(subscriber::close);
+		emitter.onTimeout(subscriber::close);
+		emitter.onError(exception -> subscriber.close());
+		subscriber.offer(Message.COUNTS);
+		return emitter;
+	}
+
+	// This method turns each committed task change into an event for the owner's subscribers.
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onTaskChanged(TaskChangedEvent event) {
+		Set<Subscriber> ownerSubscribers = subscribers.get(event.ownerId());
+		if (ownerSubscribers == null || ownerSubscribers.isEmpty()) {
+			return;
+		}
+		Message message = toMessage(event);
+		ownerSubscribers.forEach(subscriber -> subscriber.offer(message));
+	}
+
+	@PreDestroy
+	public void completeAll() {
+		// Lets the server shut down without waiting for open streams to time out.
+		subscribers.values().forEach(ownerSubscribers -> ownerSubscribers.forEach(subscriber -> subscriber.emitter.complete()));
+		if (executor instanceof ExecutorService executorService) {
+			executorService.shutdownNow();
+		}
+	}
+
+	private static ExecutorService senderExecutor(int threads, boolean virtualThreads, MeterRegistry meterRegistry) {
+		ExecutorService executor = virtualThreads
+				? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-events-", 1).factory())
+				: Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("task-events-", 1).daemon().factory());
+		return ExecutorServiceMetrics.monitor(meterRegistry, executor, "taskEvents");
+	}
+
+	private Message toMessage(TaskChangedEvent event) {
+		LocalDate today = LocalDate.now();
+		return switch (event.type()) {
+			case CREATED, UPDATED -> taskMessage(
+					event,
+					countsOf(event.current(), today).minus(countsOf(event.previous(), today))
+			);
+			case DELETED -> taskMessage(event, Counts.NONE.minus(countsOf(event.previous(), today)));
+			case COMPLETED, REOPENED -> {
+				// The UPDATE only matches rows with the opposite flag, so only the flag changed; the due date decides "today".
+				Long taskId = event.taskIds().getFirst();
+				boolean completed = event.type() == TaskChangedEvent.Type.COMPLETED;
+				yield taskRepository.findDueDateByIdAndOwnerId(taskId, event.ownerId())
+						.map(dueDate -> taskMessage(
+								event,
+								countsOf(new TaskSnapshot(taskId, null, null, completed, dueDate), today)
+										.minus(countsOf(new TaskSnapshot(taskId, null, null, !completed, dueDate), today))
+						))
+						.orElse(Message.COUNTS);
+			}
+			// Bulk changes do not report which tasks changed, so subscribers get fresh counters instead.
+			case BULK_COMPLETED, BULK_REOPENED, BULK_DELETED, IMPORTED -> Message.COUNTS;
+		};
+	}
+
+	// Event names are the lower-case change types: created, updated, completed, reopened and deleted.
+	private static Message taskMessage(TaskChangedEvent event, Counts change) {
+		TaskStreamEvent payload = new TaskStreamEvent(event.taskIds().getFirst(), event.current(), change.toTaskCounts(), null);
+		return new Message(event.type().name().toLowerCase(Locale.ROOT), payload);
+	}
+
+	// How much one task contributes to each dashboard counter.
+	private static Counts countsOf(TaskSnapshot task, LocalDate today) {
+		if (task == null) {
+			return Counts.NONE;
+		}
+		boolean pending = !task.completed();
+		return new Counts(1, pending ? 1 : 0, pending ? 0 : 1, pending && today.equals(task.dueDate()) ? 1 : 0);
+	}
+
+	private record Counts(long total, long pending, long completed, long pendingToday) {
+		private static final Counts NONE = new Counts(0, 0, 0, 0);
+
+		private Counts minus(Counts other) {
+			return new Counts(
+					total - other.total,
+					pending - other.pending,
+					completed - other.completed,
+					pendingToday - other.pendingToday
+			);
+		}
+
+		private TaskCounts toTaskCounts() {
+			return new TaskCounts(total, pending, completed, pendingToday);
+		}
+	}
+
+	// An event waiting to be sent. Every event gets the owner's counters as they are when it is sent; COUNTS carries nothing else.
+	private record Message(String name, TaskStreamEvent event) {
+		private static final Message COUNTS = new Message(COUNTS_EVENT, null);
+	}
+
+	// One open stream. Events are queued here and written by a single drain task at a time, so a
+	// slow client never blocks the thread that published the change.
+	private final class Subscriber {
+		private final Long ownerId;
+		private final SseEmitter emitter;
+		private final ArrayDeque<Message> queue = new ArrayDeque<>();
+		private final ReentrantLock lock = new ReentrantLock();
+		private boolean draining;
+		private boolean closed;
+
+		private Subscriber(Long ownerId, SseEmitter emitter) {
+			this.ownerId = ownerId;
+			this.emitter = emitter;
+		}
+
+		private void offer(Message message) {
+			boolean startDrain;
+			lock.lock();
+			try {
+				// Queued counters are read when sent, so they already include this change.
+				if (closed || queue.peekLast() == Message.COUNTS) {
+					return;
+				}
+				if (message == Message.COUNTS || queue.size() >= bufferSize) {
+					// Fresh counters supersede the backlog; a subscriber that fell behind gets them instead.
+					if (message != Message.COUNTS) {
+						droppedEvents.increment(queue.size() + 1);
+					}
+					queue.clear();
+					queue.add(Message.COUNTS);
+				} else {
+					queue.add(message);
+				}
+				startDrain = !draining;
+				draining = true;
+			} finally {
+				lock.unlock();
+			}
+			if (startDrain) {
+				try {
+					executor.execute(this::drain);
+				} catch (RejectedExecutionException exception) {
+					// The sender threads are shutting down along with the application.
+					close();
+				}
+			}
+		}
+
+		private void drain() {
+			while (true) {
+				Message message;
+				lock.lock();
+				try {
+					message = queue.poll();
+					if (message == null || closed) {
+						draining = false;
+						return;
+					}
+				} finally {
+					lock.unlock();
+				}
+				try {
+					// The counters are applied before this change reaches us, so the counters read here include it.
+					// Clients take them as they are instead of adding up changes, which would count a change twice
+					// when a counters event read just before it was sent already included it.
+					TaskCounts counts = dashboardService.getTaskCounts(ownerId);
+					Object data = message.event() != null ? message.event().withCounts(counts) : counts;
+					emitter.send(SseEmitter.event().name(message.name()).data(data));
+				} catch (IOException | IllegalStateException exception) {
+					// The client went away or the stream already ended.
+					logger.debug("Dropping task event stream for owner {}", ownerId, exception);
+					close();
+				} catch (RuntimeException exception) {
+					logger.error("Error sending task event to owner {}", ownerId, exception);
+				}
+			}
+		}
+
+		private void close() {
+			lock.lock();
+			try {
+				closed = true;
+				queue.clear();
+			} finally {
+				lock.unlock();
+			}
+			subscribers.computeIfPresent(ownerId, (ignored, ownerSubscribers) -> {
+				ownerSubscribers.remove(this);
+				return ownerSubscribers.isEmpty() ? null : ownerSubscribers;
+			});
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+// Service Layer: TaskExportService. Streams every task to an output stream without materializing the table in memory.
+@Service
+public class TaskExportService {
+	private static final Logger logger = LoggerFactory.getLogger(TaskExportService.class);
+	private static final int FLUSH_INTERVAL = 1_000;
+	private static final String CSV_HEADER = "id,title,description,completed,dueDate";
+
+	private final TaskRepository taskRepository;
+	private final EntityManager entityManager;
+	private final ObjectWriter taskWriter;
+
+	@Autowired
+	public TaskExportService(TaskRepository taskRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+		this.taskRepository = taskRepository;
+		this.entityManager = entityManager;
+		this.taskWriter = objectMapper.writerFor(Task.class)
+				.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+	}
+
+	/**
+	 * Supported export formats.
+	 */
+	public enum Format {
+		NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+		CSV(MediaType.parseMediaType("text/csv"), "csv");
+
+		private final MediaType mediaType;
+		private final String extension;
+
+		Format(MediaType mediaType, String extension) {
+			this.mediaType = mediaType;
+			this.extension = extension;
+		}
+
+		public MediaType getMediaType() {
+			return mediaType;
+		}
+
+		public String getExtension() {
+			return extension;
+		}
+
+		public static Format of(String value) {
+			try {
+				return Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+			} catch (IllegalArgumentException exception) {
+				throw new IllegalArgumentException("Unsupported export format: " + value, exception);
+			}
+		}
+	}
+
+	// This method writes every task of the owner to the output stream in the given format and returns the number of rows written.
+	@Transactional(readOnly = true)
+	public long exportTasks(Long ownerId, Format format, OutputStream outputStream) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+		long rows = 0;
+		try (Stream<Task> tasks = taskRepository.streamByOwnerIdOrderByIdAsc(ownerId)) {
+			if (format == Format.CSV) {
+				writer.write(CSV_HEADER);
+				writer.write('\n');
+			}
+			Iterator<Task> iterator = tasks.iterator();
+			while (iterator.hasNext()) {
+				Task task = iterator.next();
+				if (format == Format.CSV) {
+					writeCsv(writer, task);
+				} else {
+					taskWriter.writeValue(writer, task);
+					writer.write('\n');
+				}
+				// Detach each row once written so the persistence context does not grow with the table.
+				entityManager.detach(task);
+				if (++rows % FLUSH_INTERVAL == 0) {
+					writer.flush();
+				}
+			}
+		}
+		writer.flush();
+		logger.info("Exported {} tasks as {}", rows, format);
+		return rows;
+	}
+
+	private static void writeCsv(Writer writer, Task task) throws IOException {
+		writer.write(String.valueOf(task.getId()));
+		writer.write(',');
+		writer.write(csvField(task.getTitle()));
+		writer.write(',');
+		writer.write(csvField(task.getDescription()));
+		writer.write(',');
+		writer.write(String.valueOf(task.isCompleted()));
+		writer.write(',');
+		writer.write(String.valueOf(task.getDueDate()));
+		writer.write('\n');
+	}
+
+	private static String csvField(String value) {
+		if (value == null) {
+			return "";
+		}
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+}
@@ -0,0 +1,227 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.dto.ImportResult;
+import com.todo.rails.elite.starter.code.model.event.TaskChangedEvent;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Service Layer: TaskImportService. Imports large task uploads with set-based validation and batched JDBC inserts.
+@Service
+public class TaskImportService {
+	private static final Logger logger = LoggerFactory.getLogger(TaskImportService.class);
+	private static final int MAX_REPORTED_FAILURES = 500;
+	private static final String INSERT_SQL =
+			"insert into tasks (title, description, completed, due_date, owner_id, last_modified, version) values (?, ?, ?, ?, ?, ?, 0)";
+
+	private final TaskRepository taskRepository;
+	private final EntityManagerFactory entityManagerFactory;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final Validator validator;
+	private final ApplicationEventPublisher eventPublisher;
+	private final ObjectReader taskReader;
+	private final int batchSize;
+
+	@Autowired
+	public TaskImportService(
+			TaskRepository taskRepository,
+			EntityManagerFactory entityManagerFactory,
+			JdbcTemplate jdbcTemplate,
+			PlatformTransactionManager transactionManager,
+			Validator validator,
+			ObjectMapper objectMapper,
+			ApplicationEventPublisher eventPublisher,
+			@Value("${todo.import.batch-size:1000}") int batchSize
+	) {
+		this.taskRepository = taskRepository;
+		this.entityManagerFactory = entityManagerFactory;
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.validator = validator;
+		this.eventPublisher = eventPublisher;
+		this.taskReader = objectMapper.readerFor(Task.class);
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Imports tasks for one owner from a JSON array or from newline-delimited JSON objects.
+	 *
+	 * <p>Rows are validated as they are read. Each batch is checked against existing titles with a
+	 * single query and inserted with one batched JDBC statement in its own transaction, so a bad row
+	 * never rolls back rows that were already accepted.</p>
+	 *
+	 * @param ownerId     id of the user who will own the imported tasks.
+	 * @param inputStream upload body.
+	 * @return counts of received, imported and failed rows, with the reason each failed row was rejected.
+	 * @throws IOException if the upload cannot be read.
+	 */
+	public ImportResult importTasks(Long ownerId, InputStream inputStream) throws IOException {
+		Progress progress = new Progress();
+		Set<String> seenTitles = new HashSet<>();
+		List<Row> batch = new ArrayList<>(batchSize);
+		try (MappingIterator<Task> rows = taskReader.readValues(inputStream)) {
+			while (true) {
+				Task task;
+				try {
+					if (!rows.hasNextValue()) {
+						break;
+					}
+					task = rows.nextValue();
+				} catch (JsonMappingException exception) {
+					// The row is well-formed JSON but not a valid task; skip it and keep reading.
+					progress.fail(++progress.received, null, "Invalid task: " + exception.getOriginalMessage());
+					continue;
+				} catch (JsonProcessingException exception) {
+					// Malformed JSON leaves the parser in an unknown position, so the rest of the upload is rejected.
+					progress.fail(++progress.received, null, "Malformed input: " + exception.getOriginalMessage());
+					break;
+				}
+				long rowNumber = ++progress.received;
+				String rejection = validate(task, seenTitles);
+				if (rejection != null) {
+					progress.fail(rowNumber, task.getTitle(), rejection);
+					continue;
+				}
+				batch.add(new Row(rowNumber, task));
+				if (batch.size() == batchSize) {
+					insertBatch(ownerId, batch, progress);
+					batch.clear();
+				}
+			}
+			insertBatch(ownerId, batch, progress);
+		} finally {
+			// Each batch commits on its own, so rows already imported are announced even when a later batch or the
+			// upload fails.
+			if (progress.imported > 0) {
+				// Rows written through JDBC bypass Hibernate, so cached query results over tasks must be dropped.
+				entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+				eventPublisher.publishEvent(TaskChangedEvent.bulk(TaskChangedEvent.Type.IMPORTED, ownerId, null));
+			}
+		}
+		logger.info("Imported {} of {} tasks ({} failed)", progress.imported, progress.received, progress.failed);
+		return progress.toResult();
+	}
+
+	private String validate(Task task, Set<String> seenTitles) {
+		Set<ConstraintViolation<Task>> violations = validator.validate(task);
+		if (!violations.isEmpty()) {
+			return violations.stream()
+					.map(ConstraintViolation::getMessage)
+					.sorted()
+					.collect(Collectors.joining("; "));
+		}
+		if (task.getDueDate() == null) {
+			return "Due date cannot be null";
+		}
+		if (!seenTitles.add(task.getTitle())) {
+			return "Duplicate title in upload";
+		}
+		return null;
+	}
+
+	private void insertBatch(Long ownerId, List<Row> batch, Progress progress) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		Set<String> existingTitles = taskRepository.findExistingTitles(
+				ownerId,
+				batch.stream().map(row -> row.task().getTitle()).toList()
+		);
+		List<Row> accepted = new ArrayList<>(batch.size());
+		for (Row row : batch) {
+			if (existingTitles.contains(row.task().getTitle())) {
+				progress.fail(row.number(), row.task().getTitle(), "Task already exists");
+			} else {
+				accepted.add(row);
+			}
+		}
+		if (accepted.isEmpty()) {
+			return;
+		}
+		try {
+			transactionTemplate.executeWithoutResult(
+					status -> jdbcTemplate.batchUpdate(
+							INSERT_SQL,
+							accepted,
+							accepted.size(),
+							(preparedStatement, row) -> bind(preparedStatement, row, ownerId)
+					)
+			);
+			progress.imported += accepted.size();
+		} catch (DataAccessException exception) {
+			// A concurrent writer may have taken one of the titles; retry row by row so only that row fails.
+			logger.warn("Batch insert failed, retrying {} rows individually", accepted.size(), exception);
+			for (Row row : accepted) {
+				try {
+					jdbcTemplate.update(INSERT_SQL, preparedStatement -> bind(preparedStatement, row, ownerId));
+					progress.imported++;
+				} catch (DataIntegrityViolationException rowException) {
+					progress.fail(row.number(), row.task().getTitle(), "Task already exists");
+				}
+			}
+		}
+	}
+
+	private static void bind(PreparedStatement preparedStatement, Row row, Long ownerId) throws SQLException {
+		Task task = row.task();
+		preparedStatement.setString(1, task.getTitle());
+		preparedStatement.setString(2, task.getDescription());
+		preparedStatement.setBoolean(3, task.isCompleted());
+		preparedStatement.setDate(4, Date.valueOf(task.getDueDate()));
+		preparedStatement.setLong(5, ownerId);
+		preparedStatement.setTimestamp(6, Timestamp.from(Task.modificationTime()));
+	}
+
+	private record Row(long number, Task task) {
+	}
+
+	private static final class Progress {
+		private final List<ImportResult.Failure> failures = new ArrayList<>();
+		private long received;
+		private long imported;
+		private long failed;
+
+		private void fail(long row, String title, String reason) {
+			failed++;
+			if (failures.size() < MAX_REPORTED_FAILURES) {
+				failures.add(new ImportResult.Failure(row, title, reason));
+			}
+		}
+
+		private ImportResult toResult() {
+			return new ImportResult(received, imported, failed, List.copyOf(failures));
+		}
+	}
+}
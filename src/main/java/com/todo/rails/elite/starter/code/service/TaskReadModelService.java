@@ -0,0 +1,334 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.model.dto.OwnerTaskVersion;
+import com.todo.rails.elite.starter.code.model.dto.TaskResponse;
+import com.todo.rails.elite.starter.code.model.dto.TaskRow;
+import com.todo.rails.elite.starter.code.model.dto.TaskVersion;
+import com.todo.rails.elite.starter.code.model.event.TaskChangedEvent;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import com.todo.rails.elite.starter.code.service.readmodel.TaskColumns;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+// Service Layer: TaskReadModelService. Serves task listings from a compact in-memory copy of every task instead of the database.
+//
+// When enabled (todo.read-model.enabled), all tasks are loaded into TaskColumns in the background once the application
+// has started. After that, each committed TaskChangedEvent re-reads the rows it names, or the owner's whole list when
+// it does not name them, so the copy follows the database a moment after every commit. Until the first load has
+// finished, and for an owner whose last refresh failed until one succeeds, isReady() is false and callers read from the
+// database instead.
+//
+// Only this node's commits publish events, so each owner's version is also compared with the database periodically and
+// owners that differ are reloaded; this bounds how long changes written by other nodes stay invisible. Listing versions
+// are computed from the held rows, so callers that serve a listing from here must tag it with the version from here too.
+@Service
+public class TaskReadModelService {
+	private static final Logger logger = LoggerFactory.getLogger(TaskReadModelService.class);
+	// Serializes refreshes of one owner, so the last row read is the last one applied.
+	private static final int LOCK_STRIPES = 64;
+
+	private final TaskRepository taskRepository;
+	private final TransactionTemplate readTransaction;
+	private final boolean enabled;
+	private final Duration reconcileInterval;
+	private final Counter driftCorrections;
+	private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+	// Guards the columns reference and the changes recorded while the load is running.
+	private final ReentrantLock rebuildLock = new ReentrantLock();
+	private volatile TaskColumns columns = new TaskColumns();
+	private volatile boolean ready;
+	// Owners whose copy missed a change because reading it failed; the next change reloads them.
+	private final Set<Long> staleOwners = ConcurrentHashMap.newKeySet();
+	private List<TaskChangedEvent> changesDuringRebuild;
+	private ScheduledExecutorService scheduler;
+
+	@Autowired
+	public TaskReadModelService(
+			TaskRepository taskRepository,
+			PlatformTransactionManager transactionManager,
+			MeterRegistry meterRegistry,
+			@Value("${todo.read-model.enabled:false}") boolean enabled,
+			@Value("${todo.read-model.reconcile-interval:1m}") Duration reconcileInterval
+	) {
+		this.taskRepository = taskRepository;
+		this.enabled = enabled;
+		this.reconcileInterval = reconcileInterval;
+		this.readTransaction = new TransactionTemplate(transactionManager);
+		// Listeners run after the writer's commit, when its transaction can no longer be joined.
+		this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.readTransaction.setReadOnly(true);
+		for (int i = 0; i < LOCK_STRIPES; i++) {
+			locks[i] = new ReentrantLock();
+		}
+		this.driftCorrections = Counter.builder("todo.read-model.drift")
+				.description("Owners whose tasks in the read model differed from the database when reconciled")
+				.register(meterRegistry);
+		Gauge.builder("todo.read-model.tasks", this, service -> service.columns.size())
+				.description("Tasks held in the read model")
+				.register(meterRegistry);
+		Gauge.builder("todo.read-model.memory", this, service -> service.columns.offHeapBytes())
+				.description("Memory allocated outside the heap for the read model's task text")
+				.baseUnit("bytes")
+				.tag("area", "off-heap")
+				.register(meterRegistry);
+		Gauge.builder("todo.read-model.memory", this, service -> service.columns.heapBytes())
+				.description("Estimated heap taken by the read model's columns")
+				.baseUnit("bytes")
+				.tag("area", "heap")
+				.register(meterRegistry);
+	}
+
+	@PostConstruct
+	void start() {
+		if (!enabled) {
+			return;
+		}
+		scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("read-model").daemon().factory());
+		scheduler.scheduleWithFixedDelay(this::reconcileQuietly, reconcileInterval.toMillis(), reconcileInterval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	void stop() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+	}
+
+	// This method tells whether the read model has been loaded and can serve the owner's listings.
+	public boolean isReady(Long ownerId) {
+		return ready && !staleOwners.contains(ownerId);
+	}
+
+	// This method returns up to limit of the owner's tasks with an id greater than afterId, ordered by id.
+	public List<TaskResponse> getTasks(Long ownerId, long afterId, int limit) {
+		return columns.tasksAfter(ownerId, afterId, limit);
+	}
+
+	// This method returns up to limit of the owner's pending tasks ordered by due date and id, starting after the given
+	// due date and id, or from the first one if afterDueDate is null.
+	public List<TaskResponse> getPendingTasks(Long ownerId, LocalDate afterDueDate, long afterId, int limit) {
+		return columns.pendingAfter(ownerId, afterDueDate, afterId, limit);
+	}
+
+	// This method returns up to limit of the owner's pending tasks due on the given day with an id greater than afterId.
+	public List<TaskResponse> getPendingTasksDueOn(Long ownerId, LocalDate dueDate, long afterId, int limit) {
+		return columns.pendingDueOn(ownerId, dueDate, afterId, limit);
+	}
+
+	// This method returns up to limit of the owner's pending tasks due from one day through another, ordered by due
+	// date and id, starting after the given due date and id; a null from leaves the range open towards the past.
+	public List<TaskResponse> getPendingTasksDueBetween(
+			Long ownerId,
+			LocalDate from,
+			LocalDate to,
+			LocalDate afterDueDate,
+			long afterId,
+			int limit
+	) {
+		return columns.pendingDueBetween(ownerId, from, to, afterDueDate, afterId, limit);
+	}
+
+	// This method returns the version of the owner's listing of all tasks as held here.
+	public TaskVersion getTasksVersion(Long ownerId) {
+		return columns.version(ownerId);
+	}
+
+	// This method returns the version of the owner's listing of pending tasks as held here.
+	public TaskVersion getPendingTasksVersion(Long ownerId) {
+		return columns.pendingVersion(ownerId);
+	}
+
+	// This method returns the version of the owner's listing of pending tasks due from one day through another as held
+	// here; a null from leaves the range open towards the past.
+	public TaskVersion getPendingTasksVersionDueBetween(Long ownerId, LocalDate from, LocalDate to) {
+		return columns.pendingVersionDueBetween(ownerId, from, to);
+	}
+
+	// This method loads every task from the database in the background once the application has started.
+	@Async
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		if (!enabled) {
+			return;
+		}
+		rebuildLock.lock();
+		try {
+			changesDuringRebuild = new ArrayList<>();
+		} finally {
+			rebuildLock.unlock();
+		}
+		long start = System.nanoTime();
+		TaskColumns rebuilt = new TaskColumns();
+		try {
+			readTransaction.executeWithoutResult(status -> {
+				try (Stream<TaskRow> rows = taskRepository.streamAllRows()) {
+					rebuilt.putAll(rows);
+				}
+			});
+		} catch (RuntimeException exception) {
+			rebuildLock.lock();
+			try {
+				changesDuringRebuild = null;
+			} finally {
+				rebuildLock.unlock();
+			}
+			throw exception;
+		}
+		rebuildLock.lock();
+		try {
+			// Changes committed while the rows were streaming may be missing from the new columns.
+			changesDuringRebuild.forEach(event -> refresh(rebuilt, event));
+			changesDuringRebuild = null;
+			columns = rebuilt;
+			ready = true;
+		} finally {
+			rebuildLock.unlock();
+		}
+		int tasks = rebuilt.size();
+		long offHeapBytes = rebuilt.offHeapBytes();
+		long heapBytes = rebuilt.heapBytes();
+		logger.info(
+				"Loaded {} tasks into the read model in {} ms: {} bytes off the heap and about {} on it, {} bytes per task",
+				tasks,
+				(System.nanoTime() - start) / 1_000_000,
+				offHeapBytes,
+				heapBytes,
+				tasks == 0 ? 0 : (offHeapBytes + heapBytes) / tasks
+		);
+	}
+
+	// This method keeps the read model in sync with committed task changes.
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onTaskChanged(TaskChangedEvent event) {
+		if (!enabled) {
+			return;
+		}
+		rebuildLock.lock();
+		try {
+			if (changesDuringRebuild != null) {
+				changesDuringRebuild.add(event);
+				return;
+			}
+		} finally {
+			rebuildLock.unlock();
+		}
+		// Before the load starts there is nothing to refresh; the load reads this change from the database.
+		if (ready) {
+			refresh(columns, event);
+		}
+	}
+
+	// This method compares every owner's version with the database, reloads the owners that differ, including those
+	// whose refresh failed, and returns how many did. A change committed during the comparison may cause a needless reload.
+	public int reconcile() {
+		if (!ready) {
+			return 0;
+		}
+		TaskColumns target = columns;
+		List<OwnerTaskVersion> stored = readTransaction.execute(status -> taskRepository.findVersionsGroupedByOwnerId());
+		// Owners held here but absent from the database had every task deleted elsewhere.
+		Set<Long> unmatched = new HashSet<>(target.ownerIds());
+		Set<Long> drifted = new HashSet<>(staleOwners);
+		for (OwnerTaskVersion version : stored) {
+			unmatched.remove(version.ownerId());
+			if (!version.version().equals(target.version(version.ownerId()))) {
+				drifted.add(version.ownerId());
+			}
+		}
+		drifted.addAll(unmatched);
+		for (Long ownerId : drifted) {
+			ReentrantLock lock = lockFor(ownerId);
+			lock.lock();
+			try {
+				reloadOwner(target, ownerId);
+			} catch (RuntimeException exception) {
+				staleOwners.add(ownerId);
+				logger.error("Error reconciling the read model for owner {}; their listings are read from the database", ownerId, exception);
+			} finally {
+				lock.unlock();
+			}
+		}
+		if (!drifted.isEmpty()) {
+			logger.debug("Reloaded {} owners whose tasks in the read model differed from the database", drifted.size());
+		}
+		driftCorrections.increment(drifted.size());
+		return drifted.size();
+	}
+
+	// Reads the current state of the changed rows rather than trusting the event, so refreshes of the same owner
+	// can be applied in any order as long as each reads and applies under the owner's lock.
+	private void refresh(TaskColumns target, TaskChangedEvent event) {
+		Long ownerId = event.ownerId();
+		ReentrantLock lock = lockFor(ownerId);
+		lock.lock();
+		try {
+			if (event.taskIds() == null || event.type() == TaskChangedEvent.Type.IMPORTED || staleOwners.contains(ownerId)) {
+				// Selection by due date or JDBC imports do not report the affected ids, so the owner's tasks are read again.
+				reloadOwner(target, ownerId);
+				return;
+			}
+			List<Long> ids = event.taskIds();
+			for (int from = 0; from < ids.size(); from += TaskService.BULK_CHUNK_SIZE) {
+				List<Long> chunk = ids.subList(from, Math.min(from + TaskService.BULK_CHUNK_SIZE, ids.size()));
+				List<TaskRow> rows = readTransaction.execute(status -> taskRepository.findRowsByOwnerIdAndIdIn(ownerId, chunk));
+				target.update(ownerId, chunk, rows);
+			}
+		} catch (RuntimeException exception) {
+			staleOwners.add(ownerId);
+			logger.error("Error refreshing the read model for owner {}; their listings are read from the database", ownerId, exception);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// Replaces all of the owner's tasks with those read from the database; the caller holds the owner's lock.
+	private void reloadOwner(TaskColumns target, Long ownerId) {
+		List<TaskRow> rows = readTransaction.execute(status -> {
+			try (Stream<TaskRow> stream = taskRepository.streamRowsByOwnerId(ownerId)) {
+				return stream.toList();
+			}
+		});
+		target.replaceOwner(ownerId, rows);
+		staleOwners.remove(ownerId);
+	}
+
+	private void reconcileQuietly() {
+		try {
+			reconcile();
+		} catch (RuntimeException exception) {
+			logger.error("Error reconciling the read model", exception);
+		}
+	}
+
+	private ReentrantLock lockFor(Long ownerId) {
+		return locks[Math.floorMod(ownerId.hashCode(), LOCK_STRIPES)];
+	}
+}
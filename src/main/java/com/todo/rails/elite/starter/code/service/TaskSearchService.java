@@ -0,0 +1,265 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.config.MetricsConfig;
+import com.todo.rails.elite.starter.code.model.dto.TaskResponse;
+import com.todo.rails.elite.starter.code.model.dto.TaskSnapshot;
+import com.todo.rails.elite.starter.code.model.dto.TaskText;
+import com.todo.rails.elite.starter.code.model.event.TaskChangedEvent;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import com.todo.rails.elite.starter.code.service.search.TaskSearchIndex;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.constraints.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Service Layer: TaskSearchService. Full-text search over task titles and descriptions, backed by an in-memory index.
+//
+// The index follows this node's committed changes. Other nodes' changes reach it when it is rebuilt from the database,
+// which happens every todo.search.rebuild-interval; results are always read from the database, so deleted tasks never
+// show up in between.
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class TaskSearchService {
+	/**
+	 * Upper bound for the number of results of one search.
+	 */
+	public static final int MAX_RESULTS = 100;
+	private static final Logger logger = LoggerFactory.getLogger(TaskSearchService.class);
+	private final TaskRepository taskRepository;
+	private final TransactionTemplate readTransaction;
+	private final Duration rebuildInterval;
+	// Guards the index reference and the changes recorded while a rebuild or an owner reload is running.
+	private final ReentrantLock rebuildLock = new ReentrantLock();
+	private final List<OwnerReload> reloadsInProgress = new ArrayList<>();
+	private volatile TaskSearchIndex index = new TaskSearchIndex();
+	private List<Change> changesDuringRebuild;
+	private ScheduledExecutorService scheduler;
+
+	@Autowired
+	public TaskSearchService(
+			TaskRepository taskRepository,
+			PlatformTransactionManager transactionManager,
+			@Value("${todo.search.rebuild-interval:10m}") Duration rebuildInterval
+	) {
+		this.taskRepository = taskRepository;
+		this.rebuildInterval = rebuildInterval;
+		this.readTransaction = new TransactionTemplate(transactionManager);
+		// Listeners run after the writer's commit, when its transaction can no longer be joined.
+		this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.readTransaction.setReadOnly(true);
+	}
+
+	@PostConstruct
+	void start() {
+		if (rebuildInterval.isZero() || rebuildInterval.isNegative()) {
+			return;
+		}
+		scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("task-search").daemon().factory());
+		scheduler.scheduleWithFixedDelay(this::rebuildQuietly, rebuildInterval.toMillis(), rebuildInterval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	void stop() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+	}
+
+	// This method searches the owner's tasks and returns the best matches first.
+	public List<TaskResponse> search(
+			@NotNull(message = "Owner cannot be null") Long ownerId,
+			@NotNull(message = "Query cannot be null") String query,
+			int limit
+	) {
+		if (limit < 1) {
+			throw new IllegalArgumentException("Limit must be positive");
+		}
+		List<Long> ids = index.search(ownerId, query, Math.min(limit, MAX_RESULTS));
+		if (ids.isEmpty()) {
+			return List.of();
+		}
+		Map<Long, TaskResponse> tasks = taskRepository.findByOwnerIdAndIdIn(ownerId, ids).stream()
+				.collect(Collectors.toMap(TaskResponse::id, Function.identity()));
+		// Keep the index's ranking; ids deleted since they were indexed are skipped.
+		return ids.stream().map(tasks::get).filter(Objects::nonNull).toList();
+	}
+
+	// This method builds the index from the database in the background once the application has started, and again
+	// every rebuild interval; a rebuild requested while one is running is skipped.
+	@Async
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		rebuildLock.lock();
+		try {
+			if (changesDuringRebuild != null) {
+				return;
+			}
+			changesDuringRebuild = new ArrayList<>();
+		} finally {
+			rebuildLock.unlock();
+		}
+		long start = System.nanoTime();
+		TaskSearchIndex rebuilt = new TaskSearchIndex();
+		try {
+			readTransaction.executeWithoutResult(status -> {
+				try (Stream<TaskText> texts = taskRepository.streamAllText()) {
+					texts.forEach(text -> rebuilt.put(text.ownerId(), text.id(), text.title(), text.description()));
+				}
+			});
+		} catch (RuntimeException exception) {
+			rebuildLock.lock();
+			try {
+				changesDuringRebuild = null;
+			} finally {
+				rebuildLock.unlock();
+			}
+			throw exception;
+		}
+		rebuildLock.lock();
+		try {
+			// Changes committed while the rows were streaming may be missing from the new index.
+			changesDuringRebuild.forEach(change -> apply(rebuilt, change));
+			changesDuringRebuild = null;
+			index = rebuilt;
+		} finally {
+			rebuildLock.unlock();
+		}
+		logger.info("Indexed {} tasks for search in {} ms", rebuilt.size(), (System.nanoTime() - start) / 1_000_000);
+	}
+
+	// This method keeps the index in sync with committed task changes.
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onTaskChanged(TaskChangedEvent event) {
+		if (needsReload(event)) {
+			reloadOwner(event);
+			return;
+		}
+		rebuildLock.lock();
+		try {
+			applyAndRecord(new Change(event, null));
+		} finally {
+			rebuildLock.unlock();
+		}
+	}
+
+	// Selection by due date or JDBC imports do not report the affected ids, so the owner's tasks are indexed again.
+	private static boolean needsReload(TaskChangedEvent event) {
+		return event.type() == TaskChangedEvent.Type.IMPORTED
+				|| (event.type() == TaskChangedEvent.Type.BULK_DELETED && event.taskIds() == null);
+	}
+
+	// The owner's rows are read without holding the lock, so other writers' listeners never wait on the query.
+	// Changes of the owner applied while the rows were read may be missing from them and are applied again.
+	private void reloadOwner(TaskChangedEvent event) {
+		OwnerReload reload = new OwnerReload(event.ownerId());
+		rebuildLock.lock();
+		try {
+			reloadsInProgress.add(reload);
+		} finally {
+			rebuildLock.unlock();
+		}
+		List<TaskText> texts;
+		try {
+			texts = readTransaction.execute(status -> {
+				try (Stream<TaskText> stream = taskRepository.streamTextByOwnerId(event.ownerId())) {
+					return stream.toList();
+				}
+			});
+		} catch (RuntimeException exception) {
+			rebuildLock.lock();
+			try {
+				reloadsInProgress.remove(reload);
+			} finally {
+				rebuildLock.unlock();
+			}
+			throw exception;
+		}
+		rebuildLock.lock();
+		try {
+			reloadsInProgress.remove(reload);
+			applyAndRecord(new Change(event, texts));
+			reload.changes.forEach(this::applyAndRecord);
+		} finally {
+			rebuildLock.unlock();
+		}
+	}
+
+	private void rebuildQuietly() {
+		try {
+			rebuild();
+		} catch (RuntimeException exception) {
+			logger.error("Error rebuilding the search index", exception);
+		}
+	}
+
+	// Must be called with the lock held.
+	private void applyAndRecord(Change change) {
+		if (changesDuringRebuild != null) {
+			changesDuringRebuild.add(change);
+		}
+		for (OwnerReload reload : reloadsInProgress) {
+			if (reload.ownerId.equals(change.event().ownerId())) {
+				reload.changes.add(change);
+			}
+		}
+		apply(index, change);
+	}
+
+	private static void apply(TaskSearchIndex target, Change change) {
+		TaskChangedEvent event = change.event();
+		Long ownerId = event.ownerId();
+		if (change.texts() != null) {
+			target.removeOwner(ownerId);
+			change.texts().forEach(text -> target.put(ownerId, text.id(), text.title(), text.description()));
+			return;
+		}
+		switch (event.type()) {
+			case CREATED, UPDATED -> {
+				TaskSnapshot task = event.current();
+				target.put(ownerId, task.id(), task.title(), task.description());
+			}
+			case DELETED, BULK_DELETED -> event.taskIds().forEach(id -> target.remove(ownerId, id));
+			case COMPLETED, REOPENED, BULK_COMPLETED, BULK_REOPENED, IMPORTED -> {
+				// Completion does not change the indexed text; imports carry the reloaded rows.
+			}
+		}
+	}
+
+	// A committed change, with the owner's reloaded rows when the change does not name the affected tasks.
+	private record Change(TaskChangedEvent event, List<TaskText> texts) {
+	}
+
+	private static final class OwnerReload {
+		private final Long ownerId;
+		private final List<Change> changes = new ArrayList<>();
+
+		private OwnerReload(Long ownerId) {
+			this.ownerId = ownerId;
+		}
+	}
+}
@@ -1,41 +1,100 @@
 package com.todo.rails.elite.starter.code.service;
 
+import com.todo.rails.elite.starter.code.config.CacheConfig;
+import com.todo.rails.elite.starter.code.config.MetricsConfig;
+import com.todo.rails.elite.starter.code.config.ReadFromReplica;
 import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.dto.BulkTaskRequest;
+import com.todo.rails.elite.starter.code.model.dto.TaskCursor;
+import com.todo.rails.elite.starter.code.model.dto.TaskPage;
+import com.todo.rails.elite.starter.code.model.dto.TaskResponse;
+import com.todo.rails.elite.starter.code.model.dto.TaskSnapshot;
+import com.todo.rails.elite.starter.code.model.dto.TaskVersion;
+import com.todo.rails.elite.starter.code.model.event.TaskChangedEvent;
 import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import com.todo.rails.elite.starter.code.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 // Service Layer: TaskService. Implement business logic for managing tasks, including validation and error handling.
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class TaskService {
+	/**
+	 * Upper bound for the page size of any paginated task listing.
+	 */
+	public static final int MAX_PAGE_SIZE = 500;
+	/**
+	 * Upper bound for the number of days the upcoming task listing looks ahead.
+	 */
+	public static final int MAX_UPCOMING_DAYS = 366;
+	/**
+	 * Number of ids bound into a single bulk statement; larger requests are split into several statements.
+	 */
+	public static final int BULK_CHUNK_SIZE = 1_000;
 	private static final Logger logger = LoggerFactory.getLogger(TaskService.class);
 	private final TaskRepository taskRepository;
+	private final UserRepository userRepository;
+	private final ApplicationEventPublisher eventPublisher;
+	private final TaskReadModelService readModel;
 
 	@Autowired
-	public TaskService(TaskRepository taskRepository) {
+	public TaskService(
+			TaskRepository taskRepository,
+			UserRepository userRepository,
+			ApplicationEventPublisher eventPublisher,
+			TaskReadModelService readModel
+	) {
 		this.taskRepository = taskRepository;
+		this.userRepository = userRepository;
+		this.eventPublisher = eventPublisher;
+		this.readModel = readModel;
 	}
 
-    // This method adds a new task to the repository if it does not already exist.
-	public Task addTask(@NotNull(message = "Task cannot be null") Task task) throws RuntimeException {
-		if (taskRepository.findByTitle(task.getTitle()).isPresent()) {
+    // This method adds a new task for the given owner if the owner does not already have one with that title.
+	@CacheEvict(cacheNames = CacheConfig.TASKS_BY_TITLE, key = "#ownerId + ':' + #task.title")
+	public Task addTask(
+			@NotNull(message = "Owner cannot be null") Long ownerId,
+			@NotNull(message = "Task cannot be null") Task task
+	) throws RuntimeException {
+		if (taskRepository.findByOwnerIdAndTitle(ownerId, task.getTitle()).isPresent()) {
 			logger.error("Task already exists: {}", task.getTitle());
 			throw new RuntimeException("Task already exists");
 		}
-		return taskRepository.save(task);
+		task.setOwner(userRepository.getReferenceById(ownerId));
+		Task savedTask = taskRepository.save(task);
+		eventPublisher.publishEvent(TaskChangedEvent.created(ownerId, savedTask));
+		return savedTask;
 	}
 
-    // This method retrieves a task by its ID, throwing an exception if not found.
-	public Task getTaskById(@NotNull(message = "Id cannot be null") Long id) throws RuntimeException {
-		return taskRepository.findById(id)
+    // This method retrieves one of the owner's tasks by its ID, throwing an exception if not found.
+	@Cacheable(cacheNames = CacheConfig.TASKS_BY_ID, key = "#ownerId + ':' + #id")
+	@Transactional(readOnly = true)
+	public Task getTaskById(
+			@NotNull(message = "Owner cannot be null") Long ownerId,
+			@NotNull(message = "Id cannot be null") Long id
+	) throws RuntimeException {
+		return taskRepository.findByIdAndOwnerId(id, ownerId)
 				.orElseThrow(
 						() -> {
 							logger.error("Task not found with id: {}", id);
@@ -44,13 +103,16 @@ public class TaskService {
 				);
 	}
 
-    // This method retrieves a task by its title, throwing an exception if not found.
+    // This method retrieves one of the owner's tasks by its title, throwing an exception if not found.
+	@Cacheable(cacheNames = CacheConfig.TASKS_BY_TITLE, key = "#ownerId + ':' + #title")
+	@Transactional(readOnly = true)
 	public Task getTaskByTitle(
+			@NotNull(message = "Owner cannot be null") Long ownerId,
 			@NotNull(message = "Title cannot be null")
 			@NotBlank(message = "Title cannot be blank")
 			String title
 	) throws RuntimeException {
-		return taskRepository.findByTitle(title)
+		return taskRepository.findByOwnerIdAndTitle(ownerId, title)
 				.orElseThrow(
 						() -> {
 							logger.error("Task not found with title: {}", title);
@@ -59,75 +121,446 @@ public class TaskService {
 				);
 	}
 
-    // This method retrieves all tasks from the repository.
-	public List<Task> getAllTasks() {
-		if (taskRepository.findAll().isEmpty()) {
-			return List.of();
-		}
-		return taskRepository.findAll();
+    // This method retrieves all tasks of the owner.
+	@Transactional(readOnly = true)
+	public List<Task> getAllTasks(@NotNull(message = "Owner cannot be null") Long ownerId) {
+		return taskRepository.findByOwnerId(ownerId);
 	}
 
-    // This method updates an existing task's details, throwing an exception if the task does not exist.
-	public Task updateTask(@NotNull(message = "Task cannot be null") Task task) throws RuntimeException {
-		Optional<Task> existingTask = taskRepository.findByTitle(task.getTitle());
+    // This method updates one of the owner's tasks, throwing an exception if the task does not exist.
+	@Caching(evict = {
+			@CacheEvict(cacheNames = CacheConfig.TASKS_BY_ID, key = "#ownerId + ':' + #result.id"),
+			@CacheEvict(cacheNames = CacheConfig.TASKS_BY_TITLE, key = "#ownerId + ':' + #task.title")
+	})
+	public Task updateTask(
+			@NotNull(message = "Owner cannot be null") Long ownerId,
+			@NotNull(message = "Task cannot be null") Task task
+	) throws RuntimeException {
+		Optional<Task> existingTask = taskRepository.findByOwnerIdAndTitle(ownerId, task.getTitle());
 		if (existingTask.isEmpty()) {
 			logger.error("Task not found for update: {}", task.getTitle());
 			throw new RuntimeException("Task not found");
 		}
-		Task taskToUpdate = existingTask.get();
-		taskToUpdate.setTitle(task.getTitle());
-		taskToUpdate.setDescription(task.getDescription());
-		taskToUpdate.setCompleted(task.isCompleted());
-		taskToUpdate.setDueDate(task.getDueDate());
-		return taskRepository.save(taskToUpdate);
+		// A form that was rendered with an older version of the task must not overwrite a newer one.
+		checkVersion(existingTask.get(), task.getVersion());
+		return applyUpdate(ownerId, existingTask.get(), task);
 	}
 
-    // This method deletes a task from the repository, throwing an exception if the task does not exist.
-	public void deleteTask(@NotNull(message = "Task cannot be null") Task task) throws RuntimeException {
-		Optional<Task> existingTask = taskRepository.findByTitle(task.getTitle());
+    // This method replaces one of the owner's tasks by id. A non-null expected version must match the stored one;
+    // an update racing with another one is caught by the version check when the change is written.
+	@Caching(evict = {
+			@CacheEvict(cacheNames = CacheConfig.TASKS_BY_ID, key = "#ownerId + ':' + #id"),
+			@CacheEvict(cacheNames = CacheConfig.TASKS_BY_TITLE, allEntries = true)
+	})
+	public Task replaceTask(
+			@NotNull(message = "Owner cannot be null") Long ownerId,
+			@NotNull(message = "Id cannot be null") Long id,
+			@NotNull(message = "Task cannot be null") Task task,
+			Long expectedVersion
+	) throws RuntimeException {
+		Task taskToUpdate = taskRepository.findByIdAndOwnerId(id, ownerId)
+				.orElseThrow(
+						() -> {
+							logger.error("Task not found for update with id: {}", id);
+							return new RuntimeException("Task not found");
+						}
+				);
+		checkVersion(taskToUpdate, expectedVersion);
+		return applyUpdate(ownerId, taskToUpdate, task);
+	}
+
+    // This method deletes one of the owner's tasks, throwing an exception if the task does not exist.
+	@Caching(evict = {
+			@CacheEvict(cacheNames = CacheConfig.TASKS_BY_ID, key = "#ownerId + ':' + #task.id"),
+			@CacheEvict(cacheNames = CacheConfig.TASKS_BY_TITLE, key = "#ownerId + ':' + #task.title")
+	})
+	public void deleteTask(
+			@NotNull(message = "Owner cannot be null") Long ownerId,
+			@NotNull(message = "Task cannot be null") Task task
+	) throws RuntimeException {
+		Optional<Task> existingTask = taskRepository.findByOwnerIdAndTitle(ownerId, task.getTitle());
 		if (existingTask.isEmpty()) {
 			logger.error("Task not found for deletion: {}", task.getTitle());
 			throw new RuntimeException("Task not found");
 		}
-		taskRepository.delete(task);
+		// Delete the owner's row, never whatever id the caller supplied.
+		taskRepository.delete(existingTask.get());
+		eventPublisher.publishEvent(TaskChangedEvent.deleted(ownerId, existingTask.get()));
 	}
 
-    // This method retrieves all pending (not completed) tasks from the repository.
-	public List<Task> getPendingTasks() {
-		List<Task> allTasks = getAllTasks();
-		if (allTasks.isEmpty()) {
-			return List.of();
+    // This method marks one of the owner's tasks as completed with one UPDATE statement, throwing an exception if it does not exist.
+	@Caching(evict = {
+			@CacheEvict(cacheNames = CacheConfig.TASKS_BY_ID, key = "#ownerId + ':' + #id"),
+			@CacheEvict(cacheNames = CacheConfig.TASKS_BY_TITLE, allEntries = true)
+	})
+	@Transactional
+	public void completeTask(
+			@NotNull(message = "Owner cannot be null") Long ownerId,
+			@NotNull(message = "Id cannot be null") Long id
+	) throws RuntimeException {
+		if (taskRepository.completeByIdIn(ownerId, List.of(id), Task.modificationTime()) == 1) {
+			eventPublisher.publishEvent(TaskChangedEvent.completed(ownerId, id));
+		} else if (!taskRepository.existsByIdAndOwnerId(id, ownerId)) {
+			logger.error("Task not found for completion with id: {}", id);
+			throw new RuntimeException("Task not found");
+		}
+	}
+
+    // This method marks one of the owner's tasks as not completed, throwing an exception if the task does not exist.
+	@Caching(evict = {
+			@CacheEvict(cacheNames = CacheConfig.TASKS_BY_ID, key = "#ownerId + ':' + #id"),
+			@CacheEvict(cacheNames = CacheConfig.TASKS_BY_TITLE, allEntries = true)
+	})
+	@Transactional
+	public void uncompleteTask(
+			@NotNull(message = "Owner cannot be null") Long ownerId,
+			@NotNull(message = "Id cannot be null") Long id
+	) throws RuntimeException {
+		if (taskRepository.uncompleteByIdIn(ownerId, List.of(id), Task.modificationTime()) == 1) {
+			eventPublisher.publishEvent(TaskChangedEvent.reopened(ownerId, id));
+		} else if (!taskRepository.existsByIdAndOwnerId(id, ownerId)) {
+			logger.error("Task not found for reopening with id: {}", id);
+			throw new RuntimeException("Task not found");
 		}
-		return allTasks.stream()
-				.filter(task -> !task.isCompleted())
-				.toList();
 	}
 
-    // This method retrieves all completed tasks from the repository.
-	public List<Task> getCompletedTasks() {
-		List<Task> allTasks = getAllTasks();
-		if (allTasks.isEmpty()) {
-			return List.of();
+    // This method sets the completed flag of the owner's given tasks with bulk UPDATE statements and returns how many changed.
+    // Ids of tasks the owner does not have, or that already have the flag, are skipped.
+	@Caching(evict = {
+			@CacheEvict(cacheNames = CacheConfig.TASKS_BY_ID, allEntries = true),
+			@CacheEvict(cacheNames = CacheConfig.TASKS_BY_TITLE, allEntries = true)
+	})
+	@Transactional
+	public int setCompleted(
+			@NotNull(message = "Owner cannot be null") Long ownerId,
+			@NotNull(message = "Ids cannot be null") List<Long> ids,
+			boolean completed
+	) {
+		Instant now = Task.modificationTime();
+		int changed = completed
+				? inChunks(ids, chunk -> taskRepository.completeByIdIn(ownerId, chunk, now))
+				: inChunks(ids, chunk -> taskRepository.uncompleteByIdIn(ownerId, chunk, now));
+		publishBulk(completed ? TaskChangedEvent.Type.BULK_COMPLETED : TaskChangedEvent.Type.BULK_REOPENED, ownerId, ids, changed);
+		return changed;
+	}
+
+    // This method retrieves all pending (not completed) tasks of the owner.
+	@Transactional(readOnly = true)
+	public List<Task> getPendingTasks(@NotNull(message = "Owner cannot be null") Long ownerId) {
+		return taskRepository.findByOwnerIdAndCompleted(ownerId, false);
+	}
+
+    // This method retrieves all completed tasks of the owner.
+	@Transactional(readOnly = true)
+	public List<Task> getCompletedTasks(@NotNull(message = "Owner cannot be null") Long ownerId) {
+		return taskRepository.findByOwnerIdAndCompleted(ownerId, true);
+	}
+
+    // This method retrieves all of the owner's tasks that are due today and not yet completed.
+	@Transactional(readOnly = true)
+	public List<Task> getTodayTasks(@NotNull(message = "Owner cannot be null") Long ownerId) {
+		return taskRepository.findByOwnerIdAndCompletedAndDueDate(ownerId, false, LocalDate.now());
+	}
+
+    // This method retrieves one page of the owner's tasks ordered by id, continuing after the given cursor.
+    // Like the pending and today pages, it is served from the read model once that is loaded.
+	@ReadFromReplica
+	@Transactional(readOnly = true)
+	public TaskPage getTasksPage(Long ownerId, String cursor, int size) {
+		TaskCursor after = TaskCursor.decode(cursor);
+		int pageSize = pageSize(size);
+		long afterId = after == null ? 0L : after.id();
+		List<TaskResponse> tasks = readModel.isReady(ownerId)
+				? readModel.getTasks(ownerId, afterId, pageSize + 1)
+				: taskRepository.findByOwnerIdAndIdGreaterThanOrderByIdAsc(ownerId, afterId, Limit.of(pageSize + 1));
+		return toPage(tasks, pageSize, TaskCursor::afterId);
+	}
+
+    // This method retrieves one page of the owner's pending tasks ordered by due date, continuing after the given cursor.
+    // It stays on the primary because its first page runs a cacheable query: query cache entries are stamped with the
+    // time they were read, so rows from a lagging replica would be cached as current until the next write to tasks.
+	@Transactional(readOnly = true)
+	public TaskPage getPendingTasksPage(Long ownerId, String cursor, int size) {
+		TaskCursor after = TaskCursor.decode(cursor);
+		int pageSize = pageSize(size);
+		if (readModel.isReady(ownerId)) {
+			List<TaskResponse> tasks = after == null || after.dueDate() == null
+					? readModel.getPendingTasks(ownerId, null, 0L, pageSize + 1)
+					: readModel.getPendingTasks(ownerId, after.dueDate(), after.id(), pageSize + 1);
+			return toPage(tasks, pageSize, TaskCursor::afterDueDate);
 		}
-		return allTasks.stream()
-				.filter(Task::isCompleted)
-				.toList();
+		List<TaskResponse> tasks = after == null || after.dueDate() == null
+				? taskRepository.findByOwnerIdAndCompletedOrderByDueDateAscIdAsc(ownerId, false, Limit.of(pageSize + 1))
+				: taskRepository.findByOwnerIdAndCompletedAfterDueDateAndId(
+						ownerId,
+						false,
+						after.dueDate(),
+						after.id(),
+						Limit.of(pageSize + 1)
+				);
+		return toPage(tasks, pageSize, TaskCursor::afterDueDate);
 	}
 
-    // This method retrieves all tasks that are due today and not yet completed.
-	public List<Task> getTodayTasks() {
-		List<Task> allTasks = getAllTasks();
-		if (allTasks.isEmpty()) {
-			return List.of();
+    // This method retrieves one page of the owner's completed tasks ordered by id, continuing after the given cursor.
+	@ReadFromReplica
+	@Transactional(readOnly = true)
+	public TaskPage getCompletedTasksPage(Long ownerId, String cursor, int size) {
+		TaskCursor after = TaskCursor.decode(cursor);
+		int pageSize = pageSize(size);
+		List<TaskResponse> tasks = taskRepository.findByOwnerIdAndCompletedAndIdGreaterThanOrderByIdAsc(
+				ownerId,
+				true,
+				after == null ? 0L : after.id(),
+				Limit.of(pageSize + 1)
+		);
+		return toPage(tasks, pageSize, TaskCursor::afterId);
+	}
+
+    // This method retrieves one page of the owner's pending tasks due today ordered by id, continuing after the given cursor.
+	@ReadFromReplica
+	@Transactional(readOnly = true)
+	public TaskPage getTodayTasksPage(Long ownerId, String cursor, int size) {
+		TaskCursor after = TaskCursor.decode(cursor);
+		int pageSize = pageSize(size);
+		long afterId = after == null ? 0L : after.id();
+		List<TaskResponse> tasks = readModel.isReady(ownerId)
+				? readModel.getPendingTasksDueOn(ownerId, LocalDate.now(), afterId, pageSize + 1)
+				: taskRepository.findByOwnerIdAndCompletedAndDueDateAndIdGreaterThanOrderByIdAsc(
+						ownerId,
+						false,
+						LocalDate.now(),
+						afterId,
+						Limit.of(pageSize + 1)
+				);
+		return toPage(tasks, pageSize, TaskCursor::afterId);
+	}
+
+    // This method retrieves one page of the owner's pending tasks whose due date has passed, oldest first, continuing
+    // after the given cursor. Like the upcoming page, it reads a due-date range of the read model once that is loaded.
+	@ReadFromReplica
+	@Transactional(readOnly = true)
+	public TaskPage getOverdueTasksPage(Long ownerId, String cursor, int size) {
+		TaskCursor after = TaskCursor.decode(cursor);
+		int pageSize = pageSize(size);
+		LocalDate today = LocalDate.now();
+		if (readModel.isReady(ownerId)) {
+			List<TaskResponse> tasks = after == null || after.dueDate() == null
+					? readModel.getPendingTasksDueBetween(ownerId, null, today.minusDays(1), null, 0L, pageSize + 1)
+					: readModel.getPendingTasksDueBetween(ownerId, null, today.minusDays(1), after.dueDate(), after.id(), pageSize + 1);
+			return toPage(tasks, pageSize, TaskCursor::afterDueDate);
 		}
-		return allTasks.stream()
-				.filter(
-						task -> !task.isCompleted()
-				)
-				.filter(
-						task -> task.getDueDate()
-								.isEqual(LocalDate.now())
+		List<TaskResponse> tasks = after == null || after.dueDate() == null
+				? taskRepository.findByOwnerIdAndCompletedAndDueDateBeforeOrderByDueDateAscIdAsc(ownerId, false, today, Limit.of(pageSize + 1))
+				: taskRepository.findByOwnerIdAndCompletedAndDueDateBeforeAfterDueDateAndId(
+						ownerId,
+						false,
+						today,
+						after.dueDate(),
+						after.id(),
+						Limit.of(pageSize + 1)
+				);
+		return toPage(tasks, pageSize, TaskCursor::afterDueDate);
+	}
+
+    // This method retrieves one page of the owner's pending tasks due in the given number of days after today, soonest
+    // first, continuing after the given cursor.
+	@ReadFromReplica
+	@Transactional(readOnly = true)
+	public TaskPage getUpcomingTasksPage(Long ownerId, int days, String cursor, int size) {
+		TaskCursor after = TaskCursor.decode(cursor);
+		int pageSize = pageSize(size);
+		LocalDate today = LocalDate.now();
+		LocalDate lastDay = today.plusDays(upcomingDays(days));
+		// A cursor from before today, such as one kept overnight, starts again with tomorrow's tasks.
+		boolean firstPage = after == null || after.dueDate() == null || !after.dueDate().isAfter(today);
+		List<TaskResponse> tasks = readModel.isReady(ownerId)
+				? readModel.getPendingTasksDueBetween(
+						ownerId,
+						today.plusDays(1),
+						lastDay,
+						firstPage ? null : after.dueDate(),
+						firstPage ? 0L : after.id(),
+						pageSize + 1
 				)
-				.toList();
+				: taskRepository.findByOwnerIdAndCompletedAndDueDateBeforeAfterDueDateAndId(
+						ownerId,
+						false,
+						lastDay.plusDays(1),
+						firstPage ? today : after.dueDate(),
+						firstPage ? Long.MAX_VALUE : after.id(),
+						Limit.of(pageSize + 1)
+				);
+		return toPage(tasks, pageSize, TaskCursor::afterDueDate);
+	}
+
+    // This method returns the version of the owner's task listing, used to answer conditional requests.
+    // Versions read from the same replica as the listing they tag, so an ETag never runs ahead of its page. Listings the
+    // read model serves are tagged from the read model, which may be behind the database; callers read the version
+    // before the page, so a page can only be newer than its tag, which costs the client a full response, not a stale one.
+	@ReadFromReplica
+	@Transactional(readOnly = true)
+	public TaskVersion getTasksVersion(Long ownerId) {
+		return readModel.isReady(ownerId)
+				? readModel.getTasksVersion(ownerId)
+				: taskRepository.findVersionByOwnerId(ownerId);
+	}
+
+    // This method returns the version of the owner's pending task listing, read from the primary like the listing.
+	@Transactional(readOnly = true)
+	public TaskVersion getPendingTasksVersion(Long ownerId) {
+		return readModel.isReady(ownerId)
+				? readModel.getPendingTasksVersion(ownerId)
+				: taskRepository.findVersionByOwnerIdAndCompleted(ownerId, false);
+	}
+
+    // This method returns the version of the owner's completed task listing.
+	@ReadFromReplica
+	@Transactional(readOnly = true)
+	public TaskVersion getCompletedTasksVersion(Long ownerId) {
+		return taskRepository.findVersionByOwnerIdAndCompleted(ownerId, true);
+	}
+
+    // This method returns the version of the owner's listing of pending tasks due today.
+	@ReadFromReplica
+	@Transactional(readOnly = true)
+	public TaskVersion getTodayTasksVersion(Long ownerId) {
+		LocalDate today = LocalDate.now();
+		return readModel.isReady(ownerId)
+				? readModel.getPendingTasksVersionDueBetween(ownerId, today, today)
+				: taskRepository.findVersionByOwnerIdAndCompletedAndDueDate(ownerId, false, today);
+	}
+
+    // This method returns the version of the owner's listing of overdue tasks.
+	@ReadFromReplica
+	@Transactional(readOnly = true)
+	public TaskVersion getOverdueTasksVersion(Long ownerId) {
+		LocalDate today = LocalDate.now();
+		return readModel.isReady(ownerId)
+				? readModel.getPendingTasksVersionDueBetween(ownerId, null, today.minusDays(1))
+				: taskRepository.findVersionByOwnerIdAndCompletedAndDueDateBefore(ownerId, false, today);
+	}
+
+    // This method returns the version of the owner's listing of tasks due in the given number of days after today.
+	@ReadFromReplica
+	@Transactional(readOnly = true)
+	public TaskVersion getUpcomingTasksVersion(Long ownerId, int days) {
+		LocalDate today = LocalDate.now();
+		if (readModel.isReady(ownerId)) {
+			return readModel.getPendingTasksVersionDueBetween(ownerId, today.plusDays(1), today.plusDays(upcomingDays(days)));
+		}
+		return taskRepository.findVersionByOwnerIdAndCompletedAndDueDateAfterAndDueDateBefore(
+				ownerId,
+				false,
+				today,
+				today.plusDays(upcomingDays(days) + 1L)
+		);
+	}
+
+    // This method returns the version of one of the owner's tasks, or empty if the owner has no such task.
+	@Transactional(readOnly = true)
+	public Optional<TaskVersion> getTaskVersion(Long ownerId, Long id) {
+		return taskRepository.findVersionByIdAndOwnerId(id, ownerId);
+	}
+
+    // This method marks the owner's selected tasks as completed with bulk UPDATE statements and returns how many changed.
+	@Caching(evict = {
+			@CacheEvict(cacheNames = CacheConfig.TASKS_BY_ID, allEntries = true),
+			@CacheEvict(cacheNames = CacheConfig.TASKS_BY_TITLE, allEntries = true)
+	})
+	@Transactional
+	public int completeTasks(
+			@NotNull(message = "Owner cannot be null") Long ownerId,
+			@NotNull(message = "Request cannot be null") BulkTaskRequest request
+	) {
+		boolean byIds = selectsByIds(request);
+		Instant now = Task.modificationTime();
+		int completed = byIds
+				? inChunks(request.ids(), ids -> taskRepository.completeByIdIn(ownerId, ids, now))
+				: taskRepository.completeDueBefore(ownerId, request.dueBefore(), now);
+		publishBulk(TaskChangedEvent.Type.BULK_COMPLETED, ownerId, byIds ? request.ids() : null, completed);
+		return completed;
+	}
+
+    // This method deletes the owner's selected tasks (or completed tasks due before a date) and returns how many were removed.
+	@Caching(evict = {
+			@CacheEvict(cacheNames = CacheConfig.TASKS_BY_ID, allEntries = true),
+			@CacheEvict(cacheNames = CacheConfig.TASKS_BY_TITLE, allEntries = true)
+	})
+	@Transactional
+	public int deleteTasks(
+			@NotNull(message = "Owner cannot be null") Long ownerId,
+			@NotNull(message = "Request cannot be null") BulkTaskRequest request
+	) {
+		boolean byIds = selectsByIds(request);
+		int deleted = byIds
+				? inChunks(request.ids(), ids -> taskRepository.deleteByIdIn(ownerId, ids))
+				: taskRepository.deleteCompletedDueBefore(ownerId, request.dueBefore());
+		publishBulk(TaskChangedEvent.Type.BULK_DELETED, ownerId, byIds ? request.ids() : null, deleted);
+		return deleted;
+	}
+
+	private static void checkVersion(Task storedTask, Long expectedVersion) {
+		if (expectedVersion != null && !expectedVersion.equals(storedTask.getVersion())) {
+			logger.warn("Rejecting update of task {}: expected version {}, found {}", storedTask.getId(), expectedVersion, storedTask.getVersion());
+			throw new ObjectOptimisticLockingFailureException(Task.class, storedTask.getId());
+		}
+	}
+
+	// Saving the detached task merges it, and the merge fails if the row's version changed since it was read.
+	private Task applyUpdate(Long ownerId, Task taskToUpdate, Task task) {
+		TaskSnapshot previous = TaskSnapshot.of(taskToUpdate);
+		taskToUpdate.setTitle(task.getTitle());
+		taskToUpdate.setDescription(task.getDescription());
+		taskToUpdate.setCompleted(task.isCompleted());
+		taskToUpdate.setDueDate(task.getDueDate());
+		Task updatedTask = taskRepository.save(taskToUpdate);
+		eventPublisher.publishEvent(TaskChangedEvent.updated(ownerId, previous, updatedTask));
+		return updatedTask;
+	}
+
+	// Bulk statements do not report which rows they changed, so by-id events carry the requested ids.
+	private void publishBulk(TaskChangedEvent.Type type, Long ownerId, List<Long> ids, int affected) {
+		if (affected > 0) {
+			eventPublisher.publishEvent(TaskChangedEvent.bulk(type, ownerId, ids));
+		}
+	}
+
+	// Returns true when the request selects tasks by id, false when it selects them by due date.
+	private static boolean selectsByIds(BulkTaskRequest request) {
+		if (request.hasIds() == request.hasDueBefore()) {
+			throw new IllegalArgumentException("Provide either ids or dueBefore");
+		}
+		return request.hasIds();
+	}
+
+	private static int inChunks(List<Long> ids, ToIntFunction<Collection<Long>> statement) {
+		int affected = 0;
+		for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+			affected += statement.applyAsInt(ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size())));
+		}
+		return affected;
+	}
+
+	private static int pageSize(int size) {
+		if (size < 1) {
+			throw new IllegalArgumentException("Page size must be positive");
+		}
+		return Math.min(size, MAX_PAGE_SIZE);
+	}
+
+	private static int upcomingDays(int days) {
+		if (days < 1) {
+			throw new IllegalArgumentException("Days must be positive");
+		}
+		return Math.min(days, MAX_UPCOMING_DAYS);
+	}
+
+	// One extra row is fetched to detect whether another page follows without issuing a count query.
+	private static TaskPage toPage(List<TaskResponse> tasks, int pageSize, Function<TaskResponse, TaskCursor> cursorOf) {
+		if (tasks.size() <= pageSize) {
+			return new TaskPage(tasks, null);
+		}
+		List<TaskResponse> page = tasks.subList(0, pageSize);
+		return new TaskPage(page, cursorOf.apply(page.get(pageSize - 1)).encode());
 	}
 }
@@ -1,29 +1,58 @@
 package com.todo.rails.elite.starter.code.service;
 
+import com.todo.rails.elite.starter.code.config.CacheConfig;
+import com.todo.rails.elite.starter.code.config.MetricsConfig;
+import com.todo.rails.elite.starter.code.config.ReadFromReplica;
 import com.todo.rails.elite.starter.code.model.User;
+import com.todo.rails.elite.starter.code.model.dto.UserResponse;
+import com.todo.rails.elite.starter.code.model.dto.UserRole;
+import com.todo.rails.elite.starter.code.model.dto.UserSummary;
+import com.todo.rails.elite.starter.code.model.event.TaskChangedEvent;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
 import com.todo.rails.elite.starter.code.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 
 // Service Layer: UserService. Implement business logic for managing users, including validation, password encoding, and error handling.
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class UserService {
 	private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 	private final UserRepository userRepository;
-	private final BCryptPasswordEncoder passwordEncoder;
+	private final TaskRepository taskRepository;
+	private final PasswordEncoder passwordEncoder;
+	private final ApplicationEventPublisher eventPublisher;
 
 	@Autowired
-	public UserService(UserRepository userRepository, BCryptPasswordEncoder passwordEncoder) {
+	public UserService(
+			UserRepository userRepository,
+			TaskRepository taskRepository,
+			PasswordEncoder passwordEncoder,
+			ApplicationEventPublisher eventPublisher
+	) {
 		this.userRepository = userRepository;
+		this.taskRepository = taskRepository;
 		this.passwordEncoder = passwordEncoder;
+		this.eventPublisher = eventPublisher;
 	}
 
 	// add a user
@@ -36,8 +65,8 @@ public class UserService {
 			logger.error("Email already exists: {}", user.getEmail());
 			throw new RuntimeException("Email already exists");
 		}
-        if (user.getRoles() == null || user.getRoles().isBlank()) {
-            user.setRoles("USER"); // or "ROLE_USER" if you’re using Spring Security conventions
+        if (user.getRoles() == null || user.getRoles().isEmpty()) {
+            user.setRoles(Set.of("USER")); // or "ROLE_USER" if you’re using Spring Security conventions
         }
 		String password = user.getPassword();
 		// Enable password encoder in user service
@@ -47,6 +76,7 @@ public class UserService {
 	}
 
 	// get a user by username
+	@Cacheable(cacheNames = CacheConfig.USERS_BY_USERNAME, key = "#username")
 	public User getUserByUsername(
 			@NotNull(message = "Username cannot be null")
 			@NotBlank(message = "Username cannot be blank")
@@ -61,37 +91,65 @@ public class UserService {
 				);
 	}
 
-	// get a user by email
-	public User getUserByEmail(
+	// get a user's public fields by username, for the user endpoints
+	@ReadFromReplica
+	@Transactional(readOnly = true)
+	public UserResponse getUserResponseByUsername(
+			@NotNull(message = "Username cannot be null")
+			@NotBlank(message = "Username cannot be blank")
+			String username
+	) {
+		UserSummary user = userRepository.findSummaryByUsername(username)
+				.orElseThrow(
+						() -> {
+							logger.error("User not found with username: {}", username);
+							return new RuntimeException("User not found");
+						}
+				);
+		return withRoles(List.of(user), userRepository.findRolesByUserIdIn(List.of(user.id()))).getFirst();
+	}
+
+	// get a user's public fields by email
+	@ReadFromReplica
+	@Transactional(readOnly = true)
+	public UserResponse getUserByEmail(
 			@NotNull(message = "Email cannot be null")
 			@NotBlank(message = "Email cannot be blank")
 			@Email(message = "Email should be valid")
 			String email
 	) {
-		return userRepository.findByEmail(email)
+		UserSummary user = userRepository.findSummaryByEmail(email)
 				.orElseThrow(
 						() -> {
 							logger.error("User not found with email: {}", email);
 							return new RuntimeException("User not found");
 						}
 				);
+		return withRoles(List.of(user), userRepository.findRolesByUserIdIn(List.of(user.id()))).getFirst();
 	}
 
-	// get a user by id
-	public User getUserById(
+	// get a user's public fields by id
+	@ReadFromReplica
+	@Transactional(readOnly = true)
+	public UserResponse getUserById(
 			@NotNull(message = "Id cannot be null")
 			Long id
 	) {
-		return userRepository.findById(id)
+		UserSummary user = userRepository.findSummaryById(id)
 				.orElseThrow(
 						() -> {
 							logger.error("User not found with id: {}", id);
 							return new RuntimeException("User not found");
 						}
 				);
+		return withRoles(List.of(user), userRepository.findRolesByUserIdIn(List.of(user.id()))).getFirst();
 	}
 
 	// update a user
+	@Caching(evict = {
+			@CacheEvict(cacheNames = CacheConfig.USERS_BY_USERNAME, key = "#user.username"),
+			@CacheEvict(cacheNames = CacheConfig.USER_DETAILS, key = "#user.username")
+	})
 	public User updateUser(@NotNull(message = "User cannot be null") User user) {
 		if (userRepository.findByUsername(user.getUsername()).isEmpty()) {
 			logger.error("User not found for update: {}", user.getUsername());
@@ -100,20 +158,45 @@ public class UserService {
 		return userRepository.save(user);
 	}
 
-	// delete a user
+	// delete a user together with the tasks they own
+	@Caching(evict = {
+			@CacheEvict(cacheNames = CacheConfig.USERS_BY_USERNAME, key = "#user.username"),
+			@CacheEvict(cacheNames = CacheConfig.USER_DETAILS, key = "#user.username")
+	})
+	@Transactional
 	public void deleteUser(@NotNull(message = "User cannot be null") User user) {
-		if (userRepository.findByUsername(user.getUsername()).isEmpty()) {
+		Optional<User> existingUser = userRepository.findByUsername(user.getUsername());
+		if (existingUser.isEmpty()) {
 			logger.error("User not found for deletion: {}", user.getUsername());
 			throw new RuntimeException("User not found");
 		}
-		userRepository.delete(user);
+		Long ownerId = existingUser.get().getId();
+		if (taskRepository.deleteByOwnerId(ownerId) > 0) {
+			eventPublisher.publishEvent(TaskChangedEvent.bulk(TaskChangedEvent.Type.BULK_DELETED, ownerId, null));
+		}
+		userRepository.delete(existingUser.get());
 	}
 
-	public List<User> getAllUsers() {
-		if (userRepository.findAll().isEmpty()) {
+	// get every user's public fields, ordered by id
+	@ReadFromReplica
+	@Transactional(readOnly = true)
+	public List<UserResponse> getAllUsers() {
+		List<UserSummary> users = userRepository.findAllSummariesByOrderByIdAsc();
+		if (users.isEmpty()) {
 			logger.error("No users found");
 			throw new RuntimeException("No users found");
 		}
-		return userRepository.findAll();
+		return withRoles(users, userRepository.findAllRoles());
+	}
+
+	// Attaches roles read with one query, rather than one collection load per user.
+	private static List<UserResponse> withRoles(List<UserSummary> users, List<UserRole> roles) {
+		Map<Long, Set<String>> rolesByUser = new HashMap<>();
+		for (UserRole role : roles) {
+			rolesByUser.computeIfAbsent(role.userId(), userId -> new TreeSet<>()).add(role.role());
+		}
+		return users.stream()
+				.map(user -> new UserResponse(user.id(), user.username(), user.email(), rolesByUser.getOrDefault(user.id(), Set.of())))
+				.toList();
 	}
 }
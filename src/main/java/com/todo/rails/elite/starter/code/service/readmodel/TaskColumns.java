@@ -0,0 +1,616 @@
+package com.todo.rails.elite.starter.code.service.readmodel;
+
+import com.todo.rails.elite.starter.code.model.dto.TaskResponse;
+import com.todo.rails.elite.starter.code.model.dto.TaskRow;
+import com.todo.rails.elite.starter.code.model.dto.TaskVersion;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Compact, columnar copy of tasks that serves task listings without the persistence context.
+ *
+ * <p>Every task occupies a row number. Its id, due date, modification time and version live in
+ * parallel primitive arrays indexed by that number and its completion in a bit set, while its title
+ * and description are kept as UTF-8 in direct byte buffers outside the Java heap. A million tasks
+ * thus cost the collector a handful of large arrays rather than millions of entities and strings.
+ * Replacing or removing a task leaves its old text behind as garbage, which is compacted away once it
+ * outweighs the live text.</p>
+ *
+ * <p>Each owner keeps their row numbers sorted by task id and, for pending tasks, by due date and
+ * then id, the orders the listings are paged in. A page is a binary search for the cursor followed by
+ * a sequential read that builds the response records directly.</p>
+ *
+ * <p>The version of a listing, its newest modification time and row count, is computed from the same
+ * rows the listing is read from, so a response tagged with it always describes the rows it carries,
+ * however far the copy is behind the database.</p>
+ *
+ * <p>Thread-safe: reads share a read lock and updates take the write lock.</p>
+ */
+public class TaskColumns {
+
+	/**
+	 * Size of each off-heap text buffer; a task whose text is larger gets a buffer of its own.
+	 */
+	static final int CHUNK_SIZE = 1 << 20;
+	// Stand for a null column; they sort first, as the database sorts nulls in ascending order.
+	private static final int NO_DUE_DATE = Integer.MIN_VALUE;
+	private static final long NO_VALUE = Long.MIN_VALUE;
+	private static final int INITIAL_CAPACITY = 1024;
+	private static final int MICROS_PER_SECOND = 1_000_000;
+	// Rough heap cost of an owner's map entry and row lists besides their arrays.
+	private static final int OWNER_OVERHEAD_BYTES = 128;
+
+	private final Map<Long, OwnerRows> owners = new HashMap<>();
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	// Per-task columns indexed by row number; free numbers belong to no owner.
+	private long[] taskIds = new long[INITIAL_CAPACITY];
+	private int[] dueDays = new int[INITIAL_CAPACITY];
+	private long[] lastModifiedMicros = new long[INITIAL_CAPACITY];
+	private long[] versions = new long[INITIAL_CAPACITY];
+	// Buffer index in the high half and position in the low half; the title is followed by the description.
+	private long[] textOffsets = new long[INITIAL_CAPACITY];
+	private int[] titleLengths = new int[INITIAL_CAPACITY];
+	private int[] descriptionLengths = new int[INITIAL_CAPACITY];
+	private final BitSet completed = new BitSet(INITIAL_CAPACITY);
+	private int[] freeRows = new int[16];
+	private int freeCount;
+	private int nextRow;
+	private int size;
+	// Off-heap text; only the last buffer is written to.
+	private List<ByteBuffer> chunks = new ArrayList<>();
+	private long liveTextBytes;
+	private long garbageTextBytes;
+
+	/**
+	 * Adds a task, replacing whatever was held for it before.
+	 */
+	public void put(TaskRow row) {
+		lock.writeLock().lock();
+		try {
+			putRow(row, null);
+			compactIfWasteful();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Adds many tasks, replacing whatever was held for them before. Tasks arriving in id order are
+	 * appended to their owner's rows, and pending rows are sorted once at the end, so loading is linear.
+	 */
+	public void putAll(Stream<TaskRow> rows) {
+		Set<OwnerRows> unsorted = new HashSet<>();
+		lock.writeLock().lock();
+		try {
+			rows.forEach(row -> putRow(row, unsorted));
+			unsorted.forEach(OwnerRows::sortPending);
+			compactIfWasteful();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Replaces the given tasks of an owner with the rows read for them; tasks without a row are removed.
+	 */
+	public void update(long ownerId, Collection<Long> taskIds, List<TaskRow> rows) {
+		Set<Long> missing = new HashSet<>(taskIds);
+		lock.writeLock().lock();
+		try {
+			for (TaskRow row : rows) {
+				missing.remove(row.id());
+				putRow(row, null);
+			}
+			missing.forEach(taskId -> removeRow(ownerId, taskId));
+			compactIfWasteful();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes a task, if held.
+	 */
+	public void remove(long ownerId, long taskId) {
+		lock.writeLock().lock();
+		try {
+			removeRow(ownerId, taskId);
+			compactIfWasteful();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Replaces every task of an owner with the given rows, best passed in id order.
+	 */
+	public void replaceOwner(long ownerId, List<TaskRow> rows) {
+		Set<OwnerRows> unsorted = new HashSet<>();
+		lock.writeLock().lock();
+		try {
+			OwnerRows ownerRows = owners.remove(ownerId);
+			if (ownerRows != null) {
+				for (int i = 0; i < ownerRows.size; i++) {
+					releaseText(ownerRows.rows[i]);
+					releaseRow(ownerRows.rows[i]);
+				}
+				size -= ownerRows.size;
+			}
+			for (TaskRow row : rows) {
+				putRow(row, unsorted);
+			}
+			unsorted.forEach(OwnerRows::sortPending);
+			compactIfWasteful();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns up to {@code limit} of the owner's tasks with an id greater than {@code afterId}, ordered by id.
+	 */
+	public List<TaskResponse> tasksAfter(long ownerId, long afterId, int limit) {
+		lock.readLock().lock();
+		try {
+			OwnerRows ownerRows = owners.get(ownerId);
+			if (ownerRows == null) {
+				return List.of();
+			}
+			int index = ownerRows.indexOf(afterId);
+			int from = index >= 0 ? index + 1 : -index - 1;
+			int to = (int) Math.min(ownerRows.size, (long) from + limit);
+			List<TaskResponse> tasks = new ArrayList<>(Math.max(to - from, 0));
+			for (int i = from; i < to; i++) {
+				tasks.add(toResponse(ownerRows.rows[i]));
+			}
+			return tasks;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns up to {@code limit} of the owner's pending tasks ordered by due date and id, starting after
+	 * the given due date and id, or with the first one if {@code afterDueDate} is {@code null}.
+	 */
+	public List<TaskResponse> pendingAfter(long ownerId, LocalDate afterDueDate, long afterId, int limit) {
+		lock.readLock().lock();
+		try {
+			OwnerRows ownerRows = owners.get(ownerId);
+			if (ownerRows == null) {
+				return List.of();
+			}
+			int from = afterDueDate == null ? 0 : ownerRows.pendingAfter(toDueDay(afterDueDate), afterId);
+			int to = (int) Math.min(ownerRows.pendingSize, (long) from + limit);
+			List<TaskResponse> tasks = new ArrayList<>(Math.max(to - from, 0));
+			for (int i = from; i < to; i++) {
+				tasks.add(toResponse(ownerRows.pending[i]));
+			}
+			return tasks;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns up to {@code limit} of the owner's pending tasks due on the given day with an id greater than
+	 * {@code afterId}, ordered by id.
+	 */
+	public List<TaskResponse> pendingDueOn(long ownerId, LocalDate dueDate, long afterId, int limit) {
+		return pendingDueBetween(ownerId, dueDate, dueDate, dueDate, afterId, limit);
+	}
+
+	/**
+	 * Returns up to {@code limit} of the owner's pending tasks due from {@code from} through {@code to},
+	 * ordered by due date and id, starting after the given due date and id or with the first one in the
+	 * range if {@code afterDueDate} is {@code null}. A {@code null} {@code from} leaves the range open
+	 * towards the past. Tasks without a due date are never included.
+	 *
+	 * <p>The range is found with a binary search of the owner's pending order, so its cost depends on
+	 * the page, not on how many tasks lie outside the range.</p>
+	 */
+	public List<TaskResponse> pendingDueBetween(
+			long ownerId,
+			LocalDate from,
+			LocalDate to,
+			LocalDate afterDueDate,
+			long afterId,
+			int limit
+	) {
+		int toDay = toDueDay(to);
+		lock.readLock().lock();
+		try {
+			OwnerRows ownerRows = owners.get(ownerId);
+			if (ownerRows == null) {
+				return List.of();
+			}
+			// Rows without a due date sort before every dated row.
+			int start = from == null
+					? ownerRows.pendingAfter(NO_DUE_DATE, Long.MAX_VALUE)
+					: ownerRows.pendingAfter(toDueDay(from), Long.MIN_VALUE);
+			if (afterDueDate != null) {
+				start = Math.max(start, ownerRows.pendingAfter(toDueDay(afterDueDate), afterId));
+			}
+			List<TaskResponse> tasks = new ArrayList<>();
+			for (int i = start; i < ownerRows.pendingSize && tasks.size() < limit; i++) {
+				int row = ownerRows.pending[i];
+				if (dueDays[row] > toDay) {
+					break;
+				}
+				tasks.add(toResponse(row));
+			}
+			return tasks;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the version of the owner's listing of all tasks, as {@link #tasksAfter} reads it.
+	 */
+	public TaskVersion version(long ownerId) {
+		lock.readLock().lock();
+		try {
+			OwnerRows ownerRows = owners.get(ownerId);
+			return ownerRows == null ? new TaskVersion(null, 0) : versionOf(ownerRows.rows, 0, ownerRows.size);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the version of the owner's listing of pending tasks, as {@link #pendingAfter} reads it.
+	 */
+	public TaskVersion pendingVersion(long ownerId) {
+		lock.readLock().lock();
+		try {
+			OwnerRows ownerRows = owners.get(ownerId);
+			return ownerRows == null ? new TaskVersion(null, 0) : versionOf(ownerRows.pending, 0, ownerRows.pendingSize);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the version of the owner's listing of pending tasks due from {@code from} through {@code to},
+	 * as {@link #pendingDueBetween} reads it; a {@code null} {@code from} leaves the range open towards the past.
+	 */
+	public TaskVersion pendingVersionDueBetween(long ownerId, LocalDate from, LocalDate to) {
+		lock.readLock().lock();
+		try {
+			OwnerRows ownerRows = owners.get(ownerId);
+			if (ownerRows == null) {
+				return new TaskVersion(null, 0);
+			}
+			int start = from == null
+					? ownerRows.pendingAfter(NO_DUE_DATE, Long.MAX_VALUE)
+					: ownerRows.pendingAfter(toDueDay(from), Long.MIN_VALUE);
+			int end = ownerRows.pendingAfter(toDueDay(to), Long.MAX_VALUE);
+			return versionOf(ownerRows.pending, start, Math.max(start, end));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the ids of the owners that have tasks held.
+	 */
+	public Set<Long> ownerIds() {
+		lock.readLock().lock();
+		try {
+			return Set.copyOf(owners.keySet());
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of tasks held.
+	 */
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return size;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the bytes allocated outside the heap for task text, including garbage not yet compacted.
+	 */
+	public long offHeapBytes() {
+		lock.readLock().lock();
+		try {
+			long bytes = 0;
+			for (ByteBuffer chunk : chunks) {
+				bytes += chunk.capacity();
+			}
+			return bytes;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns an estimate of the heap taken by the columns and the owners' row lists, from their capacities.
+	 */
+	public long heapBytes() {
+		lock.readLock().lock();
+		try {
+			long bytes = (long) taskIds.length * (Long.BYTES * 4 + Integer.BYTES * 3)
+					+ completed.size() / Byte.SIZE
+					+ (long) freeRows.length * Integer.BYTES;
+			for (OwnerRows ownerRows : owners.values()) {
+				bytes += OWNER_OVERHEAD_BYTES
+						+ (long) ownerRows.ids.length * Long.BYTES
+						+ (long) ownerRows.rows.length * Integer.BYTES
+						+ (long) ownerRows.pending.length * Integer.BYTES;
+			}
+			return bytes;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// With a set of unsorted owners, pending rows are left for OwnerRows.sortPending instead of being kept in order.
+	private void putRow(TaskRow task, Set<OwnerRows> unsorted) {
+		OwnerRows ownerRows = owners.computeIfAbsent(task.ownerId(), ignored -> new OwnerRows());
+		if (unsorted != null) {
+			unsorted.add(ownerRows);
+		}
+		int index = ownerRows.indexOf(task.id());
+		int row;
+		if (index >= 0) {
+			row = ownerRows.rows[index];
+			if (unsorted == null && !completed.get(row)) {
+				ownerRows.removePending(row);
+			}
+			releaseText(row);
+		} else {
+			row = allocateRow();
+			ownerRows.insert(-index - 1, task.id(), row);
+			size++;
+		}
+		taskIds[row] = task.id();
+		dueDays[row] = task.dueDate() == null ? NO_DUE_DATE : toDueDay(task.dueDate());
+		lastModifiedMicros[row] = task.lastModified() == null ? NO_VALUE : toMicros(task.lastModified());
+		versions[row] = task.version() == null ? NO_VALUE : task.version();
+		completed.set(row, task.completed());
+		writeText(row, task.title().getBytes(StandardCharsets.UTF_8), task.description().getBytes(StandardCharsets.UTF_8));
+		if (unsorted == null && !task.completed()) {
+			ownerRows.addPending(row);
+		}
+	}
+
+	private void removeRow(long ownerId, long taskId) {
+		OwnerRows ownerRows = owners.get(ownerId);
+		if (ownerRows == null) {
+			return;
+		}
+		int index = ownerRows.indexOf(taskId);
+		if (index < 0) {
+			return;
+		}
+		int row = ownerRows.rows[index];
+		if (!completed.get(row)) {
+			ownerRows.removePending(row);
+		}
+		ownerRows.removeAt(index);
+		if (ownerRows.size == 0) {
+			owners.remove(ownerId);
+		}
+		releaseText(row);
+		releaseRow(row);
+		size--;
+	}
+
+	// Newest modification time and count of the given rows, as the database's version queries compute them.
+	private TaskVersion versionOf(int[] rowNumbers, int from, int to) {
+		long newest = NO_VALUE;
+		for (int i = from; i < to; i++) {
+			newest = Math.max(newest, lastModifiedMicros[rowNumbers[i]]);
+		}
+		return new TaskVersion(newest == NO_VALUE ? null : fromMicros(newest), to - from);
+	}
+
+	private TaskResponse toResponse(int row) {
+		int titleLength = titleLengths[row];
+		return new TaskResponse(
+				taskIds[row],
+				readText(row, 0, titleLength),
+				readText(row, titleLength, descriptionLengths[row]),
+				completed.get(row),
+				dueDays[row] == NO_DUE_DATE ? null : LocalDate.ofEpochDay(dueDays[row]),
+				lastModifiedMicros[row] == NO_VALUE ? null : fromMicros(lastModifiedMicros[row]),
+				versions[row] == NO_VALUE ? null : versions[row]
+		);
+	}
+
+	private void writeText(int row, byte[] title, byte[] description) {
+		int length = title.length + description.length;
+		ByteBuffer chunk = chunks.isEmpty() ? null : chunks.getLast();
+		if (chunk == null || chunk.remaining() < length) {
+			chunk = ByteBuffer.allocateDirect(Math.max(CHUNK_SIZE, length));
+			chunks.add(chunk);
+		}
+		textOffsets[row] = (long) (chunks.size() - 1) << 32 | chunk.position();
+		chunk.put(title).put(description);
+		titleLengths[row] = title.length;
+		descriptionLengths[row] = description.length;
+		liveTextBytes += length;
+	}
+
+	// Absolute reads leave the buffer's position alone, so readers holding the read lock do not interfere.
+	private String readText(int row, int from, int length) {
+		long offset = textOffsets[row];
+		byte[] bytes = new byte[length];
+		chunks.get((int) (offset >>> 32)).get((int) offset + from, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private void releaseText(int row) {
+		int length = titleLengths[row] + descriptionLengths[row];
+		liveTextBytes -= length;
+		garbageTextBytes += length;
+	}
+
+	// Copies the live text into fresh buffers once there is more garbage than live text; the old buffers'
+	// memory is freed when the collector clears them.
+	private void compactIfWasteful() {
+		if (garbageTextBytes < CHUNK_SIZE || garbageTextBytes <= liveTextBytes) {
+			return;
+		}
+		List<ByteBuffer> old = chunks;
+		chunks = new ArrayList<>();
+		liveTextBytes = 0;
+		garbageTextBytes = 0;
+		for (OwnerRows ownerRows : owners.values()) {
+			for (int i = 0; i < ownerRows.size; i++) {
+				int row = ownerRows.rows[i];
+				long offset = textOffsets[row];
+				ByteBuffer chunk = old.get((int) (offset >>> 32));
+				byte[] title = new byte[titleLengths[row]];
+				byte[] description = new byte[descriptionLengths[row]];
+				chunk.get((int) offset, title);
+				chunk.get((int) offset + title.length, description);
+				writeText(row, title, description);
+			}
+		}
+	}
+
+	private int allocateRow() {
+		if (freeCount > 0) {
+			return freeRows[--freeCount];
+		}
+		if (nextRow == taskIds.length) {
+			int capacity = taskIds.length * 2;
+			taskIds = Arrays.copyOf(taskIds, capacity);
+			dueDays = Arrays.copyOf(dueDays, capacity);
+			lastModifiedMicros = Arrays.copyOf(lastModifiedMicros, capacity);
+			versions = Arrays.copyOf(versions, capacity);
+			textOffsets = Arrays.copyOf(textOffsets, capacity);
+			titleLengths = Arrays.copyOf(titleLengths, capacity);
+			descriptionLengths = Arrays.copyOf(descriptionLengths, capacity);
+		}
+		return nextRow++;
+	}
+
+	private void releaseRow(int row) {
+		if (freeCount == freeRows.length) {
+			freeRows = Arrays.copyOf(freeRows, freeCount * 2);
+		}
+		freeRows[freeCount++] = row;
+		completed.clear(row);
+		titleLengths[row] = 0;
+		descriptionLengths[row] = 0;
+	}
+
+	private static int toDueDay(LocalDate dueDate) {
+		return Math.toIntExact(dueDate.toEpochDay());
+	}
+
+	private static long toMicros(Instant instant) {
+		return instant.getEpochSecond() * MICROS_PER_SECOND + instant.getNano() / 1_000;
+	}
+
+	private static Instant fromMicros(long micros) {
+		return Instant.ofEpochSecond(Math.floorDiv(micros, MICROS_PER_SECOND), Math.floorMod(micros, MICROS_PER_SECOND) * 1_000L);
+	}
+
+	// One owner's row numbers: all of them by task id, and the pending ones by due date and task id.
+	private final class OwnerRows {
+		private long[] ids = new long[8];
+		private int[] rows = new int[8];
+		private int size;
+		private int[] pending = new int[8];
+		private int pendingSize;
+
+		private int indexOf(long taskId) {
+			return Arrays.binarySearch(ids, 0, size, taskId);
+		}
+
+		private void insert(int index, long taskId, int row) {
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+				rows = Arrays.copyOf(rows, size * 2);
+			}
+			System.arraycopy(ids, index, ids, index + 1, size - index);
+			System.arraycopy(rows, index, rows, index + 1, size - index);
+			ids[index] = taskId;
+			rows[index] = row;
+			size++;
+		}
+
+		private void removeAt(int index) {
+			System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+			System.arraycopy(rows, index + 1, rows, index, size - index - 1);
+			size--;
+		}
+
+		// Index of the first pending row ordered after the given due date and task id.
+		private int pendingAfter(int dueDay, long taskId) {
+			int low = 0;
+			int high = pendingSize;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				int row = pending[middle];
+				int order = dueDays[row] != dueDay ? Integer.compare(dueDays[row], dueDay) : Long.compare(taskIds[row], taskId);
+				if (order <= 0) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			return low;
+		}
+
+		// Must run while the row still holds the due date and id it was added with.
+		private void addPending(int row) {
+			int index = pendingAfter(dueDays[row], taskIds[row]);
+			if (pendingSize == pending.length) {
+				pending = Arrays.copyOf(pending, pendingSize * 2);
+			}
+			System.arraycopy(pending, index, pending, index + 1, pendingSize - index);
+			pending[index] = row;
+			pendingSize++;
+		}
+
+		private void removePending(int row) {
+			int index = pendingAfter(dueDays[row], taskIds[row]) - 1;
+			System.arraycopy(pending, index + 1, pending, index, pendingSize - index - 1);
+			pendingSize--;
+		}
+
+		// Orders all pending rows at once: the due day and the row's index in id order pack into one sortable long.
+		private void sortPending() {
+			long[] keys = new long[size];
+			int count = 0;
+			for (int i = 0; i < size; i++) {
+				if (!completed.get(rows[i])) {
+					keys[count++] = (long) dueDays[rows[i]] << 32 | i;
+				}
+			}
+			Arrays.sort(keys, 0, count);
+			pending = new int[Math.max(count, 8)];
+			for (int i = 0; i < count; i++) {
+				pending[i] = rows[(int) keys[i]];
+			}
+			pendingSize = count;
+		}
+	}
+}
@@ -0,0 +1,483 @@
+package com.todo.rails.elite.starter.code.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory inverted index over task titles and descriptions.
+ *
+ * <p>Each owner has a sorted term dictionary of their own, so a query only reads that owner's
+ * postings and a prefix query is a range scan. The last query token is also matched as a prefix of
+ * longer terms, with a lower weight than an exact match, so results follow a query as it is typed. Results are ranked with BM25, title
+ * occurrences count {@value #TITLE_WEIGHT} times as much as description occurrences, and documents
+ * matching more of the query terms rank higher.</p>
+ *
+ * <p>Postings are kept sorted by document number and per-document data lives in parallel arrays. A
+ * query merges the matching posting lists in document order and scores each candidate once, so it
+ * allocates nothing in proportion to the number of matches.</p>
+ *
+ * <p>Thread-safe: searches share a read lock and updates take the write lock.</p>
+ */
+public class TaskSearchIndex {
+
+	/**
+	 * Weight of a title token relative to a description token.
+	 */
+	static final int TITLE_WEIGHT = 3;
+	private static final int MAX_QUERY_TERMS = 8;
+	private static final int MAX_PREFIX_EXPANSIONS = 64;
+	private static final int MAX_TOKEN_LENGTH = 64;
+	private static final float PREFIX_BOOST = 0.6f;
+	private static final float K1 = 1.2f;
+	private static final float B = 0.75f;
+
+	private final Map<Long, OwnerTerms> owners = new HashMap<>();
+	private final Map<Long, Integer> docNumbersByTaskId = new HashMap<>();
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	// Per-document data indexed by document number; free numbers have null postings.
+	private long[] taskIds = new long[1024];
+	private long[] ownerIds = new long[1024];
+	private int[] lengths = new int[1024];
+	private Postings[][] docPostings = new Postings[1024][];
+	private int[] freeDocNumbers = new int[16];
+	private int freeCount;
+	private int nextDocNumber;
+
+	/**
+	 * Adds a task to the index, replacing whatever was indexed for it before.
+	 */
+	public void put(long ownerId, long taskId, String title, String description) {
+		Map<String, Integer> weights = new HashMap<>();
+		int length = addTokens(title, TITLE_WEIGHT, weights) + addTokens(description, 1, weights);
+		lock.writeLock().lock();
+		try {
+			Integer existing = docNumbersByTaskId.get(taskId);
+			if (existing != null) {
+				unlink(existing);
+			}
+			int docNumber = existing != null ? existing : allocateDocNumber();
+			OwnerTerms ownerTerms = owners.computeIfAbsent(ownerId, ignored -> new OwnerTerms());
+			Postings[] postings = new Postings[weights.size()];
+			int i = 0;
+			for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+				Postings termPostings = ownerTerms.terms.computeIfAbsent(entry.getKey(), Postings::new);
+				termPostings.add(docNumber, entry.getValue());
+				postings[i++] = termPostings;
+			}
+			taskIds[docNumber] = taskId;
+			ownerIds[docNumber] = ownerId;
+			lengths[docNumber] = length;
+			docPostings[docNumber] = postings;
+			docNumbersByTaskId.put(taskId, docNumber);
+			ownerTerms.documents++;
+			ownerTerms.totalLength += length;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes a task from the index. Does nothing if the task is not indexed for this owner.
+	 */
+	public void remove(long ownerId, long taskId) {
+		lock.writeLock().lock();
+		try {
+			Integer docNumber = docNumbersByTaskId.get(taskId);
+			if (docNumber == null || ownerIds[docNumber] != ownerId) {
+				return;
+			}
+			unlink(docNumber);
+			docNumbersByTaskId.remove(taskId);
+			releaseDocNumber(docNumber);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes every task of an owner from the index.
+	 */
+	public void removeOwner(long ownerId) {
+		lock.writeLock().lock();
+		try {
+			if (owners.remove(ownerId) == null) {
+				return;
+			}
+			for (int docNumber = 0; docNumber < nextDocNumber; docNumber++) {
+				if (docPostings[docNumber] != null && ownerIds[docNumber] == ownerId) {
+					docNumbersByTaskId.remove(taskIds[docNumber]);
+					docPostings[docNumber] = null;
+					releaseDocNumber(docNumber);
+				}
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the ids of the owner's best-matching tasks, best first.
+	 */
+	public List<Long> search(long ownerId, String query, int limit) {
+		List<String> queryTerms = queryTerms(query);
+		if (queryTerms.isEmpty() || limit < 1) {
+			return List.of();
+		}
+		lock.readLock().lock();
+		try {
+			OwnerTerms ownerTerms = owners.get(ownerId);
+			if (ownerTerms == null) {
+				return List.of();
+			}
+			List<Match> matches = new ArrayList<>();
+			for (int termIndex = 0; termIndex < queryTerms.size(); termIndex++) {
+				String term = queryTerms.get(termIndex);
+				Iterable<Postings> termPostings = termIndex == queryTerms.size() - 1
+						? ownerTerms.withPrefix(term).values()
+						: ownerTerms.exactly(term);
+				int expansions = 0;
+				for (Postings postings : termPostings) {
+					if (++expansions > MAX_PREFIX_EXPANSIONS) {
+						break;
+					}
+					float idf = (float) Math.log(
+							1 + (ownerTerms.documents - postings.size + 0.5) / (postings.size + 0.5)
+					);
+					float boost = postings.term.length() == term.length() ? 1f : PREFIX_BOOST;
+					matches.add(new Match(termIndex, postings, idf * boost));
+				}
+			}
+			if (matches.isEmpty()) {
+				return List.of();
+			}
+			float averageLength = (float) ownerTerms.totalLength / ownerTerms.documents;
+			float termCount = queryTerms.size();
+			TopDocs top = new TopDocs(limit);
+			MergedPostings merged = new MergedPostings(matches);
+			while (merged.hasNext()) {
+				int docNumber = merged.docNumber();
+				float norm = K1 * (1 - B + B * lengths[docNumber] / averageLength);
+				float score = 0;
+				int matchedTerms = 0;
+				do {
+					Match match = merged.match();
+					int weight = merged.weight();
+					score += match.weight() * weight * (K1 + 1) / (weight + norm);
+					matchedTerms |= 1 << match.termIndex();
+					merged.advance();
+				} while (merged.hasNext() && merged.docNumber() == docNumber);
+				// Documents matching every query term outrank documents matching only some of them.
+				top.offer(taskIds[docNumber], score * Integer.bitCount(matchedTerms) / termCount);
+			}
+			return top.taskIds();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of indexed tasks.
+	 */
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return docNumbersByTaskId.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void unlink(int docNumber) {
+		OwnerTerms ownerTerms = owners.get(ownerIds[docNumber]);
+		for (Postings postings : docPostings[docNumber]) {
+			postings.remove(docNumber);
+			if (postings.size == 0) {
+				ownerTerms.terms.remove(postings.term);
+			}
+		}
+		docPostings[docNumber] = null;
+		ownerTerms.documents--;
+		ownerTerms.totalLength -= lengths[docNumber];
+		if (ownerTerms.documents == 0) {
+			owners.remove(ownerIds[docNumber]);
+		}
+	}
+
+	private int allocateDocNumber() {
+		if (freeCount > 0) {
+			return freeDocNumbers[--freeCount];
+		}
+		if (nextDocNumber == taskIds.length) {
+			int capacity = taskIds.length * 2;
+			taskIds = Arrays.copyOf(taskIds, capacity);
+			ownerIds = Arrays.copyOf(ownerIds, capacity);
+			lengths = Arrays.copyOf(lengths, capacity);
+			docPostings = Arrays.copyOf(docPostings, capacity);
+		}
+		return nextDocNumber++;
+	}
+
+	private void releaseDocNumber(int docNumber) {
+		if (freeCount == freeDocNumbers.length) {
+			freeDocNumbers = Arrays.copyOf(freeDocNumbers, freeCount * 2);
+		}
+		freeDocNumbers[freeCount++] = docNumber;
+	}
+
+	private static List<String> queryTerms(String query) {
+		Set<String> tokens = new LinkedHashSet<>();
+		tokenize(query, tokens::add);
+		return tokens.stream().limit(MAX_QUERY_TERMS).toList();
+	}
+
+	// Adds each token's weight to the map and returns the number of tokens.
+	private static int addTokens(String text, int weight, Map<String, Integer> weights) {
+		int[] count = new int[1];
+		tokenize(text, token -> {
+			weights.merge(token, weight, Integer::sum);
+			count[0]++;
+		});
+		return count[0];
+	}
+
+	/**
+	 * Splits text into lower-case runs of letters and digits, truncated to {@value #MAX_TOKEN_LENGTH} characters.
+	 */
+	static void tokenize(String text, Consumer<String> tokens) {
+		if (text == null) {
+			return;
+		}
+		int start = -1;
+		for (int i = 0; i <= text.length(); i++) {
+			boolean tokenChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+			if (tokenChar && start < 0) {
+				start = i;
+			} else if (!tokenChar && start >= 0) {
+				tokens.accept(text.substring(start, Math.min(i, start + MAX_TOKEN_LENGTH)).toLowerCase(Locale.ROOT));
+				start = -1;
+			}
+		}
+	}
+
+	private record Match(int termIndex, Postings postings, float weight) {
+	}
+
+	private static final class OwnerTerms {
+		private final NavigableMap<String, Postings> terms = new TreeMap<>();
+		private int documents;
+		private long totalLength;
+
+		private NavigableMap<String, Postings> withPrefix(String prefix) {
+			return terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+		}
+
+		private List<Postings> exactly(String term) {
+			Postings postings = terms.get(term);
+			return postings == null ? List.of() : List.of(postings);
+		}
+	}
+
+	// Posting list of one owner's term, sorted by document number.
+	private static final class Postings {
+		private final String term;
+		private int[] docNumbers = new int[2];
+		private int[] weights = new int[2];
+		private int size;
+
+		private Postings(String term) {
+			this.term = term;
+		}
+
+		private void add(int docNumber, int weight) {
+			if (size == docNumbers.length) {
+				docNumbers = Arrays.copyOf(docNumbers, size * 2);
+				weights = Arrays.copyOf(weights, size * 2);
+			}
+			// New tasks get the highest document number, so this is usually an append.
+			int index = size == 0 || docNumbers[size - 1] < docNumber
+					? size
+					: -Arrays.binarySearch(docNumbers, 0, size, docNumber) - 1;
+			System.arraycopy(docNumbers, index, docNumbers, index + 1, size - index);
+			System.arraycopy(weights, index, weights, index + 1, size - index);
+			docNumbers[index] = docNumber;
+			weights[index] = weight;
+			size++;
+		}
+
+		private void remove(int docNumber) {
+			int index = Arrays.binarySearch(docNumbers, 0, size, docNumber);
+			if (index >= 0) {
+				System.arraycopy(docNumbers, index + 1, docNumbers, index, size - index - 1);
+				System.arraycopy(weights, index + 1, weights, index, size - index - 1);
+				size--;
+			}
+		}
+	}
+
+	// Walks several posting lists at once in document order, using a min-heap of list positions.
+	private static final class MergedPostings {
+		private final Match[] matches;
+		private final int[] positions;
+		// Document number at each list's position, so heap comparisons read one array.
+		private final int[] heads;
+		private final int[] heap;
+		private int size;
+
+		private MergedPostings(List<Match> matches) {
+			this.matches = matches.toArray(Match[]::new);
+			this.positions = new int[this.matches.length];
+			this.heads = new int[this.matches.length];
+			this.heap = new int[this.matches.length];
+			for (int list = 0; list < this.matches.length; list++) {
+				heads[list] = this.matches[list].postings().docNumbers[0];
+				heap[size] = list;
+				siftUp(size++);
+			}
+		}
+
+		private boolean hasNext() {
+			return size > 0;
+		}
+
+		private int docNumber() {
+			return heads[heap[0]];
+		}
+
+		private Match match() {
+			return matches[heap[0]];
+		}
+
+		private int weight() {
+			return matches[heap[0]].postings().weights[positions[heap[0]]];
+		}
+
+		private void advance() {
+			int list = heap[0];
+			Postings postings = matches[list].postings();
+			if (++positions[list] == postings.size) {
+				heap[0] = heap[--size];
+			} else {
+				heads[list] = postings.docNumbers[positions[list]];
+			}
+			siftDown(0);
+		}
+
+		private void siftUp(int index) {
+			while (index > 0) {
+				int parent = (index - 1) / 2;
+				if (heads[heap[parent]] <= heads[heap[index]]) {
+					return;
+				}
+				swap(index, parent);
+				index = parent;
+			}
+		}
+
+		private void siftDown(int index) {
+			while (true) {
+				int smallest = index;
+				for (int child = 2 * index + 1; child <= 2 * index + 2 && child < size; child++) {
+					if (heads[heap[child]] < heads[heap[smallest]]) {
+						smallest = child;
+					}
+				}
+				if (smallest == index) {
+					return;
+				}
+				swap(index, smallest);
+				index = smallest;
+			}
+		}
+
+		private void swap(int first, int second) {
+			int list = heap[first];
+			heap[first] = heap[second];
+			heap[second] = list;
+		}
+	}
+
+	// Bounded min-heap of the best documents; ties go to the older task so results are stable.
+	private static final class TopDocs {
+		private final long[] taskIds;
+		private final float[] scores;
+		private int size;
+
+		private TopDocs(int limit) {
+			taskIds = new long[limit];
+			scores = new float[limit];
+		}
+
+		private void offer(long taskId, float score) {
+			if (size < taskIds.length) {
+				taskIds[size] = taskId;
+				scores[size] = score;
+				siftUp(size++);
+			} else if (worse(taskIds[0], scores[0], taskId, score)) {
+				taskIds[0] = taskId;
+				scores[0] = score;
+				siftDown(0);
+			}
+		}
+
+		private List<Long> taskIds() {
+			Long[] ranked = new Long[size];
+			while (size > 0) {
+				ranked[size - 1] = taskIds[0];
+				size--;
+				swap(0, size);
+				siftDown(0);
+			}
+			return Arrays.asList(ranked);
+		}
+
+		private void siftUp(int index) {
+			while (index > 0) {
+				int parent = (index - 1) / 2;
+				if (!worse(taskIds[index], scores[index], taskIds[parent], scores[parent])) {
+					return;
+				}
+				swap(index, parent);
+				index = parent;
+			}
+		}
+
+		private void siftDown(int index) {
+			while (true) {
+				int worst = index;
+				for (int child = 2 * index + 1; child <= 2 * index + 2 && child < size; child++) {
+					if (worse(taskIds[child], scores[child], taskIds[worst], scores[worst])) {
+						worst = child;
+					}
+				}
+				if (worst == index) {
+					return;
+				}
+				swap(index, worst);
+				index = worst;
+			}
+		}
+
+		private void swap(int first, int second) {
+			long taskId = taskIds[first];
+			float score = scores[first];
+			taskIds[first] = taskIds[second];
+			scores[first] = scores[second];
+			taskIds[second] = taskId;
+			scores[second] = score;
+		}
+
+		private static boolean worse(long taskId, float score, long otherTaskId, float otherScore) {
+			return score < otherScore || score == otherScore && taskId > otherTaskId;
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package com.todo.rails.elite.starter.code.service.security;
+
+import com.todo.rails.elite.starter.code.model.security.SecurityUser;
+import com.todo.rails.elite.starter.code.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Service;
+
+import java.security.Principal;
+
+// Security Integration: CurrentUserService. Resolves the authenticated principal to the id of the user owning its tasks.
+@Service
+public class CurrentUserService {
+
+	private final UserService userService;
+
+	@Autowired
+	public CurrentUserService(UserService userService) {
+		this.userService = userService;
+	}
+
+	// Form logins carry the SecurityUser loaded at login and bearer tokens carry the id as a claim, so the id is read
+	// without a query; any other principal falls back to the cached username lookup.
+	public Long getUserId(Principal principal) {
+		if (principal == null) {
+			throw new AuthenticationCredentialsNotFoundException("User not authenticated");
+		}
+		if (principal instanceof Authentication authentication
+				&& authentication.getPrincipal() instanceof SecurityUser securityUser) {
+			return securityUser.getId();
+		}
+		if (principal instanceof JwtAuthenticationToken token
+				&& token.getToken().getClaim(TokenService.USER_ID_CLAIM) instanceof Number userId) {
+			return userId.longValue();
+		}
+		return userService.getUserByUsername(principal.getName()).getId();
+	}
+}
@@ -1,17 +1,27 @@
 package com.todo.rails.elite.starter.code.service.security;
 
+import com.todo.rails.elite.starter.code.config.CacheConfig;
+import com.todo.rails.elite.starter.code.model.User;
 import com.todo.rails.elite.starter.code.model.security.SecurityUser;
 import com.todo.rails.elite.starter.code.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 // Security Integration: JpaUserDetailsService. Implement UserDetailsService to load user-specific data during authentication.
 @Service
-public class JpaUserDetailsService implements UserDetailsService {
+public class JpaUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
+	private static final Logger logger = LoggerFactory.getLogger(JpaUserDetailsService.class);
 	private final UserRepository userRepository;
 
 	@Autowired
@@ -19,10 +29,28 @@ public class JpaUserDetailsService implements UserDetailsService {
 		this.userRepository = userRepository;
 	}
 
+	// Cached so repeated logins skip the query; UserService evicts the entry when the user changes or is deleted.
 	@Override
+	@Cacheable(cacheNames = CacheConfig.USER_DETAILS, key = "#username")
 	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
 		return userRepository.findByUsername(username)
 				.map(SecurityUser::new)
 				.orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 	}
+
+	// Called after a successful login whose stored hash uses an outdated encoding or strength, with the password
+	// hashed again by the current encoder.
+	@Override
+	@Caching(evict = {
+			@CacheEvict(cacheNames = CacheConfig.USER_DETAILS, key = "#user.username"),
+			@CacheEvict(cacheNames = CacheConfig.USERS_BY_USERNAME, key = "#user.username")
+	})
+	@Transactional
+	public UserDetails updatePassword(UserDetails user, String newPassword) {
+		User storedUser = userRepository.findByUsername(user.getUsername())
+				.orElseThrow(() -> new UsernameNotFoundException("User not found: " + user.getUsername()));
+		storedUser.setPassword(newPassword);
+		logger.info("Upgraded the password hash of user {}", user.getUsername());
+		return new SecurityUser(storedUser);
+	}
 }
@@ -0,0 +1,140 @@
+package com.todo.rails.elite.starter.code.service.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.todo.rails.elite.starter.code.model.dto.TokenResponse;
+import com.todo.rails.elite.starter.code.model.security.SecurityUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// Security Integration: TokenService. Issues and revokes the signed bearer tokens of the stateless API mode.
+//
+// A token carries everything a request needs: the username as subject, the user id as the "uid" claim and the roles
+// as the "roles" claim, so verifying it touches neither the session nor the database. Revoked token ids are kept in a
+// local cache only until the token would have expired anyway; each node keeps its own list.
+@Service
+@ConditionalOnProperty(name = "todo.security.token.enabled", havingValue = "true")
+public class TokenService {
+	/**
+	 * Claim holding the id of the user the token was issued to.
+	 */
+	public static final String USER_ID_CLAIM = "uid";
+	/**
+	 * Claim holding the user's roles.
+	 */
+	public static final String ROLES_CLAIM = "roles";
+	/**
+	 * Algorithm tokens are signed with.
+	 */
+	public static final MacAlgorithm SIGNING_ALGORITHM = MacAlgorithm.HS256;
+	private static final String TOKEN_TYPE = "Bearer";
+
+	private final JwtEncoder jwtEncoder;
+	private final AuthenticationManager authenticationManager;
+	private final String issuer;
+	private final Duration ttl;
+	// Ids of revoked tokens that have not expired yet.
+	private final Cache<String, Boolean> revokedTokenIds;
+
+	@Autowired
+	public TokenService(
+			JwtEncoder jwtEncoder,
+			JpaUserDetailsService userDetailsService,
+			PasswordEncoder passwordEncoder,
+			MeterRegistry meterRegistry,
+			@Value("${todo.security.token.issuer:todo-rails}") String issuer,
+			@Value("${todo.security.token.ttl:15m}") Duration ttl,
+			@Value("${todo.security.token.revocation-maximum-size:100000}") long revocationMaximumSize
+	) {
+		this.jwtEncoder = jwtEncoder;
+		DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider(userDetailsService);
+		authenticationProvider.setPasswordEncoder(passwordEncoder);
+		authenticationProvider.setUserDetailsPasswordService(userDetailsService);
+		this.authenticationManager = new ProviderManager(authenticationProvider);
+		this.issuer = issuer;
+		this.ttl = ttl;
+		this.revokedTokenIds = Caffeine.newBuilder()
+				.maximumSize(revocationMaximumSize)
+				.expireAfterWrite(ttl)
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, revokedTokenIds, "revokedTokens");
+	}
+
+	public String getIssuer() {
+		return issuer;
+	}
+
+	// This method checks the user's credentials and issues a token for them; it throws an AuthenticationException
+	// when they are wrong.
+	public TokenResponse issueToken(String username, String password) {
+		if (username == null || password == null) {
+			throw new BadCredentialsException("Username and password are required");
+		}
+		Authentication authentication = authenticationManager.authenticate(
+				UsernamePasswordAuthenticationToken.unauthenticated(username, password));
+		SecurityUser user = (SecurityUser) authentication.getPrincipal();
+		Instant now = Instant.now();
+		JwtClaimsSet claims = JwtClaimsSet.builder()
+				.id(UUID.randomUUID().toString())
+				.issuer(issuer)
+				.subject(user.getUsername())
+				.issuedAt(now)
+				.expiresAt(now.plus(ttl))
+				.claim(USER_ID_CLAIM, user.getId())
+				.claim(ROLES_CLAIM, user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList())
+				.build();
+		JwsHeader header = JwsHeader.with(SIGNING_ALGORITHM).build();
+		String token = jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+		return new TokenResponse(token, TOKEN_TYPE, ttl.toSeconds());
+	}
+
+	// This method revokes a token before it expires.
+	public void revokeToken(Jwt token) {
+		if (token.getId() != null) {
+			revokedTokenIds.put(token.getId(), Boolean.TRUE);
+		}
+	}
+
+	// Token validator rejecting revoked tokens.
+	public OAuth2TokenValidatorResult validate(Jwt token) {
+		if (token.getId() != null && revokedTokenIds.getIfPresent(token.getId()) != null) {
+			return OAuth2TokenValidatorResult.failure(new OAuth2Error(OAuth2ErrorCodes.INVALID_TOKEN, "The token has been revoked", null));
+		}
+		return OAuth2TokenValidatorResult.success();
+	}
+
+	// Builds the authentication of a verified token from its claims, reusing the interned authorities of SecurityUser.
+	public JwtAuthenticationToken toAuthentication(Jwt token) {
+		List<String> roles = token.getClaimAsStringList(ROLES_CLAIM);
+		return new JwtAuthenticationToken(token, SecurityUser.authoritiesOf(roles != null ? Set.copyOf(roles) : Set.of()), token.getSubject());
+	}
+}
@@ -21,4 +21,51 @@ searchButton.addEventListener("click", () => {
 darkModeSwitch.addEventListener("click", () => {
     const isDark = body.classList.toggle("dark");
     darkModeText.innerText = isDark ? "Light Mode" : "Dark Mode";
-});
\ No newline at end of file
+});
+
+// Live dashboard: counters follow the server's task event stream instead of reloading the page.
+const dashboard = document.querySelector(".dashboard-container")
+
+if (dashboard && window.EventSource) {
+    const counters = {
+        pendingToday: document.getElementById("tasks-pending-today"),
+        pending: document.getElementById("tasks-pending-total"),
+        completed: document.getElementById("tasks-completed-total")
+    }
+    const tableBody = document.getElementById("table-body")
+    const events = new EventSource(dashboard.dataset.eventsUrl)
+    // Every event carries the counters as they were when it was sent, so they replace the shown ones.
+    const showCounts = (counts) => {
+        Object.keys(counters).forEach((name) => counters[name].textContent = counts[name])
+    }
+
+    events.addEventListener("counts", (event) => showCounts(JSON.parse(event.data)))
+
+    ;["created", "updated", "completed", "reopened", "deleted"].forEach((type) => {
+        events.addEventListener(type, (event) => {
+            const {taskId, counts} = JSON.parse(event.data)
+            showCounts(counts)
+            if (type === "completed" || type === "deleted") {
+                tableBody.querySelector(`tr[data-task-id="${taskId}"]`)?.remove()
+            }
+        })
+    })
+
+    // With the stream open, completing or deleting a task no longer needs the redirect and reload.
+    tableBody.addEventListener("submit", (event) => {
+        const form = event.target
+        if (!form.hasAttribute("data-async")) {
+            return
+        }
+        event.preventDefault()
+        fetch(form.action, {method: "POST", body: new FormData(form), redirect: "manual"})
+            .then((response) => {
+                // The redirect to the dashboard is the success response; the stream updates the page instead.
+                if (response.type !== "opaqueredirect" && !response.ok) {
+                    throw new Error(`Task action failed with status ${response.status}`)
+                }
+            })
+            // Submitting the form normally shows the server's answer, including its error page.
+            .catch(() => form.submit())
+    })
+}
\ No newline at end of file
@@ -0,0 +1,105 @@
+package com.todo.rails.elite.starter.code.config;
+
+import com.todo.rails.elite.starter.code.model.User;
+import com.todo.rails.elite.starter.code.model.security.SecurityUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ActuatorSecurityTests.ActuatorEndpoints.class)
+@Import({SecurityConfig.class, ActuatorSecurityTests.ActuatorEndpoints.class, ActuatorSecurityTests.Metrics.class})
+public class ActuatorSecurityTests {
+
+    private static final String PASSWORD = "secret";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoBean
+    private UserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        String hash = passwordEncoder.encode(PASSWORD);
+        when(userDetailsService.loadUserByUsername("scraper"))
+                .thenReturn(new SecurityUser(user(1L, "scraper", hash, SecurityConfig.MONITORING_ROLE)));
+        when(userDetailsService.loadUserByUsername("user"))
+                .thenReturn(new SecurityUser(user(2L, "user", hash, "USER")));
+    }
+
+    @Test
+    void health_IsPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    void prometheus_WithoutCredentials_IsUnauthorized() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void prometheus_WithoutMonitoringRole_IsForbidden() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, basic("user")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void prometheus_WithMonitoringRole_IsServedWithoutSession() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, basic("scraper")))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.SET_COOKIE));
+    }
+
+    private static String basic(String username) {
+        String credentials = username + ":" + PASSWORD;
+        return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static User user(Long id, String username, String password, String role) {
+        User user = new User(username, password, username + "@example.com", Set.of(role));
+        user.setId(id);
+        return user;
+    }
+
+    // Stands in for the actuator endpoints, which the MVC slice does not start.
+    @RestController
+    static class ActuatorEndpoints {
+        @GetMapping({"/actuator/health", "/actuator/prometheus"})
+        String endpoint() {
+            return "ok";
+        }
+    }
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.todo.rails.elite.starter.code.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedPasswordEncoderTests {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.close();
+    }
+
+    @Test
+    void matches_DelegatesToEncoder() {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+        encoder = new BoundedPasswordEncoder(bcrypt, 1, 1, Duration.ofSeconds(10));
+
+        assertTrue(encoder.matches("secret", bcrypt.encode("secret")));
+        assertFalse(encoder.matches("wrong", bcrypt.encode("secret")));
+    }
+
+    @Test
+    void matches_FailsFastWhenQueueIsFull() throws Exception {
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(), 1, 1, Duration.ofSeconds(10));
+        // Occupies the only thread and the only queue slot.
+        Thread.ofVirtual().start(() -> encoder.matches("a", "a"));
+        Thread.ofVirtual().start(() -> encoder.matches("b", "b"));
+        while (encoder.getExecutor().getQueue().isEmpty()) {
+            Thread.sleep(1);
+        }
+
+        assertThrows(AuthenticationServiceException.class, () -> encoder.matches("c", "c"));
+    }
+
+    // Holds every check until the test ends.
+    private class BlockingEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            try {
+                release.await();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.todo.rails.elite.starter.code.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs Spring Session's JDBC store and the batched cleanup against an in-memory H2 database with
+ * Spring Session's own schema.
+ */
+public class JdbcSessionCleanupTests {
+
+    private static final int BATCH_SIZE = 2;
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private SessionRepository<Session> sessionRepository;
+    private JdbcSessionCleanup cleanup;
+
+    @BeforeEach
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:session-test-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("org/springframework/session/jdbc/schema-h2.sql")).execute(dataSource);
+        jdbcTemplate = spy(new JdbcTemplate(dataSource));
+        JdbcIndexedSessionRepository jdbcSessionRepository = new JdbcIndexedSessionRepository(
+                new JdbcTemplate(dataSource), new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        // The repository's session type is not public, so sessions are handled through the generic interface.
+        sessionRepository = (SessionRepository) jdbcSessionRepository;
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("sessionRepository", jdbcSessionRepository));
+        cleanup = new JdbcSessionCleanup(
+                beanFactory.getBeanProvider(JdbcIndexedSessionRepository.class),
+                jdbcTemplate,
+                new SimpleMeterRegistry(),
+                JdbcIndexedSessionRepository.DEFAULT_TABLE_NAME,
+                Duration.ofMinutes(1),
+                BATCH_SIZE
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(dataSource).execute("shutdown");
+    }
+
+    @Test
+    void sessionStore_KeepsAttributesBetweenRequests() {
+        String id = saveSession("user");
+
+        assertEquals("user", sessionRepository.findById(id).getAttribute("username"));
+    }
+
+    @Test
+    void deleteExpiredSessions_DeletesOnlyExpiredSessionsWithTheirAttributes() {
+        String expired = saveSession("expired");
+        String live = saveSession("live");
+        expire(expired);
+
+        assertEquals(1, cleanup.deleteExpiredSessions());
+
+        assertNull(sessionRepository.findById(expired));
+        assertEquals("live", sessionRepository.findById(live).getAttribute("username"));
+        assertEquals(1, new JdbcTemplate(dataSource).queryForObject("select count(*) from SPRING_SESSION_ATTRIBUTES", Integer.class));
+    }
+
+    @Test
+    void deleteExpiredSessions_DeletesInBatches() {
+        for (int i = 0; i < 5; i++) {
+            expire(saveSession("expired-" + i));
+        }
+
+        assertEquals(5, cleanup.deleteExpiredSessions());
+
+        // Two full batches and the remainder, each deleted in its own statement.
+        verify(jdbcTemplate, times(3)).update(any(PreparedStatementCreator.class));
+        assertEquals(0, new JdbcTemplate(dataSource).queryForObject("select count(*) from SPRING_SESSION", Integer.class));
+    }
+
+    @Test
+    void deleteExpiredSessions_KeepsSessionExtendedAfterItWasSelected() {
+        String extended = saveSession("extended");
+        String expired = saveSession("expired");
+        expire(extended);
+        expire(expired);
+        doAnswer(invocation -> {
+            // Another node serves a request of the session between the cleanup's select and its delete.
+            new JdbcTemplate(dataSource).update("update SPRING_SESSION set EXPIRY_TIME = ? where SESSION_ID = ?",
+                    System.currentTimeMillis() + 60_000, extended);
+            return invocation.callRealMethod();
+        }).when(jdbcTemplate).update(any(PreparedStatementCreator.class));
+
+        assertEquals(1, cleanup.deleteExpiredSessions());
+
+        assertNotNull(sessionRepository.findById(extended));
+        assertNull(sessionRepository.findById(expired));
+    }
+
+    private String saveSession(String username) {
+        Session session = sessionRepository.createSession();
+        session.setAttribute("username", username);
+        sessionRepository.save(session);
+        return session.getId();
+    }
+
+    private void expire(String id) {
+        new JdbcTemplate(dataSource).update("update SPRING_SESSION set EXPIRY_TIME = ? where SESSION_ID = ?",
+                System.currentTimeMillis() - 1_000, id);
+    }
+}
@@ -0,0 +1,59 @@
+package com.todo.rails.elite.starter.code.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryCountFilterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final QueryCountFilter filter = new QueryCountFilter(meterRegistry);
+    private final QueryCountInspector inspector = new QueryCountInspector();
+
+    @Test
+    void doFilter_RecordsStatementsOfTheRequest() throws Exception {
+        inspector.inspect("select 1");
+
+        filter.doFilter(request("/api/tasks/{id}"), new MockHttpServletResponse(), (request, response) -> {
+            inspector.inspect("select t from tasks t");
+            inspector.inspect("select v from tasks v");
+        });
+
+        DistributionSummary summary = summary("/api/tasks/{id}");
+        assertEquals(1, summary.count());
+        assertEquals(2, summary.totalAmount());
+    }
+
+    @Test
+    void doFilter_ClearsCountAfterRequest() throws Exception {
+        FilterChain failingChain = (request, response) -> {
+            inspector.inspect("select t from tasks t");
+            throw new ServletException("Handler failed");
+        };
+
+        assertThrows(ServletException.class,
+                () -> filter.doFilter(request("/api/tasks"), new MockHttpServletResponse(), failingChain));
+        inspector.inspect("select t from tasks t");
+
+        assertEquals(1, summary("/api/tasks").totalAmount());
+        // Nothing is left open on the thread, so statements outside a request are not counted.
+        assertEquals(0, QueryCountInspector.stop());
+    }
+
+    private static MockHttpServletRequest request(String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", pattern);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        return request;
+    }
+
+    private DistributionSummary summary(String uri) {
+        return meterRegistry.get(QueryCountFilter.METRIC_NAME).tag("method", "GET").tag("uri", uri).summary();
+    }
+}
@@ -0,0 +1,188 @@
+package com.todo.rails.elite.starter.code.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the routing against separate in-memory H2 databases standing in for the primary and the replicas.
+ */
+public class ReplicaDataSourceTests {
+
+    private final String prefix = "replica-test-" + UUID.randomUUID();
+    private final ReplicaRouting routing = new ReplicaRouting(Duration.ofMinutes(1));
+    private ReplicaDataSource replicaDataSource;
+    private Reader reader;
+
+    @BeforeEach
+    void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        RequestContextHolder.resetRequestAttributes();
+        replicaDataSource.stop();
+    }
+
+    @Test
+    void readOnlyTransactionInReplicaMethod_ReadsReplica() {
+        start(List.of(database("replica-a")));
+
+        assertEquals("replica-a", reader.readFromReplica());
+        assertEquals("primary", reader.read());
+    }
+
+    @Test
+    void readWriteTransaction_StaysOnPrimary() {
+        start(List.of(database("replica-a")));
+
+        assertEquals("primary", reader.writeFromReplicaMethod());
+    }
+
+    @Test
+    void requestThatWrote_ReadsItsWritesFromPrimary() {
+        start(List.of(database("replica-a")));
+
+        reader.write("written");
+
+        assertEquals("written", reader.readFromReplica());
+    }
+
+    @Test
+    void sessionThatWrote_ReadsPrimaryInLaterRequests() {
+        start(List.of(database("replica-a")));
+        MockHttpSession session = new MockHttpSession();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(requestIn(session)));
+
+        reader.write("written");
+
+        // The redirect after a form post is a new request of the same session.
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(requestIn(session)));
+        assertEquals("written", reader.readFromReplica());
+        // Other sessions, and requests without one, keep reading from the replica.
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(requestIn(new MockHttpSession())));
+        assertEquals("replica-a", reader.readFromReplica());
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertEquals("replica-a", reader.readFromReplica());
+    }
+
+    @Test
+    void replicas_TakeTurnsPerRequestAndStickWithinOne() {
+        start(List.of(database("replica-a"), database("replica-b")));
+
+        String first = reader.readFromReplica();
+        assertEquals(first, reader.readFromReplica());
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        String second = reader.readFromReplica();
+
+        assertNotEquals(first, second);
+        assertTrue(List.of("replica-a", "replica-b").containsAll(List.of(first, second)));
+    }
+
+    @Test
+    void unavailableReplica_FallsBackToPrimaryUntilHealthCheckPasses() {
+        // IFEXISTS refuses to create the database, so the replica is down until it is created below.
+        DriverManagerDataSource missing = new DriverManagerDataSource(url("late-replica") + ";IFEXISTS=TRUE", "sa", "");
+        start(List.of(missing));
+
+        assertEquals("primary", reader.readFromReplica());
+        assertEquals(0, replicaDataSource.healthyReplicas());
+
+        database("late-replica");
+        replicaDataSource.checkHealth();
+
+        assertEquals(1, replicaDataSource.healthyReplicas());
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertEquals("late-replica", reader.readFromReplica());
+    }
+
+    @Test
+    void getConnectionWithCredentials_IsNotSupported() {
+        start(List.of(database("replica-a")));
+
+        assertThrows(SQLFeatureNotSupportedException.class, () -> replicaDataSource.getConnection("other", "secret"));
+    }
+
+    private void start(List<DataSource> replicas) {
+        DataSource primary = database("primary");
+        replicaDataSource = new ReplicaDataSource(primary, replicas, routing, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        transactionManager.addListener(routing);
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new Reader(new JdbcTemplate(dataSource), transactionManager));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(routing);
+        reader = proxyFactory.getProxy();
+    }
+
+    private static MockHttpServletRequest requestIn(MockHttpSession session) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setSession(session);
+        return request;
+    }
+
+    // Creates an in-memory database whose single row names it.
+    private DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url(name), "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table marker (name varchar(50))");
+        jdbcTemplate.update("insert into marker (name) values (?)", name);
+        return dataSource;
+    }
+
+    private String url(String name) {
+        return "jdbc:h2:mem:" + prefix + "-" + name + ";DB_CLOSE_DELAY=-1";
+    }
+
+    static class Reader {
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate readTransaction;
+        private final TransactionTemplate writeTransaction;
+
+        Reader(JdbcTemplate jdbcTemplate, DataSourceTransactionManager transactionManager) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.readTransaction = new TransactionTemplate(transactionManager);
+            this.readTransaction.setReadOnly(true);
+            this.writeTransaction = new TransactionTemplate(transactionManager);
+        }
+
+        @ReadFromReplica
+        public String readFromReplica() {
+            return read();
+        }
+
+        public String read() {
+            return readTransaction.execute(status -> jdbcTemplate.queryForObject("select name from marker", String.class));
+        }
+
+        @ReadFromReplica
+        public String writeFromReplicaMethod() {
+            return writeTransaction.execute(status -> jdbcTemplate.queryForObject("select name from marker", String.class));
+        }
+
+        public void write(String name) {
+            writeTransaction.executeWithoutResult(status -> jdbcTemplate.update("update marker set name = ?", name));
+        }
+    }
+}
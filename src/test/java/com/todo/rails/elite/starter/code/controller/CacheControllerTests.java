@@ -0,0 +1,68 @@
+package com.todo.rails.elite.starter.code.controller;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import com.todo.rails.elite.starter.code.service.CacheStatisticsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Reads the statistics of a real Hibernate second-level cache, on an embedded H2 database with the
+ * application's cache settings, query cache included.
+ */
+@DataJpaTest
+@Import({CacheStatisticsService.class, CacheControllerTests.CacheManagerConfig.class})
+public class CacheControllerTests {
+
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new CacheController(cacheStatisticsService)).build();
+    }
+
+    @Test
+    void getCacheStatistics_WithQueryCache_ReportsEveryRegion() throws Exception {
+        // Runs a cacheable query twice, so the query results region records a miss and then a hit.
+        taskRepository.findByOwnerIdAndCompletedOrderByDueDateAscIdAsc(1L, false, Limit.of(10));
+        taskRepository.findByOwnerIdAndCompletedOrderByDueDateAscIdAsc(1L, false, Limit.of(10));
+
+        mockMvc.perform(get("/api/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.application[*].name", hasItem("tasksById")))
+                .andExpect(jsonPath("$.secondLevel[*].name", hasItem("tasks")))
+                .andExpect(jsonPath("$.secondLevel[?(@.name == 'default-query-results-region')].hits", hasItem(1)))
+                .andExpect(jsonPath("$.secondLevel[?(@.name == 'default-query-results-region')].misses", hasItem(1)));
+    }
+
+    @TestConfiguration
+    static class CacheManagerConfig {
+
+        @Bean
+        CacheManager cacheManager() {
+            CaffeineCacheManager cacheManager = new CaffeineCacheManager("tasksById");
+            cacheManager.setCaffeine(Caffeine.newBuilder().recordStats());
+            return cacheManager;
+        }
+    }
+}
@@ -1,52 +1,165 @@
 package com.todo.rails.elite.starter.code.controller;
 
 import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.dto.TaskPage;
+import com.todo.rails.elite.starter.code.model.dto.TaskResponse;
+import com.todo.rails.elite.starter.code.model.dto.TaskVersion;
+import com.todo.rails.elite.starter.code.service.IdempotencyService;
+import com.todo.rails.elite.starter.code.service.TaskCompletionService;
+import com.todo.rails.elite.starter.code.service.TaskEventBroadcaster;
+import com.todo.rails.elite.starter.code.service.TaskExportService;
+import com.todo.rails.elite.starter.code.service.TaskImportService;
+import com.todo.rails.elite.starter.code.service.TaskSearchService;
 import com.todo.rails.elite.starter.code.service.TaskService;
+import com.todo.rails.elite.starter.code.service.security.CurrentUserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.Mock;
-import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 
-import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 import java.util.List;
+import java.util.Optional;
 
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 // Write Integration Tests for Controllers. Use MockMvc to test endpoints in TaskController.
-@SpringBootTest
 @WebMvcTest(TaskController.class)
+@AutoConfigureMockMvc(addFilters = false)
 public class TodoRailsControllerTests {
 
+    private static final Long OWNER_ID = 1L;
+    private static final TaskVersion VERSION = new TaskVersion(Instant.parse("2025-01-01T10:00:00Z"), 1);
+
     @Autowired
     private MockMvc mockMvc;
 
-    @Mock
+    @MockitoBean
     private TaskService taskService;
 
+    @MockitoBean
+    private TaskCompletionService taskCompletionService;
+
+    @MockitoBean
+    private TaskExportService taskExportService;
+
+    @MockitoBean
+    private TaskImportService taskImportService;
+
+    @MockitoBean
+    private TaskSearchService taskSearchService;
+
+    @MockitoBean
+    private TaskEventBroadcaster taskEventBroadcaster;
+
+    @MockitoBean
+    private IdempotencyService idempotencyService;
+
+    @MockitoBean
+    private CurrentUserService currentUserService;
+
     private Task sampleTask;
 
     @BeforeEach
     void setUp() {
-        MockitoAnnotations.openMocks(this);
         sampleTask = new Task("Sample Task", "This is a sample task.", false, LocalDate.now());
+        when(currentUserService.getUserId(any())).thenReturn(OWNER_ID);
     }
 
     @Test
     void getAllTasks_Success() throws Exception {
-        when(taskService.getAllTasks()).thenReturn(List.of(sampleTask));
+        when(taskService.getTasksVersion(OWNER_ID)).thenReturn(VERSION);
+        when(taskService.getTasksPage(OWNER_ID, null, 50)).thenReturn(new TaskPage(List.of(TaskResponse.of(sampleTask)), null));
 
         mockMvc.perform(get("/api/tasks/all")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Sample Task"))
+                .andExpect(header().doesNotExist(TaskController.NEXT_CURSOR_HEADER))
+                .andExpect(header().string(HttpHeaders.ETAG, VERSION.etag(null, 50)));
+    }
+
+    @Test
+    void getAllTasks_NotModified() throws Exception {
+        when(taskService.getTasksVersion(OWNER_ID)).thenReturn(VERSION);
+
+        mockMvc.perform(get("/api/tasks/all")
+                        .header(HttpHeaders.IF_NONE_MATCH, VERSION.etag(null, 50))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(taskService, never()).getTasksPage(any(), any(), anyInt());
+    }
+
+    @Test
+    void getPendingTasks_AdvertisesNextPage() throws Exception {
+        when(taskService.getPendingTasksVersion(OWNER_ID)).thenReturn(VERSION);
+        when(taskService.getPendingTasksPage(OWNER_ID, "abc", 1)).thenReturn(new TaskPage(List.of(TaskResponse.of(sampleTask)), "def"));
+
+        mockMvc.perform(get("/api/tasks/pending")
+                        .param("cursor", "abc")
+                        .param("size", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Sample Task"))
+                .andExpect(header().string(TaskController.NEXT_CURSOR_HEADER, "def"));
+    }
+
+    @Test
+    void replaceTask_PreconditionFailed() throws Exception {
+        when(taskService.getTaskVersion(OWNER_ID, 7L)).thenReturn(Optional.of(VERSION));
+
+        mockMvc.perform(put("/api/tasks/7")
+                        .header(HttpHeaders.IF_MATCH, "\"outdated\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Sample Task\",\"description\":\"Changed\",\"dueDate\":\"2099-01-01\"}"))
+                .andExpect(status().isPreconditionFailed());
+        verify(taskService, never()).replaceTask(any(), any(), any(), any());
+    }
+
+    @Test
+    void replaceTask_Conflict() throws Exception {
+        when(taskService.getTaskVersion(OWNER_ID, 7L)).thenReturn(Optional.of(VERSION));
+        when(taskService.replaceTask(eq(OWNER_ID), eq(7L), any(Task.class), eq(VERSION.revision())))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Task.class, 7L));
+
+        mockMvc.perform(put("/api/tasks/7")
+                        .header(HttpHeaders.IF_MATCH, VERSION.etag())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Sample Task\",\"description\":\"Changed\",\"dueDate\":\"2099-01-01\"}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void searchTasks_Success() throws Exception {
+        when(taskSearchService.search(OWNER_ID, "sample", 20)).thenReturn(List.of(TaskResponse.of(sampleTask)));
+
+        mockMvc.perform(get("/api/tasks/search")
+                        .param("q", "sample")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].title").value("Sample Task"));
     }
+
+    @Test
+    void streamEvents_SubscribesCurrentUser() throws Exception {
+        when(taskEventBroadcaster.subscribe(OWNER_ID)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/tasks/events")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+    }
 }
@@ -31,9 +31,9 @@ public class ErrorHandlingTests {
 
     @Test
     void getTaskById_NotFound() {
-        when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+        when(taskRepository.findByIdAndOwnerId(1L, 1L)).thenReturn(Optional.empty());
 
-        Exception exception = assertThrows(RuntimeException.class, () -> taskService.getTaskById(1L));
+        Exception exception = assertThrows(RuntimeException.class, () -> taskService.getTaskById(1L, 1L));
 
         assertEquals("Task not found", exception.getMessage());
     }
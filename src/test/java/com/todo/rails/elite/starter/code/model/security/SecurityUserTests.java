@@ -0,0 +1,63 @@
+package com.todo.rails.elite.starter.code.model.security;
+
+import com.todo.rails.elite.starter.code.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SecurityUserTests {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getAuthorities_MapsRoles() {
+        SecurityUser securityUser = new SecurityUser(new User("alice", "hash", "alice@example.com", Set.of("USER", "ADMIN")));
+
+        assertEquals(Set.of(new SimpleGrantedAuthority("USER"), new SimpleGrantedAuthority("ADMIN")), Set.copyOf(securityUser.getAuthorities()));
+        assertThrows(UnsupportedOperationException.class,
+                () -> ((Collection<GrantedAuthority>) securityUser.getAuthorities()).add(new SimpleGrantedAuthority("ROOT")));
+    }
+
+    @Test
+    void getAuthorities_SharedAcrossUsersWithSameRoles() {
+        SecurityUser alice = new SecurityUser(new User("alice", "hash", "alice@example.com", new LinkedHashSet<>(List.of("USER", "ADMIN"))));
+        SecurityUser bob = new SecurityUser(new User("bob", "hash", "bob@example.com", new LinkedHashSet<>(List.of("ADMIN", "USER"))));
+        SecurityUser carol = new SecurityUser(new User("carol", "hash", "carol@example.com", Set.of("USER")));
+
+        assertSame(alice.getAuthorities(), bob.getAuthorities());
+        assertNotSame(alice.getAuthorities(), carol.getAuthorities());
+    }
+
+    @Test
+    void serialization_RestoresSharedAuthorities() throws Exception {
+        User user = new User("alice", "$2a$04$hash", "alice@example.com", Set.of("USER"));
+        user.setId(7L);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new SecurityUser(user));
+        }
+
+        SecurityUser restored;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            restored = (SecurityUser) in.readObject();
+        }
+
+        assertEquals(7L, restored.getId());
+        assertEquals("alice", restored.getUsername());
+        assertSame(SecurityUser.authoritiesOf(Set.of("USER")), restored.getAuthorities());
+        // The password hash never reaches the session table.
+        assertNull(restored.getPassword());
+        assertFalse(bytes.toString(StandardCharsets.ISO_8859_1).contains("$2a$04$hash"));
+    }
+}
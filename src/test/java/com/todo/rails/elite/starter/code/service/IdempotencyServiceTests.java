@@ -0,0 +1,62 @@
+package com.todo.rails.elite.starter.code.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdempotencyServiceTests {
+
+    private static final Long OWNER_ID = 1L;
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void execute_RepeatReturnsFirstOutcome() {
+        Integer first = idempotencyService.execute(OWNER_ID, "add", "key-1", calls::incrementAndGet);
+        Integer repeat = idempotencyService.execute(OWNER_ID, "add", "key-1", calls::incrementAndGet);
+
+        assertEquals(1, first);
+        assertEquals(1, repeat);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_KeysAreScopedToOwnerAndOperation() {
+        idempotencyService.execute(OWNER_ID, "add", "key-1", calls::incrementAndGet);
+        idempotencyService.execute(2L, "add", "key-1", calls::incrementAndGet);
+        idempotencyService.execute(OWNER_ID, "complete:7", "key-1", calls::incrementAndGet);
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void execute_RetriesFailedAttempt() {
+        assertThrows(RuntimeException.class, () -> idempotencyService.execute(OWNER_ID, "add", "key-1", () -> {
+            calls.incrementAndGet();
+            throw new RuntimeException("Task already exists");
+        }));
+
+        Integer retry = idempotencyService.execute(OWNER_ID, "add", "key-1", calls::incrementAndGet);
+
+        assertEquals(2, retry);
+    }
+
+    @Test
+    void execute_WithoutKeyAlwaysRuns() {
+        idempotencyService.execute(OWNER_ID, "add", null, calls::incrementAndGet);
+        idempotencyService.execute(OWNER_ID, "add", null, calls::incrementAndGet);
+
+        assertEquals(2, calls.get());
+    }
+}
@@ -0,0 +1,103 @@
+package com.todo.rails.elite.starter.code.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TaskCompletionServiceTests {
+
+    private static final Long OWNER_ID = 1L;
+
+    @Mock
+    private TaskService taskService;
+
+    @TempDir
+    Path journalDirectory;
+
+    private TaskCompletionService completionService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        completionService = writeBehind();
+        completionService.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        completionService.stop();
+    }
+
+    @Test
+    void complete_WithoutWriteBehindCompletesDirectly() throws Exception {
+        TaskCompletionService direct = new TaskCompletionService(
+                taskService, new SimpleMeterRegistry(), false, Duration.ofHours(1), 100, "", false
+        );
+        direct.start();
+
+        direct.complete(OWNER_ID, 5L);
+
+        verify(taskService).completeTask(OWNER_ID, 5L);
+    }
+
+    @Test
+    void flush_CoalescesChangesPerTask() {
+        completionService.complete(OWNER_ID, 5L);
+        completionService.uncomplete(OWNER_ID, 5L);
+        completionService.complete(OWNER_ID, 6L);
+        verifyNoInteractions(taskService);
+
+        completionService.flush();
+
+        verify(taskService).setCompleted(OWNER_ID, List.of(5L), false);
+        verify(taskService).setCompleted(OWNER_ID, List.of(6L), true);
+        assertEquals(0, completionService.pendingCount());
+    }
+
+    @Test
+    void flush_RequeuesChangesThatCouldNotBeWritten() {
+        completionService.complete(OWNER_ID, 5L);
+        when(taskService.setCompleted(anyLong(), anyList(), anyBoolean())).thenThrow(new RuntimeException("Database down"));
+
+        assertThrows(RuntimeException.class, () -> completionService.flush());
+
+        assertEquals(1, completionService.pendingCount());
+    }
+
+    @Test
+    void start_ReplaysJournalOfUnflushedChanges() throws Exception {
+        completionService.complete(OWNER_ID, 5L);
+        completionService.complete(OWNER_ID, 6L);
+        // Simulates a crash: the queue is lost without being flushed.
+        TaskCompletionService restarted = writeBehind();
+
+        restarted.start();
+        restarted.flush();
+
+        verify(taskService).setCompleted(OWNER_ID, List.of(5L, 6L), true);
+    }
+
+    private TaskCompletionService writeBehind() {
+        return new TaskCompletionService(
+                taskService,
+                new SimpleMeterRegistry(),
+                true,
+                Duration.ofHours(1),
+                100,
+                journalDirectory.resolve("completions.journal").toString(),
+                false
+        );
+    }
+}
@@ -0,0 +1,87 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.model.dto.DueDateCount;
+import com.todo.rails.elite.starter.code.model.dto.TaskCounts;
+import com.todo.rails.elite.starter.code.model.dto.TaskSnapshot;
+import com.todo.rails.elite.starter.code.model.event.TaskChangedEvent;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class TaskCounterServiceTests {
+
+    private static final Long OWNER_ID = 1L;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    private TaskCounterService taskCounterService;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        today = LocalDate.now();
+        when(taskRepository.countByStatus(eq(OWNER_ID), any(LocalDate.class))).thenReturn(new TaskCounts(3, 2, 1, 1));
+        when(taskRepository.countPendingByDueDateFrom(eq(OWNER_ID), any(LocalDate.class)))
+                .thenReturn(List.of(new DueDateCount(today, 1), new DueDateCount(today.plusDays(1), 1)));
+        taskCounterService = new TaskCounterService(taskRepository, new SimpleMeterRegistry(), 100, Duration.ofHours(1), Duration.ofMinutes(5));
+    }
+
+    @Test
+    void getTaskCounts_LoadsOnceThenAppliesChanges() {
+        assertEquals(new TaskCounts(3, 2, 1, 1), taskCounterService.getTaskCounts(OWNER_ID));
+
+        taskCounterService.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, OWNER_ID, List.of(9L), null,
+                new TaskSnapshot(9L, "Task", "Description", false, today)));
+        taskCounterService.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, OWNER_ID, List.of(8L),
+                new TaskSnapshot(8L, "Task", "Description", false, today.plusDays(1)),
+                new TaskSnapshot(8L, "Task", "Description", false, today)));
+
+        assertEquals(new TaskCounts(4, 3, 1, 3), taskCounterService.getTaskCounts(OWNER_ID));
+        verify(taskRepository, times(1)).countByStatus(eq(OWNER_ID), any(LocalDate.class));
+    }
+
+    @Test
+    void onTaskChanged_CompletionUsesDueDate() {
+        taskCounterService.getTaskCounts(OWNER_ID);
+        when(taskRepository.findDueDateByIdAndOwnerId(7L, OWNER_ID)).thenReturn(Optional.of(today));
+
+        taskCounterService.onTaskChanged(TaskChangedEvent.completed(OWNER_ID, 7L));
+
+        assertEquals(new TaskCounts(3, 1, 2, 0), taskCounterService.getTaskCounts(OWNER_ID));
+    }
+
+    @Test
+    void onTaskChanged_BulkChangeReloads() {
+        taskCounterService.getTaskCounts(OWNER_ID);
+
+        taskCounterService.onTaskChanged(TaskChangedEvent.bulk(TaskChangedEvent.Type.BULK_DELETED, OWNER_ID, null));
+        taskCounterService.getTaskCounts(OWNER_ID);
+
+        verify(taskRepository, times(2)).countByStatus(eq(OWNER_ID), any(LocalDate.class));
+    }
+
+    @Test
+    void reconcile_CorrectsDrift() {
+        taskCounterService.getTaskCounts(OWNER_ID);
+        when(taskRepository.countByStatus(eq(OWNER_ID), any(LocalDate.class))).thenReturn(new TaskCounts(5, 4, 1, 1));
+
+        assertEquals(1, taskCounterService.reconcile());
+        assertEquals(new TaskCounts(5, 4, 1, 1), taskCounterService.getTaskCounts(OWNER_ID));
+        assertEquals(0, taskCounterService.reconcile());
+    }
+}
@@ -0,0 +1,152 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.dto.TaskCounts;
+import com.todo.rails.elite.starter.code.model.dto.TaskStreamEvent;
+import com.todo.rails.elite.starter.code.model.event.TaskChangedEvent;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+public class TaskEventBroadcasterTests {
+
+    private static final Long OWNER_ID = 1L;
+    private static final int BUFFER_SIZE = 4;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private DashboardService dashboardService;
+
+    private final List<Runnable> pendingDrains = new ArrayList<>();
+    private final List<String> sentEvents = new ArrayList<>();
+    private final List<Object> sentData = new ArrayList<>();
+    private TaskEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(dashboardService.getTaskCounts(OWNER_ID)).thenReturn(new TaskCounts(1, 1, 0, 1));
+        broadcaster = new TaskEventBroadcaster(
+                taskRepository,
+                dashboardService,
+                pendingDrains::add,
+                new SimpleMeterRegistry(),
+                BUFFER_SIZE
+        );
+        broadcaster.subscribe(OWNER_ID, new RecordingEmitter());
+    }
+
+    @Test
+    void subscribe_SendsCountsFirst() {
+        runDrains();
+
+        assertEquals(1, sentEvents.size());
+        assertTrue(sentEvents.getFirst().startsWith("event:counts"));
+    }
+
+    @Test
+    void onTaskChanged_SendsCounterChange() {
+        runDrains();
+
+        broadcaster.onTaskChanged(TaskChangedEvent.created(OWNER_ID, newTask(1L)));
+        runDrains();
+
+        assertEquals(2, sentEvents.size());
+        assertTrue(sentEvents.get(1).startsWith("event:created"));
+    }
+
+    @Test
+    void onTaskChanged_SendsCountersReadWhenSent() {
+        runDrains();
+
+        broadcaster.onTaskChanged(TaskChangedEvent.created(OWNER_ID, newTask(1L)));
+        // The counters move on again before the event is sent, e.g. through another change.
+        when(dashboardService.getTaskCounts(OWNER_ID)).thenReturn(new TaskCounts(3, 3, 0, 3));
+        runDrains();
+
+        TaskStreamEvent created = assertInstanceOf(TaskStreamEvent.class, sentData.get(1));
+        assertEquals(new TaskCounts(3, 3, 0, 3), created.counts());
+        assertEquals(new TaskCounts(1, 1, 0, 1), created.change());
+    }
+
+    @Test
+    void onTaskChanged_ReplacesBacklogWithCounts() {
+        runDrains();
+
+        for (long id = 1; id <= BUFFER_SIZE * 3; id++) {
+            broadcaster.onTaskChanged(TaskChangedEvent.created(OWNER_ID, newTask(id)));
+        }
+        runDrains();
+
+        assertEquals(2, sentEvents.size());
+        assertTrue(sentEvents.get(1).startsWith("event:counts"));
+    }
+
+    @Test
+    void onTaskChanged_IgnoresOtherOwners() {
+        runDrains();
+
+        broadcaster.onTaskChanged(TaskChangedEvent.created(2L, newTask(1L)));
+        runDrains();
+
+        assertEquals(1, sentEvents.size());
+    }
+
+    @Test
+    void subscribe_SendsOnOwnSenderThreads() throws Exception {
+        TaskEventBroadcaster ownThreads = new TaskEventBroadcaster(
+                taskRepository, dashboardService, new SimpleMeterRegistry(), BUFFER_SIZE, 1, false);
+        CompletableFuture<String> senderThread = new CompletableFuture<>();
+        try {
+            ownThreads.subscribe(OWNER_ID, new SseEmitter() {
+                @Override
+                public void send(SseEventBuilder builder) {
+                    senderThread.complete(Thread.currentThread().getName());
+                }
+            });
+
+            assertTrue(senderThread.get(5, TimeUnit.SECONDS).startsWith("task-events-"));
+        } finally {
+            ownThreads.completeAll();
+        }
+    }
+
+    private void runDrains() {
+        while (!pendingDrains.isEmpty()) {
+            pendingDrains.removeFirst().run();
+        }
+    }
+
+    private static Task newTask(Long id) {
+        Task task = new Task("Task " + id, "Description", false, LocalDate.now());
+        task.setId(id);
+        return task;
+    }
+
+    // Records the event name line and the data of each event instead of writing them to a response.
+    private class RecordingEmitter extends SseEmitter {
+        @Override
+        public void send(SseEventBuilder builder) {
+            List<DataWithMediaType> parts = List.copyOf(builder.build());
+            sentEvents.add(parts.getFirst().getData().toString());
+            parts.stream()
+                    .filter(part -> !(part.getData() instanceof String))
+                    .forEach(part -> sentData.add(part.getData()));
+        }
+    }
+}
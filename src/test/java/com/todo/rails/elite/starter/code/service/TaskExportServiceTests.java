@@ -0,0 +1,103 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TaskExportServiceTests {
+
+    private static final Long OWNER_ID = 1L;
+    private static final LocalDate DUE_DATE = LocalDate.of(2030, 1, 15);
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private TaskExportService taskExportService;
+    private Task groceries;
+    private Task report;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        taskExportService = new TaskExportService(taskRepository, entityManager, objectMapper);
+        groceries = task(1L, "Buy groceries", "Milk, eggs", false);
+        report = task(2L, "Write \"report\"", "Line one\nline two", true);
+    }
+
+    @Test
+    void exportTasks_Ndjson_WritesOneObjectPerLine() throws Exception {
+        when(taskRepository.streamByOwnerIdOrderByIdAsc(OWNER_ID)).thenReturn(Stream.of(groceries, report));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = taskExportService.exportTasks(OWNER_ID, TaskExportService.Format.NDJSON, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, rows);
+        assertEquals(2, lines.length);
+        // Each line reads back as the task it was written from, which is what the import expects.
+        Task first = objectMapper.readValue(lines[0], Task.class);
+        assertEquals(1L, first.getId());
+        assertEquals("Buy groceries", first.getTitle());
+        assertEquals(DUE_DATE, first.getDueDate());
+        assertEquals("Line one\nline two", objectMapper.readValue(lines[1], Task.class).getDescription());
+    }
+
+    @Test
+    void exportTasks_Csv_QuotesFieldsThatNeedIt() throws Exception {
+        when(taskRepository.streamByOwnerIdOrderByIdAsc(OWNER_ID)).thenReturn(Stream.of(groceries, report));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        taskExportService.exportTasks(OWNER_ID, TaskExportService.Format.CSV, output);
+
+        assertEquals("""
+                id,title,description,completed,dueDate
+                1,Buy groceries,"Milk, eggs",false,2030-01-15
+                2,"Write ""report\""","Line one
+                line two",true,2030-01-15
+                """, output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exportTasks_DetachesEachRowAndClosesStream() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(taskRepository.streamByOwnerIdOrderByIdAsc(OWNER_ID))
+                .thenReturn(Stream.of(groceries, report).onClose(() -> closed.set(true)));
+
+        taskExportService.exportTasks(OWNER_ID, TaskExportService.Format.NDJSON, new ByteArrayOutputStream());
+
+        verify(entityManager).detach(groceries);
+        verify(entityManager).detach(report);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void format_Failure_UnknownFormat() {
+        assertEquals(TaskExportService.Format.CSV, TaskExportService.Format.of(" csv "));
+        assertThrows(IllegalArgumentException.class, () -> TaskExportService.Format.of("xml"));
+    }
+
+    private static Task task(Long id, String title, String description, boolean completed) {
+        Task task = new Task(title, description, completed, DUE_DATE);
+        task.setId(id);
+        return task;
+    }
+}
@@ -0,0 +1,216 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.model.dto.ImportResult;
+import com.todo.rails.elite.starter.code.model.event.TaskChangedEvent;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the batched JDBC inserts against an in-memory H2 <code>tasks</code> table.
+ */
+public class TaskImportServiceTests {
+
+    private static final Long OWNER_ID = 1L;
+    private static final int BATCH_SIZE = 2;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+    private final String dueDate = LocalDate.now().plusDays(1).toString();
+    private JdbcTemplate jdbcTemplate;
+    private TaskImportService taskImportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(cache);
+        when(taskRepository.findExistingTitles(eq(OWNER_ID), anyCollection())).thenReturn(Set.of());
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:import-test-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = spy(new JdbcTemplate(dataSource));
+        jdbcTemplate.execute("""
+                create table tasks (
+                    id bigint auto_increment primary key,
+                    title varchar(255) not null,
+                    description varchar(255) not null,
+                    completed boolean not null,
+                    due_date date not null,
+                    owner_id bigint,
+                    last_modified timestamp(6),
+                    version bigint not null,
+                    constraint uk_tasks_owner_title unique (owner_id, title)
+                )""");
+        taskImportService = new TaskImportService(
+                taskRepository,
+                entityManagerFactory,
+                jdbcTemplate,
+                new DataSourceTransactionManager(dataSource),
+                validatorFactory.getValidator(),
+                Jackson2ObjectMapperBuilder.json().build(),
+                eventPublisher,
+                BATCH_SIZE
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("shutdown");
+        validatorFactory.close();
+    }
+
+    @Test
+    void importTasks_InsertsInBatches() throws Exception {
+        ImportResult result = importTasks(ndjson("One", "Two", "Three", "Four", "Five"));
+
+        assertEquals(new ImportResult(5, 5, 0, List.of()), result);
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+        assertEquals(List.of("One", "Two", "Three", "Four", "Five"), titles());
+        assertEquals(5, jdbcTemplate.queryForObject("select count(*) from tasks where owner_id = ? and version = 0", Integer.class, OWNER_ID));
+    }
+
+    @Test
+    void importTasks_PublishesImportedEventAndEvictsQueryRegions() throws Exception {
+        importTasks(ndjson("One"));
+
+        verify(cache).evictQueryRegions();
+        verify(eventPublisher).publishEvent(TaskChangedEvent.bulk(TaskChangedEvent.Type.IMPORTED, OWNER_ID, null));
+    }
+
+    @Test
+    void importTasks_RejectsDuplicateTitles() throws Exception {
+        when(taskRepository.findExistingTitles(eq(OWNER_ID), anyCollection())).thenReturn(Set.of("Existing"));
+        String upload = "[" + task("One") + "," + task("Existing") + "," + task("One") + "," + task("Two") + "]";
+
+        ImportResult result = importTasks(upload);
+
+        assertEquals(4, result.received());
+        assertEquals(2, result.imported());
+        assertEquals(List.of(
+                new ImportResult.Failure(2, "Existing", "Task already exists"),
+                new ImportResult.Failure(3, "One", "Duplicate title in upload")
+        ), result.failures());
+        assertEquals(List.of("One", "Two"), titles());
+    }
+
+    @Test
+    void importTasks_TitleTakenConcurrently_OnlyThatRowFails() throws Exception {
+        // The title is not reported by the duplicate check, as if another request inserted it in the meantime.
+        jdbcTemplate.update("insert into tasks (title, description, completed, due_date, owner_id, version) values ('Two', 'Taken', false, ?, ?, 0)",
+                LocalDate.parse(dueDate), OWNER_ID);
+
+        ImportResult result = importTasks(ndjson("One", "Two"));
+
+        assertEquals(1, result.imported());
+        assertEquals(List.of(new ImportResult.Failure(2, "Two", "Task already exists")), result.failures());
+        assertEquals(List.of("Two", "One"), titles());
+    }
+
+    @Test
+    void importTasks_UploadFailsAfterABatch_AnnouncesImportedRows() {
+        InputStream failing = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        };
+        InputStream upload = new SequenceInputStream(
+                new ByteArrayInputStream(ndjson("One", "Two").getBytes(StandardCharsets.UTF_8)), failing);
+
+        assertThrows(IOException.class, () -> taskImportService.importTasks(OWNER_ID, upload));
+
+        assertEquals(List.of("One", "Two"), titles());
+        verify(cache).evictQueryRegions();
+        verify(eventPublisher).publishEvent(TaskChangedEvent.bulk(TaskChangedEvent.Type.IMPORTED, OWNER_ID, null));
+    }
+
+    @Test
+    void importTasks_LaterBatchFails_AnnouncesImportedRows() {
+        // The second batch fails for a reason other than a taken title, and so does its row-by-row retry.
+        doCallRealMethod()
+                .doThrow(new DataAccessResourceFailureException("Connection lost"))
+                .when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+        doThrow(new DataAccessResourceFailureException("Connection lost"))
+                .when(jdbcTemplate).update(anyString(), any(PreparedStatementSetter.class));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> importTasks(ndjson("One", "Two", "Three")));
+
+        assertEquals(List.of("One", "Two"), titles());
+        verify(cache).evictQueryRegions();
+        verify(eventPublisher).publishEvent(TaskChangedEvent.bulk(TaskChangedEvent.Type.IMPORTED, OWNER_ID, null));
+    }
+
+    @Test
+    void importTasks_NothingImported_DoesNotPublish() throws Exception {
+        ImportResult result = importTasks("{\"title\": \"\", \"description\": \"Blank title\", \"dueDate\": \"" + dueDate + "\"}\n{\"title\": ");
+
+        assertEquals(0, result.imported());
+        assertEquals(2, result.failed());
+        assertEquals("Title cannot be blank", result.failures().get(0).reason());
+        assertTrue(result.failures().get(1).reason().startsWith("Malformed input"));
+        verifyNoInteractions(cache, eventPublisher);
+    }
+
+    private ImportResult importTasks(String upload) throws Exception {
+        return taskImportService.importTasks(OWNER_ID, new ByteArrayInputStream(upload.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private String ndjson(String... titles) {
+        StringBuilder upload = new StringBuilder();
+        for (String title : titles) {
+            upload.append(task(title)).append('\n');
+        }
+        return upload.toString();
+    }
+
+    private String task(String title) {
+        return "{\"title\": \"" + title + "\", \"description\": \"Description of " + title + "\", \"dueDate\": \"" + dueDate + "\"}";
+    }
+
+    private List<String> titles() {
+        return jdbcTemplate.queryForList("select title from tasks order by id", String.class);
+    }
+}
@@ -0,0 +1,89 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.model.dto.OwnerTaskVersion;
+import com.todo.rails.elite.starter.code.model.dto.TaskResponse;
+import com.todo.rails.elite.starter.code.model.dto.TaskRow;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class TaskReadModelServiceTests {
+
+    private static final Long OWNER_ID = 1L;
+    private static final Long OTHER_OWNER_ID = 2L;
+    private static final Long GONE_OWNER_ID = 3L;
+    private static final Instant MODIFIED = Instant.parse("2030-01-14T10:15:30.123456Z");
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TaskReadModelService readModel;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        readModel = new TaskReadModelService(taskRepository, transactionManager, new SimpleMeterRegistry(), true, Duration.ofMinutes(1));
+        when(taskRepository.streamAllRows()).thenReturn(Stream.of(
+                row(1L, OWNER_ID, MODIFIED),
+                row(2L, OTHER_OWNER_ID, MODIFIED),
+                row(3L, GONE_OWNER_ID, MODIFIED)
+        ));
+        readModel.rebuild();
+    }
+
+    @Test
+    void reconcile_ReloadsOwnersChangedElsewhere() {
+        Instant later = MODIFIED.plusSeconds(60);
+        // Another node added a task for one owner and deleted every task of another.
+        when(taskRepository.findVersionsGroupedByOwnerId()).thenReturn(List.of(
+                new OwnerTaskVersion(OWNER_ID, later, 2),
+                new OwnerTaskVersion(OTHER_OWNER_ID, MODIFIED, 1)
+        ));
+        when(taskRepository.streamRowsByOwnerId(OWNER_ID)).thenReturn(Stream.of(row(1L, OWNER_ID, MODIFIED), row(4L, OWNER_ID, later)));
+        when(taskRepository.streamRowsByOwnerId(GONE_OWNER_ID)).thenReturn(Stream.empty());
+
+        assertEquals(2, readModel.reconcile());
+
+        assertEquals(List.of(1L, 4L), ids(readModel.getTasks(OWNER_ID, 0L, 10)));
+        assertEquals(new OwnerTaskVersion(OWNER_ID, later, 2).version(), readModel.getTasksVersion(OWNER_ID));
+        assertEquals(List.of(), readModel.getTasks(GONE_OWNER_ID, 0L, 10));
+        verify(taskRepository, never()).streamRowsByOwnerId(OTHER_OWNER_ID);
+    }
+
+    @Test
+    void reconcile_InSync_ReloadsNothing() {
+        when(taskRepository.findVersionsGroupedByOwnerId()).thenReturn(List.of(
+                new OwnerTaskVersion(OWNER_ID, MODIFIED, 1),
+                new OwnerTaskVersion(OTHER_OWNER_ID, MODIFIED, 1),
+                new OwnerTaskVersion(GONE_OWNER_ID, MODIFIED, 1)
+        ));
+
+        assertEquals(0, readModel.reconcile());
+        verify(taskRepository, never()).streamRowsByOwnerId(anyLong());
+    }
+
+    private static TaskRow row(Long id, Long ownerId, Instant lastModified) {
+        return new TaskRow(id, ownerId, "Task " + id, "Description", false, LocalDate.of(2030, 1, 15), lastModified, 0L);
+    }
+
+    private static List<Long> ids(List<TaskResponse> tasks) {
+        return tasks.stream().map(TaskResponse::id).toList();
+    }
+}
@@ -0,0 +1,101 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.model.dto.TaskResponse;
+import com.todo.rails.elite.starter.code.model.dto.TaskSnapshot;
+import com.todo.rails.elite.starter.code.model.dto.TaskText;
+import com.todo.rails.elite.starter.code.model.event.TaskChangedEvent;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class TaskSearchServiceTests {
+
+    private static final Long OWNER_ID = 1L;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TaskSearchService taskSearchService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        taskSearchService = new TaskSearchService(taskRepository, transactionManager, Duration.ZERO);
+        when(taskRepository.findByOwnerIdAndIdIn(eq(OWNER_ID), anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(1);
+            return ids.stream().map(id -> new TaskResponse(id, "Task " + id, "", false, LocalDate.now(), null, 0L)).toList();
+        });
+    }
+
+    @Test
+    void onTaskChanged_Import_ReloadsOwnerWithoutBlockingOtherChanges() {
+        when(taskRepository.streamTextByOwnerId(OWNER_ID)).thenAnswer(invocation -> {
+            // Another writer's change commits while the import's rows are being read; it must not wait for the read.
+            CompletableFuture.runAsync(() -> taskSearchService.onTaskChanged(created(9L, "Groceries for the party")))
+                    .get(5, TimeUnit.SECONDS);
+            return Stream.of(
+                    new TaskText(1L, OWNER_ID, "Buy groceries", "Milk and bread"),
+                    new TaskText(2L, OWNER_ID, "Imported groceries", "From the spreadsheet")
+            );
+        });
+
+        taskSearchService.onTaskChanged(TaskChangedEvent.bulk(TaskChangedEvent.Type.IMPORTED, OWNER_ID, null));
+
+        // The change committed during the read is applied again on top of the reloaded rows.
+        assertEquals(List.of(1L, 2L, 9L), ids(taskSearchService.search(OWNER_ID, "groceries", 10)));
+    }
+
+    @Test
+    void onTaskChanged_BulkDeleteWithoutIds_ReplacesOwnersTasks() {
+        taskSearchService.onTaskChanged(created(1L, "Buy groceries"));
+        taskSearchService.onTaskChanged(created(2L, "Old groceries"));
+        when(taskRepository.streamTextByOwnerId(OWNER_ID))
+                .thenReturn(Stream.of(new TaskText(1L, OWNER_ID, "Buy groceries", "Milk and bread")));
+
+        taskSearchService.onTaskChanged(TaskChangedEvent.bulk(TaskChangedEvent.Type.BULK_DELETED, OWNER_ID, null));
+
+        assertEquals(List.of(1L), ids(taskSearchService.search(OWNER_ID, "groceries", 10)));
+    }
+
+    @Test
+    void rebuild_PicksUpTasksWrittenOnOtherNodes() {
+        taskSearchService.onTaskChanged(created(1L, "Buy groceries"));
+        // Task 2 was written by another node, which publishes no event here.
+        when(taskRepository.streamAllText()).thenReturn(Stream.of(
+                new TaskText(1L, OWNER_ID, "Buy groceries", "Milk and bread"),
+                new TaskText(2L, OWNER_ID, "More groceries", "Written elsewhere")
+        ));
+
+        taskSearchService.rebuild();
+
+        assertEquals(List.of(1L, 2L), ids(taskSearchService.search(OWNER_ID, "groceries", 10)));
+    }
+
+    private static TaskChangedEvent created(Long id, String title) {
+        TaskSnapshot task = new TaskSnapshot(id, title, "Description", false, LocalDate.now());
+        return new TaskChangedEvent(TaskChangedEvent.Type.CREATED, OWNER_ID, List.of(id), null, task);
+    }
+
+    private static List<Long> ids(List<TaskResponse> tasks) {
+        return tasks.stream().map(TaskResponse::id).sorted().toList();
+    }
+}
@@ -1,28 +1,50 @@
 package com.todo.rails.elite.starter.code.service;
 
 import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.dto.BulkTaskRequest;
+import com.todo.rails.elite.starter.code.model.dto.TaskPage;
+import com.todo.rails.elite.starter.code.model.dto.TaskResponse;
+import com.todo.rails.elite.starter.code.model.User;
+import com.todo.rails.elite.starter.code.model.event.TaskChangedEvent;
 import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import com.todo.rails.elite.starter.code.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 // Write Unit Tests for Services. Use JUnit to write tests for TaskService methods like addTask(), updateTask(), and deleteTask().
-@SpringBootTest
 public class TodoRailsServiceTests {
 
+    private static final Long OWNER_ID = 1L;
+
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TaskReadModelService readModel;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -32,25 +54,39 @@ public class TodoRailsServiceTests {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         sampleTask = new Task("Sample Task", "This is a sample task.", false, LocalDate.now());
+        sampleTask.setId(7L);
     }
 
     @Test
     void addTask_Success() {
-        when(taskRepository.findByTitle(sampleTask.getTitle())).thenReturn(Optional.empty());
+        when(taskRepository.findByOwnerIdAndTitle(OWNER_ID, sampleTask.getTitle())).thenReturn(Optional.empty());
         when(taskRepository.save(sampleTask)).thenReturn(sampleTask);
 
-        Task result = taskService.addTask(sampleTask);
+        Task result = taskService.addTask(OWNER_ID, sampleTask);
 
         assertNotNull(result);
         assertEquals(sampleTask.getTitle(), result.getTitle());
         verify(taskRepository, times(1)).save(sampleTask);
     }
 
+    @Test
+    void addTask_AssignsOwner() {
+        User owner = new User();
+        owner.setId(OWNER_ID);
+        when(taskRepository.findByOwnerIdAndTitle(OWNER_ID, sampleTask.getTitle())).thenReturn(Optional.empty());
+        when(userRepository.getReferenceById(OWNER_ID)).thenReturn(owner);
+        when(taskRepository.save(sampleTask)).thenReturn(sampleTask);
+
+        Task result = taskService.addTask(OWNER_ID, sampleTask);
+
+        assertSame(owner, result.getOwner());
+    }
+
     @Test
     void addTask_Failure_TaskAlreadyExists() {
-        when(taskRepository.findByTitle(sampleTask.getTitle())).thenReturn(Optional.of(sampleTask));
+        when(taskRepository.findByOwnerIdAndTitle(OWNER_ID, sampleTask.getTitle())).thenReturn(Optional.of(sampleTask));
 
-        Exception exception = assertThrows(RuntimeException.class, () -> taskService.addTask(sampleTask));
+        Exception exception = assertThrows(RuntimeException.class, () -> taskService.addTask(OWNER_ID, sampleTask));
 
         assertEquals("Task already exists", exception.getMessage());
         verify(taskRepository, never()).save(sampleTask);
@@ -59,21 +95,103 @@ public class TodoRailsServiceTests {
     @Test
     void updateTask_Success() {
         Task updatedTask = new Task("Updated Task", "Updated description", true, LocalDate.now());
-        when(taskRepository.findByTitle(sampleTask.getTitle())).thenReturn(Optional.of(sampleTask));
-        when(taskRepository.save(any(Task.class))).thenReturn(updatedTask);
+        when(taskRepository.findByOwnerIdAndTitle(OWNER_ID, updatedTask.getTitle())).thenReturn(Optional.of(sampleTask));
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        Task result = taskService.updateTask(updatedTask);
+        Task result = taskService.updateTask(OWNER_ID, updatedTask);
 
         assertNotNull(result);
         assertEquals("Updated Task", result.getTitle());
     }
 
+    @Test
+    void replaceTask_RejectsOutdatedVersion() {
+        sampleTask.setVersion(3L);
+        Task replacement = new Task("Sample Task", "Changed elsewhere", false, LocalDate.now());
+        when(taskRepository.findByIdAndOwnerId(7L, OWNER_ID)).thenReturn(Optional.of(sampleTask));
+
+        assertThrows(
+                ObjectOptimisticLockingFailureException.class,
+                () -> taskService.replaceTask(OWNER_ID, 7L, replacement, 2L)
+        );
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
     @Test
     void deleteTask_Success() {
-        when(taskRepository.findByTitle(sampleTask.getTitle())).thenReturn(Optional.of(sampleTask));
+        when(taskRepository.findByOwnerIdAndTitle(OWNER_ID, sampleTask.getTitle())).thenReturn(Optional.of(sampleTask));
 
-        taskService.deleteTask(sampleTask);
+        taskService.deleteTask(OWNER_ID, sampleTask);
 
         verify(taskRepository, times(1)).delete(sampleTask);
     }
+
+    @Test
+    void deleteTask_PublishesDeletedEvent() {
+        when(taskRepository.findByOwnerIdAndTitle(OWNER_ID, sampleTask.getTitle())).thenReturn(Optional.of(sampleTask));
+
+        taskService.deleteTask(OWNER_ID, sampleTask);
+
+        verify(eventPublisher).publishEvent(TaskChangedEvent.deleted(OWNER_ID, sampleTask));
+    }
+
+    @Test
+    void getPendingTasks_QueriesByCompletedFlag() {
+        when(taskRepository.findByOwnerIdAndCompleted(OWNER_ID, false)).thenReturn(List.of(sampleTask));
+
+        List<Task> result = taskService.getPendingTasks(OWNER_ID);
+
+        assertEquals(List.of(sampleTask), result);
+        verify(taskRepository, never()).findAll();
+    }
+
+    @Test
+    void getTodayTasks_QueriesByDueDate() {
+        when(taskRepository.findByOwnerIdAndCompletedAndDueDate(OWNER_ID, false, LocalDate.now()))
+                .thenReturn(List.of(sampleTask));
+
+        List<Task> result = taskService.getTodayTasks(OWNER_ID);
+
+        assertEquals(List.of(sampleTask), result);
+        verify(taskRepository, never()).findAll();
+    }
+
+    @Test
+    void getUpcomingTasksPage_QueriesDueDateRangeAfterToday() {
+        LocalDate today = LocalDate.now();
+        TaskResponse upcoming = TaskResponse.of(new Task("Upcoming", "Due tomorrow", false, today.plusDays(1)));
+        when(taskRepository.findByOwnerIdAndCompletedAndDueDateBeforeAfterDueDateAndId(
+                eq(OWNER_ID), eq(false), eq(today.plusDays(8)), eq(today), eq(Long.MAX_VALUE), any(Limit.class)))
+                .thenReturn(List.of(upcoming));
+
+        TaskPage result = taskService.getUpcomingTasksPage(OWNER_ID, 7, null, 10);
+
+        assertEquals(List.of(upcoming), result.tasks());
+        verify(readModel, never()).getPendingTasksDueBetween(any(), any(), any(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void getUpcomingTasksPage_Failure_NonPositiveDays() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.getUpcomingTasksPage(OWNER_ID, 0, null, 10));
+    }
+
+    @Test
+    void completeTasks_ByIds_UsesSingleBulkUpdate() {
+        List<Long> ids = List.of(1L, 2L, 3L);
+        when(taskRepository.completeByIdIn(eq(OWNER_ID), eq(ids), any(Instant.class))).thenReturn(3);
+
+        int affected = taskService.completeTasks(OWNER_ID, new BulkTaskRequest(ids, null));
+
+        assertEquals(3, affected);
+        verify(taskRepository, never()).findById(any());
+        verify(taskRepository, never()).save(any());
+    }
+
+    @Test
+    void deleteTasks_Failure_AmbiguousSelection() {
+        BulkTaskRequest request = new BulkTaskRequest(List.of(1L), LocalDate.now());
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.deleteTasks(OWNER_ID, request));
+        verifyNoInteractions(taskRepository);
+    }
 }
@@ -0,0 +1,154 @@
+package com.todo.rails.elite.starter.code.service.readmodel;
+
+import com.todo.rails.elite.starter.code.model.dto.TaskResponse;
+import com.todo.rails.elite.starter.code.model.dto.TaskRow;
+import com.todo.rails.elite.starter.code.model.dto.TaskVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskColumnsTests {
+
+    private static final long OWNER_ID = 1L;
+    private static final long OTHER_OWNER_ID = 2L;
+    private static final LocalDate TODAY = LocalDate.of(2030, 1, 15);
+    private static final Instant MODIFIED = Instant.parse("2030-01-14T10:15:30.123456Z");
+
+    private TaskColumns columns;
+
+    @BeforeEach
+    void setUp() {
+        columns = new TaskColumns();
+        columns.putAll(Stream.of(
+                row(1L, OWNER_ID, "Buy groceries", false, TODAY.plusDays(1)),
+                row(2L, OWNER_ID, "Write report", false, TODAY),
+                row(3L, OWNER_ID, "Call plumber", true, TODAY),
+                row(4L, OTHER_OWNER_ID, "Walk the dog", false, TODAY),
+                row(5L, OWNER_ID, "Pay rent", false, TODAY)
+        ));
+    }
+
+    @Test
+    void tasksAfter_PagesOwnersTasksById() {
+        assertEquals(List.of(1L, 2L), ids(columns.tasksAfter(OWNER_ID, 0L, 2)));
+        assertEquals(List.of(3L, 5L), ids(columns.tasksAfter(OWNER_ID, 2L, 10)));
+        assertEquals(List.of(5L), ids(columns.tasksAfter(OWNER_ID, 4L, 10)));
+        assertEquals(List.of(), ids(columns.tasksAfter(3L, 0L, 10)));
+    }
+
+    @Test
+    void tasksAfter_ReturnsEveryField() {
+        TaskResponse task = columns.tasksAfter(OWNER_ID, 0L, 1).getFirst();
+
+        assertEquals(1L, task.id());
+        assertEquals("Buy groceries", task.title());
+        assertEquals("Description of Buy groceries", task.description());
+        assertFalse(task.completed());
+        assertEquals(TODAY.plusDays(1), task.dueDate());
+        assertEquals(MODIFIED, task.lastModified());
+        assertEquals(7L, task.version());
+    }
+
+    @Test
+    void pendingAfter_PagesByDueDateThenId() {
+        assertEquals(List.of(2L, 5L, 1L), ids(columns.pendingAfter(OWNER_ID, null, 0L, 10)));
+        assertEquals(List.of(5L, 1L), ids(columns.pendingAfter(OWNER_ID, TODAY, 2L, 10)));
+        assertEquals(List.of(1L), ids(columns.pendingAfter(OWNER_ID, TODAY, 5L, 10)));
+    }
+
+    @Test
+    void pendingDueOn_OnlyReturnsThatDay() {
+        assertEquals(List.of(2L, 5L), ids(columns.pendingDueOn(OWNER_ID, TODAY, 0L, 10)));
+        assertEquals(List.of(5L), ids(columns.pendingDueOn(OWNER_ID, TODAY, 2L, 10)));
+        assertEquals(List.of(4L), ids(columns.pendingDueOn(OTHER_OWNER_ID, TODAY, 0L, 10)));
+    }
+
+    @Test
+    void pendingDueBetween_ReturnsDueDateRange() {
+        columns.put(row(6L, OWNER_ID, "Renew passport", false, TODAY.minusDays(3)));
+        columns.put(row(8L, OWNER_ID, "Book flights", false, TODAY.plusDays(9)));
+
+        assertEquals(List.of(6L), ids(columns.pendingDueBetween(OWNER_ID, null, TODAY.minusDays(1), null, 0L, 10)));
+        assertEquals(List.of(1L, 8L), ids(columns.pendingDueBetween(OWNER_ID, TODAY.plusDays(1), TODAY.plusDays(10), null, 0L, 10)));
+        assertEquals(List.of(5L, 1L), ids(columns.pendingDueBetween(OWNER_ID, TODAY, TODAY.plusDays(7), TODAY, 2L, 10)));
+        assertEquals(List.of(), ids(columns.pendingDueBetween(OWNER_ID, TODAY.plusDays(2), TODAY.plusDays(8), null, 0L, 10)));
+    }
+
+    @Test
+    void put_ReplacesTaskAndKeepsPendingOrder() {
+        columns.put(row(5L, OWNER_ID, "Pay rent online", false, TODAY.plusDays(2)));
+        columns.put(row(3L, OWNER_ID, "Call plumber", false, TODAY));
+        columns.put(row(2L, OWNER_ID, "Write report", true, TODAY));
+
+        assertEquals(List.of(3L, 1L, 5L), ids(columns.pendingAfter(OWNER_ID, null, 0L, 10)));
+        assertEquals("Pay rent online", columns.tasksAfter(OWNER_ID, 4L, 1).getFirst().title());
+        assertEquals(5, columns.size());
+    }
+
+    @Test
+    void update_RemovesTasksWithoutRow() {
+        columns.update(OWNER_ID, List.of(1L, 2L), List.of(row(1L, OWNER_ID, "Buy groceries", true, TODAY)));
+
+        assertEquals(List.of(1L, 3L, 5L), ids(columns.tasksAfter(OWNER_ID, 0L, 10)));
+        assertEquals(List.of(5L), ids(columns.pendingAfter(OWNER_ID, null, 0L, 10)));
+        assertEquals(4, columns.size());
+    }
+
+    @Test
+    void replaceOwner_LeavesOtherOwnersAlone() {
+        columns.replaceOwner(OWNER_ID, List.of(row(6L, OWNER_ID, "Fresh start", false, TODAY)));
+
+        assertEquals(List.of(6L), ids(columns.tasksAfter(OWNER_ID, 0L, 10)));
+        assertEquals(List.of(4L), ids(columns.tasksAfter(OTHER_OWNER_ID, 0L, 10)));
+        assertEquals(2, columns.size());
+    }
+
+    @Test
+    void versions_DescribeTheListedRows() {
+        Instant later = MODIFIED.plusSeconds(60);
+        columns.put(new TaskRow(6L, OWNER_ID, "Renew passport", "Description", false, TODAY.minusDays(3), later, 1L));
+
+        assertEquals(new TaskVersion(later, 5), columns.version(OWNER_ID));
+        assertEquals(new TaskVersion(later, 4), columns.pendingVersion(OWNER_ID));
+        assertEquals(new TaskVersion(MODIFIED, 2), columns.pendingVersionDueBetween(OWNER_ID, TODAY, TODAY));
+        assertEquals(new TaskVersion(later, 1), columns.pendingVersionDueBetween(OWNER_ID, null, TODAY.minusDays(1)));
+        assertEquals(new TaskVersion(null, 0), columns.pendingVersionDueBetween(OWNER_ID, TODAY.plusDays(2), TODAY.plusDays(7)));
+        assertEquals(new TaskVersion(null, 0), columns.version(3L));
+    }
+
+    @Test
+    void version_ChangesWhenATaskIsRemoved() {
+        TaskVersion before = columns.version(OWNER_ID);
+
+        columns.remove(OWNER_ID, 3L);
+
+        assertEquals(new TaskVersion(MODIFIED, 4), before);
+        assertEquals(new TaskVersion(MODIFIED, 3), columns.version(OWNER_ID));
+    }
+
+    @Test
+    void compaction_KeepsTextIntact() {
+        String description = "x".repeat(4_000);
+        for (int i = 0; i < 2 * TaskColumns.CHUNK_SIZE / description.length(); i++) {
+            columns.put(new TaskRow(1L, OWNER_ID, "Buy groceries " + i, description, false, TODAY, MODIFIED, (long) i));
+        }
+
+        assertEquals("Call plumber", columns.tasksAfter(OWNER_ID, 2L, 1).getFirst().title());
+        assertEquals(description, columns.tasksAfter(OWNER_ID, 0L, 1).getFirst().description());
+        assertTrue(columns.offHeapBytes() <= 2L * TaskColumns.CHUNK_SIZE);
+    }
+
+    private static TaskRow row(long id, long ownerId, String title, boolean completed, LocalDate dueDate) {
+        return new TaskRow(id, ownerId, title, "Description of " + title, completed, dueDate, MODIFIED, 7L);
+    }
+
+    private static List<Long> ids(List<TaskResponse> tasks) {
+        return tasks.stream().map(TaskResponse::id).toList();
+    }
+}
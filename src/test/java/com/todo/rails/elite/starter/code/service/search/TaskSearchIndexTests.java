@@ -0,0 +1,63 @@
+package com.todo.rails.elite.starter.code.service.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskSearchIndexTests {
+
+    private static final long OWNER_ID = 1L;
+    private static final long OTHER_OWNER_ID = 2L;
+
+    private TaskSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TaskSearchIndex();
+        index.put(OWNER_ID, 1L, "Buy groceries", "Milk, eggs and bread");
+        index.put(OWNER_ID, 2L, "Write report", "Quarterly report for the groceries budget");
+        index.put(OWNER_ID, 3L, "Call plumber", "Kitchen sink is leaking");
+        index.put(OTHER_OWNER_ID, 4L, "Buy groceries", "For the other household");
+    }
+
+    @Test
+    void search_RanksTitleMatchesFirst() {
+        assertEquals(List.of(1L, 2L), index.search(OWNER_ID, "groceries", 10));
+    }
+
+    @Test
+    void search_MatchesPrefixes() {
+        assertEquals(List.of(3L), index.search(OWNER_ID, "plumb", 10));
+    }
+
+    @Test
+    void search_PrefersDocumentsMatchingAllTerms() {
+        assertEquals(List.of(2L, 1L), index.search(OWNER_ID, "groceries budget", 10));
+    }
+
+    @Test
+    void search_OnlyReturnsOwnersTasks() {
+        assertEquals(List.of(4L), index.search(OTHER_OWNER_ID, "groceries", 10));
+        assertEquals(List.of(), index.search(OTHER_OWNER_ID, "plumber", 10));
+    }
+
+    @Test
+    void put_ReplacesPreviousText() {
+        index.put(OWNER_ID, 3L, "Call electrician", "Lights are flickering");
+
+        assertEquals(List.of(), index.search(OWNER_ID, "plumber", 10));
+        assertEquals(List.of(3L), index.search(OWNER_ID, "electrician", 10));
+    }
+
+    @Test
+    void remove_IgnoresOtherOwners() {
+        index.remove(OTHER_OWNER_ID, 1L);
+        index.remove(OWNER_ID, 2L);
+
+        assertEquals(List.of(1L), index.search(OWNER_ID, "groceries", 10));
+        assertEquals(3, index.size());
+    }
+}
@@ -0,0 +1,49 @@
+package com.todo.rails.elite.starter.code.service.security;
+
+import com.todo.rails.elite.starter.code.model.User;
+import com.todo.rails.elite.starter.code.model.security.SecurityUser;
+import com.todo.rails.elite.starter.code.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+public class JpaUserDetailsServiceTests {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private JpaUserDetailsService userDetailsService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        user = new User("alice", "$2a$04$legacyhash", "alice@example.com", Set.of("USER"));
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void loadUserByUsername_UnknownUser() {
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("bob"));
+    }
+
+    @Test
+    void updatePassword_StoresNewHash() {
+        UserDetails updated = userDetailsService.updatePassword(new SecurityUser(user), "{bcrypt}$2a$10$newhash");
+
+        assertEquals("{bcrypt}$2a$10$newhash", user.getPassword());
+        assertEquals("{bcrypt}$2a$10$newhash", updated.getPassword());
+    }
+}
@@ -0,0 +1,79 @@
+package com.todo.rails.elite.starter.code.service.security;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.todo.rails.elite.starter.code.model.User;
+import com.todo.rails.elite.starter.code.model.dto.TokenResponse;
+import com.todo.rails.elite.starter.code.model.security.SecurityUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+public class TokenServiceTests {
+
+    private static final SecretKey KEY = new SecretKeySpec(new byte[32], "HmacSHA256");
+
+    @Mock
+    private JpaUserDetailsService userDetailsService;
+
+    private TokenService tokenService;
+    private NimbusJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+        User user = new User("alice", passwordEncoder.encode("secret"), "alice@example.com", Set.of("USER"));
+        user.setId(7L);
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(new SecurityUser(user));
+        tokenService = new TokenService(new NimbusJwtEncoder(new ImmutableSecret<>(KEY)), userDetailsService, passwordEncoder,
+                new SimpleMeterRegistry(), "todo-rails", Duration.ofMinutes(15), 100);
+        decoder = NimbusJwtDecoder.withSecretKey(KEY).macAlgorithm(TokenService.SIGNING_ALGORITHM).build();
+    }
+
+    @Test
+    void issueToken_CarriesUserIdAndRoles() {
+        TokenResponse response = tokenService.issueToken("alice", "secret");
+
+        Jwt token = decoder.decode(response.accessToken());
+        assertEquals("Bearer", response.tokenType());
+        assertEquals(900, response.expiresIn());
+        assertEquals("alice", token.getSubject());
+        assertEquals(7L, ((Number) token.getClaim(TokenService.USER_ID_CLAIM)).longValue());
+        assertEquals(List.of("USER"), token.getClaimAsStringList(TokenService.ROLES_CLAIM));
+        JwtAuthenticationToken authentication = tokenService.toAuthentication(token);
+        assertEquals("alice", authentication.getName());
+        assertEquals(SecurityUser.authoritiesOf(Set.of("USER")), Set.copyOf(authentication.getAuthorities()));
+    }
+
+    @Test
+    void issueToken_WrongPassword() {
+        assertThrows(BadCredentialsException.class, () -> tokenService.issueToken("alice", "wrong"));
+    }
+
+    @Test
+    void revokeToken_FailsValidation() {
+        Jwt token = decoder.decode(tokenService.issueToken("alice", "secret").accessToken());
+        assertFalse(tokenService.validate(token).hasErrors());
+
+        tokenService.revokeToken(token);
+
+        assertTrue(tokenService.validate(token).hasErrors());
+    }
+}